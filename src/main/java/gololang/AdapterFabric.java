@@ -14,11 +14,20 @@ import org.eclipse.golo.runtime.TypeMatching;
 import org.eclipse.golo.runtime.adapters.AdapterDefinition;
 import org.eclipse.golo.runtime.adapters.JavaBytecodeAdapterGenerator;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+import java.lang.ref.WeakReference;
 import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.TreeSet;
+import java.util.WeakHashMap;
 import java.util.concurrent.atomic.AtomicLong;
 
+import static java.lang.invoke.MethodHandles.publicLookup;
+
 /**
  * An adapter fabric can provide instance makers of adapter objects defined at runtime.
  * <p>
@@ -50,6 +59,10 @@ import java.util.concurrent.atomic.AtomicLong;
  * <p>
  * It is important to note that adapters are useful for interoperability with 3rd-party Java code, as that allow
  * passing adequate objects from Golo to such libraries. Their usage for pure Golo code is discouraged.
+ * <p>
+ * The adapter classes only depend on the parent class and on the interfaces, the implementations and overrides being
+ * looked up on the adapter instances. The definitions extending the same class and implementing the same interfaces
+ * thus share the same adapter class, as long as it is in use.
  */
 public final class AdapterFabric {
 
@@ -60,10 +73,27 @@ public final class AdapterFabric {
 
     private final AdapterDefinition adapterDefinition;
     private final Class<?> adapterClass;
+    private final Constructor<?>[] constructors;
+    private final MethodHandle[] handles;
 
     private Maker(AdapterDefinition adapterDefinition, Class<?> adapterClass) {
       this.adapterDefinition = adapterDefinition;
       this.adapterClass = adapterClass;
+      this.constructors = adapterClass.getConstructors();
+      this.handles = new MethodHandle[constructors.length];
+      for (int i = 0; i < constructors.length; i++) {
+        try {
+          MethodHandle handle = publicLookup().unreflectConstructor(constructors[i]);
+          if (!constructors[i].isVarArgs()) {
+            handle = handle
+              .asType(MethodType.genericMethodType(handle.type().parameterCount()))
+              .asSpreader(Object[].class, handle.type().parameterCount());
+          }
+          handles[i] = handle;
+        } catch (IllegalAccessException e) {
+          throw new IllegalStateException(e);
+        }
+      }
     }
 
     /**
@@ -77,20 +107,39 @@ public final class AdapterFabric {
       Object[] cargs = new Object[args.length + 1];
       cargs[0] = adapterDefinition;
       System.arraycopy(args, 0, cargs, 1, args.length);
-      for (Constructor<?> constructor : adapterClass.getConstructors()) {
+      for (int i = 0; i < constructors.length; i++) {
+        Constructor<?> constructor = constructors[i];
         Class<?>[] parameterTypes = constructor.getParameterTypes();
         if ((cargs.length == parameterTypes.length) || (constructor.isVarArgs() && (cargs.length >= parameterTypes.length))) {
           if (TypeMatching.canAssign(parameterTypes, cargs, constructor.isVarArgs())) {
-            return constructor.newInstance(cargs);
+            return construct(handles[i], constructor.isVarArgs(), cargs);
           }
         }
       }
       throw new IllegalArgumentException("Could not create an instance for arguments " + Arrays.toString(cargs));
     }
+
+    private static Object construct(MethodHandle handle, boolean varargs, Object[] args) throws InvocationTargetException {
+      try {
+        if (varargs) {
+          return handle.invokeWithArguments(args);
+        }
+        return (Object) handle.invokeExact(args);
+      } catch (Throwable t) {
+        throw new InvocationTargetException(t);
+      }
+    }
   }
 
+  /**
+   * The adapter classes, by loader resolving the parent class and the interfaces, and by parent and interfaces names.
+   */
+  private static final Map<ClassLoader, Map<String, WeakReference<Class<?>>>> ADAPTER_CLASSES = new WeakHashMap<>();
+
+  private static final AtomicLong NEXT_ID = new AtomicLong();
+
   private final ClassLoader classLoader;
-  private final AtomicLong nextId = new AtomicLong();
+  private final ClassLoader resolutionLoader;
   private final JavaBytecodeAdapterGenerator adapterGenerator = new JavaBytecodeAdapterGenerator();
 
   /**
@@ -99,7 +148,18 @@ public final class AdapterFabric {
    * @param classLoader the classloader to use.
    */
   public AdapterFabric(ClassLoader classLoader) {
+    this(classLoader, classLoader);
+  }
+
+  /**
+   * Makes an adapter fabric defining its adapters in a classloader.
+   * <p>
+   * The adapter classes are shared by the fabrics whose classloaders resolve the parent classes and the interfaces
+   * with the same classloader, which is the parent of the classloaders created for the fabrics.
+   */
+  private AdapterFabric(ClassLoader classLoader, ClassLoader resolutionLoader) {
     this.classLoader = classLoader;
+    this.resolutionLoader = resolutionLoader;
   }
 
   /**
@@ -107,7 +167,7 @@ public final class AdapterFabric {
    */
   public AdapterFabric() {
     this(new ClassLoader(Thread.currentThread().getContextClassLoader()) {
-    });
+    }, Thread.currentThread().getContextClassLoader());
   }
 
   /**
@@ -118,7 +178,7 @@ public final class AdapterFabric {
    */
   public static AdapterFabric withParentClassLoader(ClassLoader parentClassLoader) {
     return new AdapterFabric(new ClassLoader(parentClassLoader) {
-    });
+    }, parentClassLoader);
   }
 
   /**
@@ -132,16 +192,21 @@ public final class AdapterFabric {
     if (configuration.containsKey("extends")) {
       parent = (String) configuration.get("extends");
     }
-    String name = "$Golo$Adapter$" + nextId.getAndIncrement();
-    AdapterDefinition definition = new AdapterDefinition(classLoader, name, parent);
-
+    TreeSet<String> interfaces = new TreeSet<>();
     if (configuration.containsKey("interfaces")) {
       @SuppressWarnings("unchecked")
-      Iterable<String> interfaces = (Iterable<String>) configuration.get("interfaces");
-      for (String iface : interfaces) {
-        definition.implementsInterface(iface);
+      Iterable<String> configured = (Iterable<String>) configuration.get("interfaces");
+      for (String iface : configured) {
+        interfaces.add(iface);
       }
     }
+    String key = parent + interfaces;
+    Class<?> adapterClass = cachedAdapterClass(key);
+    String name = adapterClass != null ? adapterClass.getName() : "$Golo$Adapter$" + NEXT_ID.getAndIncrement();
+    AdapterDefinition definition = new AdapterDefinition(classLoader, name, parent);
+    for (String iface : interfaces) {
+      definition.implementsInterface(iface);
+    }
     if (configuration.containsKey("implements")) {
       @SuppressWarnings("unchecked")
       Map<String, FunctionReference> implementations = (Map<String, FunctionReference>) configuration.get("implements");
@@ -157,7 +222,27 @@ public final class AdapterFabric {
       }
     }
     definition.validate();
-    Class<?> adapterClass = adapterGenerator.generateIntoDefinitionClassloader(definition);
+    if (adapterClass == null) {
+      adapterClass = adapterGenerator.generateIntoDefinitionClassloader(definition);
+      cacheAdapterClass(key, adapterClass);
+    }
     return new Maker(definition, adapterClass);
   }
+
+  private Class<?> cachedAdapterClass(String key) {
+    synchronized (ADAPTER_CLASSES) {
+      Map<String, WeakReference<Class<?>>> classes = ADAPTER_CLASSES.get(resolutionLoader);
+      if (classes == null) {
+        return null;
+      }
+      WeakReference<Class<?>> reference = classes.get(key);
+      return reference == null ? null : reference.get();
+    }
+  }
+
+  private void cacheAdapterClass(String key, Class<?> adapterClass) {
+    synchronized (ADAPTER_CLASSES) {
+      ADAPTER_CLASSES.computeIfAbsent(resolutionLoader, k -> new HashMap<>()).put(key, new WeakReference<>(adapterClass));
+    }
+  }
 }
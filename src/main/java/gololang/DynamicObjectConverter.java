@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2012-2021 Institut National des Sciences Appliquées de Lyon (INSA Lyon) and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package gololang;
+
+import java.lang.reflect.Array;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Converts object graphs between collections and dynamic objects.
+ * <p>
+ * {@link #toDynamicObjects(Object)} turns maps and structs into dynamic objects, and collections, tuples and arrays
+ * into lists, at any depth. {@link #fromDynamicObjects(Object)} does the reverse, turning dynamic objects into maps.
+ * Any other value is kept as is, without being copied.
+ * <p>
+ * The conversion is iterative, so that deeply nested structures do not overflow the stack. A container referenced
+ * several times in the source graph is converted once, and the result is shared in the same way in the converted
+ * graph, which also makes cyclic graphs convertible.
+ * <p>
+ * You should consult the "golodoc" of the {@code gololang.JSON} module.
+ */
+public final class DynamicObjectConverter {
+
+  private final Map<Object, Object> converted = new IdentityHashMap<>();
+  private final Deque<Object[]> pending = new ArrayDeque<>();
+  private final boolean toDynamic;
+
+  private DynamicObjectConverter(boolean toDynamic) {
+    this.toDynamic = toDynamic;
+  }
+
+  /**
+   * Converts maps and structs into dynamic objects, and sequences into lists.
+   *
+   * @param value the value to convert.
+   * @return the converted value.
+   */
+  public static Object toDynamicObjects(Object value) {
+    return new DynamicObjectConverter(true).convert(value);
+  }
+
+  /**
+   * Converts dynamic objects into maps, and sequences into lists.
+   * <p>
+   * Dynamic object properties whose values are functions are not converted.
+   *
+   * @param value the value to convert.
+   * @return the converted value.
+   */
+  public static Object fromDynamicObjects(Object value) {
+    return new DynamicObjectConverter(false).convert(value);
+  }
+
+  private static boolean isSequence(Object value) {
+    return value instanceof Collection
+      || value instanceof Tuple
+      || (value != null && value.getClass().isArray());
+  }
+
+  private Object convert(Object root) {
+    Object result = target(root);
+    while (!pending.isEmpty()) {
+      Object[] work = pending.pop();
+      fill(work[0], work[1]);
+    }
+    return result;
+  }
+
+  private Object target(Object value) {
+    boolean container = isSequence(value) || (toDynamic
+        ? (value instanceof Map || value instanceof GoloStruct)
+        : value instanceof DynamicObject);
+    if (!container) {
+      return value;
+    }
+    Object target = converted.get(value);
+    if (target == null) {
+      if (isSequence(value)) {
+        target = new ArrayList<>();
+      } else if (toDynamic) {
+        target = new DynamicObject();
+      } else {
+        target = new LinkedHashMap<String, Object>();
+      }
+      converted.put(value, target);
+      pending.push(new Object[]{value, target});
+    }
+    return target;
+  }
+
+  @SuppressWarnings("unchecked")
+  private void fill(Object source, Object target) {
+    if (target instanceof List) {
+      List<Object> list = (List<Object>) target;
+      if (source instanceof Object[]) {
+        for (Object element : (Object[]) source) {
+          list.add(target(element));
+        }
+      } else if (source.getClass().isArray()) {
+        int length = Array.getLength(source);
+        for (int i = 0; i < length; i++) {
+          list.add(Array.get(source, i));
+        }
+      } else {
+        for (Object element : (Iterable<?>) source) {
+          list.add(target(element));
+        }
+      }
+    } else if (target instanceof DynamicObject) {
+      DynamicObject object = (DynamicObject) target;
+      if (source instanceof GoloStruct) {
+        GoloStruct struct = (GoloStruct) source;
+        String[] names = struct.members;
+        Object[] values = struct.toArray();
+        for (int i = 0; i < names.length; i++) {
+          object.define(names[i], target(values[i]));
+        }
+      } else {
+        for (Map.Entry<?, ?> entry : ((Map<?, ?>) source).entrySet()) {
+          object.define(String.valueOf(entry.getKey()), target(entry.getValue()));
+        }
+      }
+    } else {
+      Map<String, Object> map = (Map<String, Object>) target;
+      for (Map.Entry<String, Object> property : ((DynamicObject) source).properties()) {
+        if (!(property.getValue() instanceof FunctionReference)) {
+          map.put(property.getKey(), target(property.getValue()));
+        }
+      }
+    }
+  }
+}
@@ -15,7 +15,10 @@ import java.lang.invoke.MethodHandles;
 import java.lang.invoke.MethodType;
 import java.util.Arrays;
 
+import static java.lang.invoke.MethodHandles.dropArguments;
 import static java.lang.invoke.MethodHandles.filterReturnValue;
+import static java.lang.invoke.MethodType.genericMethodType;
+import static java.lang.invoke.MethodType.methodType;
 
 /**
  * A reference to a function / closure.
@@ -32,10 +35,18 @@ import static java.lang.invoke.MethodHandles.filterReturnValue;
  */
 public class FunctionReference {
 
+  private static final int SPECIALIZED_ARITIES = 6;
+
+  private static final MethodType SPREADER_TYPE = methodType(Object.class, Object[].class);
+
   private final MethodHandle handle;
 
   private final String[] parameterNames;
 
+  private MethodHandle[] invokers;
+
+  private MethodHandle[] spreaders;
+
   /**
    * Makes a function reference from a method handle.
    *
@@ -64,6 +75,9 @@ public class FunctionReference {
 
   /**
    * Unboxes the method handle.
+   * <p>
+   * The other methods use this one to get the method handle, such that a subclass can create it only when needed.
+   * Such a subclass must also override {@link #type()} and {@link #isVarargsCollector()}.
    *
    * @return the (boxed) method handle.
    */
@@ -81,11 +95,11 @@ public class FunctionReference {
   }
 
   public MethodType type() {
-    return handle.type();
+    return handle().type();
   }
 
   public FunctionReference asCollector(Class<?> arrayType, int arrayLength) {
-    return new FunctionReference(handle.asCollector(arrayType, arrayLength), this.parameterNames);
+    return new FunctionReference(handle().asCollector(arrayType, arrayLength), this.parameterNames);
   }
 
   public FunctionReference asCollector(int arrayLength) {
@@ -93,18 +107,18 @@ public class FunctionReference {
   }
 
   public FunctionReference asFixedArity() {
-    return new FunctionReference(handle.asFixedArity(), this.parameterNames);
+    return new FunctionReference(handle().asFixedArity(), this.parameterNames);
   }
 
   public FunctionReference asType(MethodType newType) {
-    return new FunctionReference(handle.asType(newType), this.parameterNames);
+    return new FunctionReference(handle().asType(newType), this.parameterNames);
   }
 
   public FunctionReference asVarargsCollector(Class<?> arrayType) {
     if (this.isVarargsCollector()) {
       return this;
     }
-    return new FunctionReference(handle.asVarargsCollector(arrayType), this.parameterNames);
+    return new FunctionReference(handle().asVarargsCollector(arrayType), this.parameterNames);
   }
 
   public FunctionReference asVarargsCollector() {
@@ -112,7 +126,7 @@ public class FunctionReference {
   }
 
   public FunctionReference bindTo(Object x) {
-    MethodHandle mh = this.handle.bindTo(x);
+    MethodHandle mh = handle().bindTo(x);
     if (isVarargsCollector() && arity() > 1) {
       mh = mh.asVarargsCollector(Object[].class);
     }
@@ -120,11 +134,11 @@ public class FunctionReference {
   }
 
   public boolean isVarargsCollector() {
-    return handle.isVarargsCollector();
+    return handle().isVarargsCollector();
   }
 
   public FunctionReference asSpreader(Class<?> arrayType, int arrayLength) {
-    return new FunctionReference(handle.asSpreader(arrayType, arrayLength));
+    return new FunctionReference(handle().asSpreader(arrayType, arrayLength));
   }
 
   public FunctionReference asSpreader(int arrayLength) {
@@ -143,7 +157,7 @@ public class FunctionReference {
    * @return the number of declared parameter
    */
   public int arity() {
-    return handle.type().parameterCount();
+    return type().parameterCount();
   }
 
   /**
@@ -153,8 +167,104 @@ public class FunctionReference {
     return arity() == nb || (nb >= arity() - 1 && isVarargsCollector());
   }
 
+  /**
+   * Apply the function to the provided arguments.
+   * <p>
+   * Calls with up to 5 arguments go through the same exact invoker as {@link #invoke0()} to {@link #invoke5}.
+   *
+   * @return the result of the function
+   */
   public Object invoke(Object... args) throws Throwable {
-    return handle.invokeWithArguments(args);
+    switch (args == null ? 0 : args.length) {
+      case 0:
+        return invoke0();
+      case 1:
+        return invoke1(args[0]);
+      case 2:
+        return invoke2(args[0], args[1]);
+      case 3:
+        return invoke3(args[0], args[1], args[2]);
+      case 4:
+        return invoke4(args[0], args[1], args[2], args[3]);
+      case 5:
+        return invoke5(args[0], args[1], args[2], args[3], args[4]);
+      default:
+        return handle().invokeWithArguments(args);
+    }
+  }
+
+  /**
+   * Apply the function without arguments.
+   */
+  public Object invoke0() throws Throwable {
+    return invoker(0).invokeExact(this);
+  }
+
+  /**
+   * Apply the function to 1 argument.
+   */
+  public Object invoke1(Object a) throws Throwable {
+    return invoker(1).invokeExact(this, a);
+  }
+
+  /**
+   * Apply the function to 2 arguments.
+   */
+  public Object invoke2(Object a, Object b) throws Throwable {
+    return invoker(2).invokeExact(this, a, b);
+  }
+
+  /**
+   * Apply the function to 3 arguments.
+   */
+  public Object invoke3(Object a, Object b, Object c) throws Throwable {
+    return invoker(3).invokeExact(this, a, b, c);
+  }
+
+  /**
+   * Apply the function to 4 arguments.
+   */
+  public Object invoke4(Object a, Object b, Object c, Object d) throws Throwable {
+    return invoker(4).invokeExact(this, a, b, c, d);
+  }
+
+  /**
+   * Apply the function to 5 arguments.
+   */
+  public Object invoke5(Object a, Object b, Object c, Object d, Object e) throws Throwable {
+    return invoker(5).invokeExact(this, a, b, c, d, e);
+  }
+
+  /**
+   * Gives the handle applying this function to {@code count} arguments.
+   * <p>
+   * The handle has the {@code (FunctionReference, Object, ...)Object} type, and is invoked with this reference
+   * followed by the arguments. The arguments are adapted as by {@link MethodHandle#invokeWithArguments(Object...)},
+   * and the handles for up to 5 arguments are kept by the reference. A subclass can override this method to share
+   * the invokers between its instances.
+   *
+   * @param count the number of arguments.
+   * @return an exact invoker for this function.
+   */
+  protected MethodHandle invoker(int count) {
+    if (count >= SPECIALIZED_ARITIES) {
+      return exactInvoker(handle(), count);
+    }
+    MethodHandle[] cache = invokers;
+    if (cache == null) {
+      cache = new MethodHandle[SPECIALIZED_ARITIES];
+      invokers = cache;
+    }
+    MethodHandle invoker = cache[count];
+    if (invoker == null) {
+      invoker = exactInvoker(handle(), count);
+      cache[count] = invoker;
+    }
+    return invoker;
+  }
+
+  private static MethodHandle exactInvoker(MethodHandle handle, int count) {
+    return dropArguments(handle.asType(genericMethodType(count)), 0, FunctionReference.class);
   }
 
   /**
@@ -168,14 +278,14 @@ public class FunctionReference {
     if (args.length < arity()) {
       return insertArguments(0, args);
     }
-    return handle.invokeWithArguments(args);
+    return invoke(args);
   }
 
   @Override
   public String toString() {
     return String.format("FunctionReference{handle=%s%s, parameterNames=%s}",
-        handle.isVarargsCollector() ? "(varargs)" : "",
-        handle,
+        handle().isVarargsCollector() ? "(varargs)" : "",
+        handle(),
         Arrays.toString(parameterNames));
   }
 
@@ -188,12 +298,12 @@ public class FunctionReference {
       return false;
     }
     FunctionReference that = (FunctionReference) obj;
-    return handle.equals(that.handle);
+    return handle().equals(that.handle());
   }
 
   @Override
   public int hashCode() {
-    return handle.hashCode();
+    return handle().hashCode();
   }
 
   /**
@@ -221,18 +331,18 @@ public class FunctionReference {
   public FunctionReference andThen(FunctionReference fun) {
     MethodHandle other = null;
     if (fun.isVarargsCollector() && fun.arity() == 1) {
-      other = fun.handle.asCollector(Object[].class, 1);
+      other = fun.handle().asCollector(Object[].class, 1);
     } else if (fun.isVarargsCollector() && fun.arity() == 2) {
-      other = MethodHandles.insertArguments(fun.handle, 1, new Object[]{new Object[0]});
+      other = MethodHandles.insertArguments(fun.handle(), 1, new Object[]{new Object[0]});
     } else if (fun.arity() == 0) {
-      other = MethodHandles.dropArguments(fun.handle, 0, Object.class);
+      other = MethodHandles.dropArguments(fun.handle(), 0, Object.class);
     } else if (fun.arity() == 1) {
-      other = fun.handle;
+      other = fun.handle();
     } else {
       throw new IllegalArgumentException("`andThen` requires a function that can be applied to 0 or 1 parameter");
     }
     MethodHandle mh = filterReturnValue(
-        this.handle.asType(this.handle.type().changeReturnType(Object.class)),
+        handle().asType(handle().type().changeReturnType(Object.class)),
         other.asType(other.type().changeParameterType(0, Object.class)));
     if (isVarargsCollector()) {
       mh = mh.asVarargsCollector(Object[].class);
@@ -263,7 +373,7 @@ public class FunctionReference {
    * @return a partially applied function.
    */
   public FunctionReference bindAt(int position, Object value) {
-    MethodHandle mh = MethodHandles.insertArguments(this.handle, position, value);
+    MethodHandle mh = MethodHandles.insertArguments(handle(), position, value);
     if (isVarargsCollector() && position < arity() - 1) {
       mh = mh.asVarargsCollector(Object[].class);
     }
@@ -306,7 +416,7 @@ public class FunctionReference {
     if (values.length == 0) {
       return this;
     }
-    MethodHandle mh = MethodHandles.insertArguments(this.handle, position, values);
+    MethodHandle mh = MethodHandles.insertArguments(handle(), position, values);
     if (isVarargsCollector() && position < arity() - 1) {
       mh = mh.asVarargsCollector(Object[].class);
     }
@@ -322,15 +432,31 @@ public class FunctionReference {
    */
   public Object spread(Object... arguments) throws Throwable {
     int arity = arity();
-    if (this.handle.isVarargsCollector() && (arity > 0) && (arguments[arity - 1] instanceof Object[])) {
-      return this.handle
-          .asFixedArity()
-          .asSpreader(Object[].class, arguments.length)
-          .invoke(arguments);
+    boolean fixed = isVarargsCollector() && (arity > 0) && (arguments[arity - 1] instanceof Object[]);
+    return spreader(arguments.length, fixed).invokeExact(arguments);
+  }
+
+  private MethodHandle spreader(int length, boolean fixed) {
+    if (length >= SPECIALIZED_ARITIES) {
+      return makeSpreader(length, fixed);
+    }
+    MethodHandle[] cache = spreaders;
+    if (cache == null) {
+      cache = new MethodHandle[2 * SPECIALIZED_ARITIES];
+      spreaders = cache;
     }
-    return this.handle
-        .asSpreader(Object[].class, arguments.length)
-        .invoke(arguments);
+    int index = 2 * length + (fixed ? 1 : 0);
+    MethodHandle spreader = cache[index];
+    if (spreader == null) {
+      spreader = makeSpreader(length, fixed);
+      cache[index] = spreader;
+    }
+    return spreader;
+  }
+
+  private MethodHandle makeSpreader(int length, boolean fixed) {
+    MethodHandle target = fixed ? handle().asFixedArity() : handle();
+    return target.asSpreader(Object[].class, length).asType(SPREADER_TYPE);
   }
 
   private String[] dropParameterNames(int from, int size) {
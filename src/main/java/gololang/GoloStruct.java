@@ -11,6 +11,7 @@
 package gololang;
 
 import java.util.Iterator;
+import java.util.NoSuchElementException;
 import org.eclipse.golo.runtime.InvalidDestructuringException;
 
 /**
@@ -96,6 +97,21 @@ public abstract class GoloStruct implements Iterable<Tuple>, Comparable<GoloStru
    */
   public abstract Object[] toArray();
 
+  /**
+   * Writes the JSON representation of this structure, as an object of its public members.
+   * <p>
+   * Golo structure classes override this method to directly write their fields.
+   *
+   * @param out where to write the JSON text.
+   * @return {@code out}.
+   * @throws java.io.UncheckedIOException if writing to {@code out} fails.
+   * @see JSONWriter
+   */
+  public Appendable writeJson(Appendable out) {
+    JSONWriter.of(out).writeObject(members, toArray());
+    return out;
+  }
+
   /**
    * Compares this structure with the specified structure for order.
    * <p>Returns a negative integer, zero, or a positive integer as this structure is less than,
@@ -152,6 +168,51 @@ public abstract class GoloStruct implements Iterable<Tuple>, Comparable<GoloStru
    */
   public abstract GoloStruct set(String member, Object value);
 
+  /**
+   * Gets the index of a public member.
+   * <p>
+   * Golo structure classes override this method to look the name up with a hash code switch.
+   *
+   * @param member the member name.
+   * @return the member index in the order of {@link #members()}, or {@code -1} if there is no such public member.
+   */
+  public int memberIndex(String member) {
+    for (int i = 0; i < members.length; i++) {
+      if (members[i].equals(member)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Gets a public member value by index.
+   * <p>
+   * Golo structure classes override this method to directly access the member field.
+   *
+   * @param index the member index, in the order of {@link #members()}.
+   * @return the member value.
+   * @throws IndexOutOfBoundsException if there is no such member.
+   */
+  public Object get(int index) {
+    return toArray()[index];
+  }
+
+  /**
+   * Sets a public member value by index.
+   * <p>
+   * Golo structure classes override this method to directly access the member field.
+   *
+   * @param index the member index, in the order of {@link #members()}.
+   * @param value the value.
+   * @return this instance.
+   * @throws IndexOutOfBoundsException if there is no such member.
+   * @throws IllegalStateException if the structure is frozen.
+   */
+  public GoloStruct set(int index, Object value) {
+    return set(members[index], value);
+  }
+
   /**
    * Makes a shallow copy.
    *
@@ -177,17 +238,23 @@ public abstract class GoloStruct implements Iterable<Tuple>, Comparable<GoloStru
   public Iterator<Tuple> iterator() {
     return new Iterator<Tuple>() {
 
-      final Iterator<?> memberIterator = members().iterator();
-      final Iterator<?> valuesIterator = values().iterator();
+      final String[] names = members;
+      final Object[] values = toArray();
+      int index = 0;
 
       @Override
       public boolean hasNext() {
-        return memberIterator.hasNext();
+        return index < names.length;
       }
 
       @Override
       public Tuple next() {
-        return new Tuple(memberIterator.next(), valuesIterator.next());
+        if (index >= names.length) {
+          throw new NoSuchElementException();
+        }
+        Tuple entry = new Tuple(names[index], values[index]);
+        index++;
+        return entry;
       }
 
       @Override
@@ -0,0 +1,767 @@
+/*
+ * Copyright (c) 2012-2021 Institut National des Sciences Appliquées de Lyon (INSA Lyon) and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package gololang;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+import org.json.simple.parser.ParseException;
+
+import static java.lang.invoke.MethodType.methodType;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * A streaming JSON pull parser.
+ * <p>
+ * The parser reads a JSON document as a sequence of {@link Event}s, without building any tree. Values can be
+ * selectively materialized with {@link #readValue()}, or skipped with {@link #skipValue()}:
+ * <pre class="listing"><code class="lang-golo" data-lang="golo">
+ * let parser = JSONParser(text)
+ * parser: next() # START_OBJECT
+ * while parser: next() == JSONParser$Event.KEY() {
+ *   if parser: string() == "items" {
+ *     parser: next()
+ *     items = parser: readValue()
+ *   } else {
+ *     parser: next()
+ *     parser: skipValue()
+ *   }
+ * }
+ * </code></pre>
+ * Materialized JSON objects are {@link LinkedHashMap}s, arrays are {@link ArrayList}s, integral numbers are
+ * {@code Long} (or {@link BigInteger} when they are too large), and other numbers are {@code Double}. Unlike
+ * {@code JSON.parse(str)} and {@link #parseJsonSimple(Reader)}, the static {@code parse} methods report invalid
+ * JSON text with an {@link IllegalArgumentException}.
+ * <p>
+ * For compatibility with earlier Golo releases, a trailing comma is tolerated in arrays and objects.
+ * <p>
+ * You should consult the "golodoc" of the {@code gololang.JSON} module.
+ */
+public final class JSONParser {
+
+  /**
+   * Parsing events.
+   */
+  public enum Event {
+    START_OBJECT, END_OBJECT, START_ARRAY, END_ARRAY, KEY, STRING, NUMBER, TRUE, FALSE, NULL, END_DOCUMENT
+  }
+
+  private static final ClassValue<MethodHandle> FROM_JSON = new ClassValue<MethodHandle>() {
+    @Override
+    protected MethodHandle computeValue(Class<?> type) {
+      try {
+        return MethodHandles.publicLookup().findStatic(type, "fromJson", methodType(type, JSONParser.class));
+      } catch (NoSuchMethodException | IllegalAccessException e) {
+        return null;
+      }
+    }
+  };
+
+  private static final int OBJECT_START = 0;
+  private static final int OBJECT_KEY = 1;
+  private static final int OBJECT_VALUE = 2;
+  private static final int ARRAY_START = 3;
+  private static final int ARRAY_VALUE = 4;
+
+  private final Reader reader;
+  private final char[] buffer;
+  private int position = 0;
+  private int limit = 0;
+  private long offset = 0L;
+
+  private int[] states = new int[16];
+  private int depth = 0;
+  private boolean rootDone = false;
+  private boolean jsonSimple = false;
+
+  private Event event;
+  private final StringBuilder text = new StringBuilder();
+  private Number number;
+
+  /**
+   * Creates a parser on a reader.
+   *
+   * @param reader the JSON text source.
+   */
+  public JSONParser(Reader reader) {
+    this.reader = reader;
+    this.buffer = new char[8192];
+  }
+
+  /**
+   * Creates a parser on a string.
+   *
+   * @param text the JSON text.
+   */
+  public JSONParser(String text) {
+    this.reader = new StringReader("");
+    this.buffer = text.toCharArray();
+    this.limit = buffer.length;
+  }
+
+  /**
+   * Creates a parser on an UTF-8 encoded stream.
+   *
+   * @param stream the JSON text source.
+   */
+  public JSONParser(InputStream stream) {
+    this(new InputStreamReader(stream, UTF_8));
+  }
+
+  /**
+   * Parses a JSON text.
+   *
+   * @param text the JSON text.
+   * @return the materialized value.
+   * @throws IllegalArgumentException if the text is not valid JSON.
+   */
+  public static Object parse(String text) {
+    JSONParser parser = new JSONParser(text);
+    parser.next();
+    Object value = parser.readValue();
+    parser.expectEnd();
+    return value;
+  }
+
+  /**
+   * Parses a JSON text.
+   *
+   * @param reader the JSON text source.
+   * @return the materialized value.
+   * @throws IllegalArgumentException if the text is not valid JSON.
+   */
+  public static Object parse(Reader reader) {
+    JSONParser parser = new JSONParser(reader);
+    parser.next();
+    Object value = parser.readValue();
+    parser.expectEnd();
+    return value;
+  }
+
+  /**
+   * Parses a JSON text as {@code JSON.parse(str)} does, for compatibility with the json-simple based
+   * implementation of earlier Golo releases.
+   * <p>
+   * JSON objects are materialized as {@link JSONObject}s and arrays as {@link JSONArray}s, whose string
+   * representation is their JSON text.
+   *
+   * @param reader the JSON text source.
+   * @return the materialized value.
+   * @throws ParseException if the text is not valid JSON.
+   */
+  public static Object parseJsonSimple(Reader reader) throws ParseException {
+    return parseJsonSimple(new JSONParser(reader));
+  }
+
+  /**
+   * Parses a JSON text as {@code JSON.parse(str)} does.
+   *
+   * @param text the JSON text.
+   * @return the materialized value.
+   * @throws ParseException if the text is not valid JSON.
+   * @see #parseJsonSimple(Reader)
+   */
+  public static Object parseJsonSimple(String text) throws ParseException {
+    return parseJsonSimple(new JSONParser(text));
+  }
+
+  private static Object parseJsonSimple(JSONParser parser) throws ParseException {
+    parser.jsonSimple = true;
+    try {
+      parser.next();
+      Object value = parser.readValue();
+      parser.expectEnd();
+      return value;
+    } catch (IllegalArgumentException e) {
+      throw new ParseException((int) (parser.offset + parser.position), ParseException.ERROR_UNEXPECTED_EXCEPTION, e);
+    }
+  }
+
+  private void expectEnd() {
+    if (next() != Event.END_DOCUMENT) {
+      throw error("Unexpected content after the JSON value");
+    }
+  }
+
+  /**
+   * Parses a JSON text into an instance of a given type.
+   *
+   * @param text the JSON text.
+   * @param type the expected type.
+   * @return the materialized value.
+   * @throws IllegalArgumentException if the text is not valid JSON.
+   * @see #readValue(Class)
+   */
+  public static Object parse(String text, Class<?> type) {
+    JSONParser parser = new JSONParser(text);
+    parser.next();
+    Object value = parser.readValue(type);
+    parser.expectEnd();
+    return value;
+  }
+
+  /**
+   * @return the current event, or {@code null} if {@link #next()} has not been called yet.
+   */
+  public Event event() {
+    return event;
+  }
+
+  /**
+   * @return the current nesting depth.
+   */
+  public int depth() {
+    return depth;
+  }
+
+  /**
+   * @return {@code true} unless the end of the document has been reached.
+   */
+  public boolean hasNext() {
+    return event != Event.END_DOCUMENT;
+  }
+
+  /**
+   * @return the current key or string value.
+   * @throws IllegalStateException if the current event is neither {@code KEY} nor {@code STRING}.
+   */
+  public String string() {
+    if (event != Event.KEY && event != Event.STRING) {
+      throw new IllegalStateException("No string value for " + event);
+    }
+    return text.toString();
+  }
+
+  /**
+   * @return the current number value.
+   * @throws IllegalStateException if the current event is not {@code NUMBER}.
+   */
+  public Number number() {
+    if (event != Event.NUMBER) {
+      throw new IllegalStateException("No number value for " + event);
+    }
+    return number;
+  }
+
+  /**
+   * Advances to the next event.
+   *
+   * @return the next event.
+   * @throws IllegalArgumentException if the text is not valid JSON.
+   */
+  public Event next() {
+    int c = skipWhitespace();
+    if (depth == 0) {
+      if (rootDone) {
+        if (c != -1) {
+          throw error("Unexpected character '" + (char) c + "'");
+        }
+        return event = Event.END_DOCUMENT;
+      }
+      return event = value(c);
+    }
+    switch (states[depth - 1]) {
+      case OBJECT_START:
+        if (c == '}') {
+          return event = endContainer();
+        }
+        return event = key(c);
+      case OBJECT_KEY:
+        if (c != ':') {
+          throw error("Expected ':'");
+        }
+        states[depth - 1] = OBJECT_VALUE;
+        return event = value(skipWhitespace());
+      case OBJECT_VALUE:
+        if (c == '}') {
+          return event = endContainer();
+        }
+        if (c != ',') {
+          throw error("Expected ',' or '}'");
+        }
+        c = skipWhitespace();
+        if (c == '}') {
+          return event = endContainer();
+        }
+        return event = key(c);
+      case ARRAY_START:
+        if (c == ']') {
+          return event = endContainer();
+        }
+        states[depth - 1] = ARRAY_VALUE;
+        return event = value(c);
+      case ARRAY_VALUE:
+        if (c == ']') {
+          return event = endContainer();
+        }
+        if (c != ',') {
+          throw error("Expected ',' or ']'");
+        }
+        c = skipWhitespace();
+        if (c == ']') {
+          return event = endContainer();
+        }
+        return event = value(c);
+      default:
+        throw new IllegalStateException("Unknown parser state");
+    }
+  }
+
+  /**
+   * Materializes the value starting at the current event, and advances to its last event.
+   *
+   * @return the value.
+   * @throws IllegalStateException if the current event does not start a value.
+   */
+  public Object readValue() {
+    Object scalar = scalarValue();
+    if (event != Event.START_OBJECT && event != Event.START_ARRAY) {
+      return scalar;
+    }
+    // Iterative materialization, so that deeply nested documents do not overflow the stack
+    Object[] containers = new Object[8];
+    String[] keys = new String[8];
+    int level = 0;
+    String key = null;
+    Object root = null;
+    while (true) {
+      Object value;
+      switch (event) {
+        case START_OBJECT:
+        case START_ARRAY:
+          if (level == containers.length) {
+            containers = Arrays.copyOf(containers, level * 2);
+            keys = Arrays.copyOf(keys, level * 2);
+          }
+          keys[level] = key;
+          containers[level] = (event == Event.START_OBJECT) ? newObject() : newArray();
+          level++;
+          key = null;
+          next();
+          continue;
+        case END_OBJECT:
+        case END_ARRAY:
+          level--;
+          value = containers[level];
+          containers[level] = null;
+          key = keys[level];
+          break;
+        case KEY:
+          key = text.toString();
+          next();
+          continue;
+        default:
+          value = scalarValue();
+      }
+      if (level == 0) {
+        root = value;
+        break;
+      }
+      add(containers[level - 1], key, value);
+      key = null;
+      next();
+    }
+    return root;
+  }
+
+  /**
+   * Materializes the value starting at the current event as an instance of a given type, and advances to its last
+   * event.
+   * <p>
+   * If the type has a static {@code fromJson} method taking a parser, as Golo structure and union types do, it is
+   * used to read the value. Otherwise, this is the same as {@link #readValue()}.
+   *
+   * @param type the expected type.
+   * @return the value.
+   */
+  public Object readValue(Class<?> type) {
+    MethodHandle fromJson = FROM_JSON.get(type);
+    if (fromJson == null) {
+      return readValue();
+    }
+    try {
+      return fromJson.invoke(this);
+    } catch (RuntimeException | Error e) {
+      throw e;
+    } catch (Throwable t) {
+      throw new IllegalStateException(t);
+    }
+  }
+
+  /**
+   * Checks that the current event starts an object, first advancing to the next event if none has been read yet.
+   * <p>
+   * This method, as well as {@link #nextKey()} and {@link #endObject()}, is used by the {@code fromJson} methods of
+   * Golo structure and union types.
+   *
+   * @return the same parser object.
+   * @throws IllegalArgumentException if the current value is not an object.
+   */
+  public JSONParser beginObject() {
+    if (event == null) {
+      next();
+    }
+    if (event != Event.START_OBJECT) {
+      throw error("Expected an object");
+    }
+    return this;
+  }
+
+  /**
+   * Advances to the next key of the current object.
+   *
+   * @return {@code true} if the parser is on a key, {@code false} if the end of the object has been reached.
+   */
+  public boolean nextKey() {
+    Event e = next();
+    if (e == Event.KEY) {
+      return true;
+    }
+    if (e == Event.END_OBJECT) {
+      return false;
+    }
+    throw error("Expected a key");
+  }
+
+  /**
+   * Advances to the end of the current object, which must not have any other key.
+   *
+   * @return the same parser object.
+   * @throws IllegalArgumentException if the object has another key.
+   */
+  public JSONParser endObject() {
+    if (next() != Event.END_OBJECT) {
+      throw error("Expected the end of the object");
+    }
+    return this;
+  }
+
+  private Object newObject() {
+    return jsonSimple ? new JSONObject() : new LinkedHashMap<String, Object>();
+  }
+
+  private Object newArray() {
+    return jsonSimple ? new JSONArray() : new ArrayList<Object>();
+  }
+
+  @SuppressWarnings("unchecked")
+  private static void add(Object container, String key, Object value) {
+    if (container instanceof Map) {
+      ((Map<String, Object>) container).put(key, value);
+    } else {
+      ((List<Object>) container).add(value);
+    }
+  }
+
+  private Object scalarValue() {
+    if (event == null) {
+      throw new IllegalStateException("next() must be called first");
+    }
+    switch (event) {
+      case STRING:
+        return text.toString();
+      case NUMBER:
+        return number;
+      case TRUE:
+        return Boolean.TRUE;
+      case FALSE:
+        return Boolean.FALSE;
+      case NULL:
+        return null;
+      case START_OBJECT:
+      case START_ARRAY:
+        return null;
+      default:
+        throw new IllegalStateException("No value starts at " + event);
+    }
+  }
+
+  /**
+   * Skips the value starting at the current event, advancing to its last event.
+   *
+   * @return the same parser object.
+   */
+  public JSONParser skipValue() {
+    if (event == Event.START_OBJECT || event == Event.START_ARRAY) {
+      int target = depth - 1;
+      while (depth > target) {
+        next();
+      }
+    } else {
+      scalarValue();
+    }
+    return this;
+  }
+
+  private Event key(int c) {
+    if (c != '"') {
+      throw error("Expected a string key");
+    }
+    readString();
+    states[depth - 1] = OBJECT_KEY;
+    return Event.KEY;
+  }
+
+  private Event value(int c) {
+    switch (c) {
+      case '{':
+        push(OBJECT_START);
+        return Event.START_OBJECT;
+      case '[':
+        push(ARRAY_START);
+        return Event.START_ARRAY;
+      case '"':
+        readString();
+        valueDone();
+        return Event.STRING;
+      case 't':
+        expectLiteral("rue");
+        valueDone();
+        return Event.TRUE;
+      case 'f':
+        expectLiteral("alse");
+        valueDone();
+        return Event.FALSE;
+      case 'n':
+        expectLiteral("ull");
+        valueDone();
+        return Event.NULL;
+      case -1:
+        throw error("Unexpected end of input");
+      default:
+        if (c == '-' || isDigit(c)) {
+          readNumber(c);
+          valueDone();
+          return Event.NUMBER;
+        }
+        throw error("Unexpected character '" + (char) c + "'");
+    }
+  }
+
+  private void push(int state) {
+    if (depth == states.length) {
+      states = Arrays.copyOf(states, depth * 2);
+    }
+    states[depth] = state;
+    depth++;
+  }
+
+  private Event endContainer() {
+    Event end = (states[depth - 1] <= OBJECT_VALUE) ? Event.END_OBJECT : Event.END_ARRAY;
+    depth--;
+    valueDone();
+    return end;
+  }
+
+  private void valueDone() {
+    if (depth == 0) {
+      rootDone = true;
+    } else if (states[depth - 1] <= OBJECT_VALUE) {
+      states[depth - 1] = OBJECT_VALUE;
+    } else {
+      states[depth - 1] = ARRAY_VALUE;
+    }
+  }
+
+  private void expectLiteral(String rest) {
+    for (int i = 0; i < rest.length(); i++) {
+      if (read() != rest.charAt(i)) {
+        throw error("Invalid literal");
+      }
+    }
+  }
+
+  private void readNumber(int first) {
+    text.setLength(0);
+    text.append((char) first);
+    int c = first;
+    if (c == '-') {
+      c = read();
+      if (!isDigit(c)) {
+        throw error("Invalid number: " + text);
+      }
+      text.append((char) c);
+    }
+    if (c == '0') {
+      if (isDigit(peek())) {
+        throw error("Invalid number: leading zero");
+      }
+    } else {
+      readDigits();
+    }
+    boolean decimal = false;
+    if (peek() == '.') {
+      text.append((char) read());
+      decimal = true;
+      readRequiredDigits();
+    }
+    c = peek();
+    if (c == 'e' || c == 'E') {
+      text.append((char) read());
+      decimal = true;
+      c = peek();
+      if (c == '+' || c == '-') {
+        text.append((char) read());
+      }
+      readRequiredDigits();
+    }
+    String literal = text.toString();
+    try {
+      if (decimal) {
+        number = Double.valueOf(literal);
+      } else if (literal.length() < 19) {
+        number = Long.valueOf(literal);
+      } else {
+        BigInteger big = new BigInteger(literal);
+        number = (big.bitLength() < 64) ? (Number) big.longValue() : big;
+      }
+    } catch (NumberFormatException e) {
+      throw error("Invalid number: " + literal);
+    }
+  }
+
+  private static boolean isDigit(int c) {
+    return c >= '0' && c <= '9';
+  }
+
+  private boolean readDigits() {
+    boolean any = false;
+    while (isDigit(peek())) {
+      text.append((char) read());
+      any = true;
+    }
+    return any;
+  }
+
+  private void readRequiredDigits() {
+    if (!readDigits()) {
+      throw error("Invalid number: " + text);
+    }
+  }
+
+  private void readString() {
+    text.setLength(0);
+    while (true) {
+      int start = position;
+      while (position < limit) {
+        char c = buffer[position];
+        if (c == '"' || c == '\\') {
+          break;
+        }
+        position++;
+      }
+      text.append(buffer, start, position - start);
+      int c = read();
+      if (c == '"') {
+        return;
+      } else if (c == '\\') {
+        readEscape();
+      } else if (c == -1) {
+        throw error("Unterminated string");
+      }
+    }
+  }
+
+  private void readEscape() {
+    int c = read();
+    switch (c) {
+      case '"':
+      case '\\':
+      case '/':
+        text.append((char) c);
+        break;
+      case 'b':
+        text.append('\b');
+        break;
+      case 'f':
+        text.append('\f');
+        break;
+      case 'n':
+        text.append('\n');
+        break;
+      case 'r':
+        text.append('\r');
+        break;
+      case 't':
+        text.append('\t');
+        break;
+      case 'u':
+        int code = 0;
+        for (int i = 0; i < 4; i++) {
+          int digit = Character.digit(read(), 16);
+          if (digit < 0) {
+            throw error("Invalid unicode escape");
+          }
+          code = (code << 4) | digit;
+        }
+        text.append((char) code);
+        break;
+      default:
+        throw error("Invalid escape sequence");
+    }
+  }
+
+  private int skipWhitespace() {
+    int c;
+    do {
+      c = read();
+    } while (c == ' ' || c == '\n' || c == '\r' || c == '\t');
+    return c;
+  }
+
+  private int read() {
+    if (position == limit && !fill()) {
+      return -1;
+    }
+    return buffer[position++];
+  }
+
+  private int peek() {
+    if (position == limit && !fill()) {
+      return -1;
+    }
+    return buffer[position];
+  }
+
+  private boolean fill() {
+    try {
+      offset += limit;
+      position = 0;
+      limit = 0;
+      int count = reader.read(buffer, 0, buffer.length);
+      if (count <= 0) {
+        return false;
+      }
+      limit = count;
+      return true;
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private IllegalArgumentException error(String message) {
+    return new IllegalArgumentException(message + " at position " + (offset + position));
+  }
+}
@@ -0,0 +1,381 @@
+/*
+ * Copyright (c) 2012-2021 Institut National des Sciences Appliquées de Lyon (INSA Lyon) and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package gololang;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.lang.reflect.Array;
+import java.util.Collection;
+import java.util.Map;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * A streaming JSON writer.
+ * <p>
+ * Values are directly written to an {@link Appendable} without building any intermediate representation. The
+ * supported values are:
+ * <ul>
+ * <li>{@code null}, booleans, numbers (non-finite floating point numbers being written as {@code null}), strings and
+ * characters,</li>
+ * <li>maps, whose keys are converted to strings, written as JSON objects,</li>
+ * <li>collections, tuples and arrays, written as JSON arrays,</li>
+ * <li>structs, written as JSON objects of their public members,</li>
+ * <li>union values, written as JSON objects with a single entry, mapping the value name to the JSON object of its
+ * members,</li>
+ * <li>dynamic objects, written as JSON objects of their properties, except those whose values are functions.</li>
+ * </ul>
+ * Any other object is written as the JSON string of its {@code toString()} representation.
+ * <p>
+ * As with the json-simple based implementation of earlier Golo releases, {@code /} is escaped in strings. Values
+ * may not be nested more than {@link #MAX_DEPTH} levels deep, which also catches cyclic structures.
+ * <p>
+ * You should consult the "golodoc" of the {@code gololang.JSON} module.
+ */
+public final class JSONWriter implements Appendable {
+
+  /**
+   * The maximum nesting depth of the written values.
+   */
+  public static final int MAX_DEPTH = 1000;
+
+  private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+  private final Appendable out;
+  private int depth = 0;
+
+  /**
+   * Creates a writer.
+   *
+   * @param out where to write the JSON text.
+   */
+  public JSONWriter(Appendable out) {
+    this.out = out;
+  }
+
+  /**
+   * Gives a JSON writer on an {@code Appendable}.
+   *
+   * @param out where to write the JSON text.
+   * @return {@code out} if it already is a JSON writer, or a new writer on it.
+   */
+  public static JSONWriter of(Appendable out) {
+    if (out instanceof JSONWriter) {
+      return (JSONWriter) out;
+    }
+    return new JSONWriter(out);
+  }
+
+  /**
+   * Gives the JSON representation of a value.
+   *
+   * @param value the value.
+   * @return the JSON text.
+   */
+  public static String stringify(Object value) {
+    StringBuilder builder = new StringBuilder();
+    new JSONWriter(builder).write(value);
+    return builder.toString();
+  }
+
+  /**
+   * Writes the JSON representation of a value to a stream, encoded in UTF-8.
+   * <p>
+   * The stream is flushed but not closed.
+   *
+   * @param value the value.
+   * @param stream the output stream.
+   */
+  public static void write(Object value, OutputStream stream) {
+    Writer writer = new BufferedWriter(new OutputStreamWriter(stream, UTF_8));
+    new JSONWriter(writer).write(value);
+    try {
+      writer.flush();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Tells whether a value is written as a JSON object or array.
+   *
+   * @param value the value.
+   * @return {@code true} if the value is a map, a sequence, a struct or a dynamic object.
+   */
+  public static boolean isStructured(Object value) {
+    return value instanceof Map
+      || value instanceof Collection
+      || value instanceof Tuple
+      || value instanceof GoloStruct
+      || value instanceof Union
+      || value instanceof DynamicObject
+      || (value != null && value.getClass().isArray());
+  }
+
+  /**
+   * Writes the JSON representation of a value.
+   *
+   * @param value the value.
+   * @return the same writer object.
+   * @throws UncheckedIOException if the underlying {@code Appendable} fails.
+   * @throws IllegalArgumentException if the value is nested more than {@link #MAX_DEPTH} levels deep.
+   */
+  public JSONWriter write(Object value) {
+    try {
+      writeValue(value);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return this;
+  }
+
+  /**
+   * Writes some text that is already valid JSON, such as punctuation or escaped keys.
+   *
+   * @param json the JSON text.
+   * @return the same writer object.
+   * @throws UncheckedIOException if the underlying {@code Appendable} fails.
+   */
+  public JSONWriter raw(String json) {
+    try {
+      out.append(json);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return this;
+  }
+
+  /**
+   * Writes a JSON object.
+   *
+   * @param names the keys.
+   * @param values the values, in the same order as the keys.
+   * @return the same writer object.
+   * @throws UncheckedIOException if the underlying {@code Appendable} fails.
+   * @throws IllegalArgumentException if a value is nested more than {@link #MAX_DEPTH} levels deep.
+   */
+  public JSONWriter writeObject(String[] names, Object[] values) {
+    try {
+      out.append('{');
+      for (int i = 0; i < names.length; i++) {
+        if (i > 0) {
+          out.append(',');
+        }
+        writeString(names[i]);
+        out.append(':');
+        writeValue(values[i]);
+      }
+      out.append('}');
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return this;
+  }
+
+  @Override
+  public JSONWriter append(CharSequence csq) throws IOException {
+    out.append(csq);
+    return this;
+  }
+
+  @Override
+  public JSONWriter append(CharSequence csq, int start, int end) throws IOException {
+    out.append(csq, start, end);
+    return this;
+  }
+
+  @Override
+  public JSONWriter append(char c) throws IOException {
+    out.append(c);
+    return this;
+  }
+
+  private void writeValue(Object value) throws IOException {
+    if (value == null) {
+      out.append("null");
+    } else if (value instanceof String) {
+      writeString((String) value);
+    } else if (value instanceof Number) {
+      writeNumber((Number) value);
+    } else if (value instanceof Boolean) {
+      out.append(((Boolean) value) ? "true" : "false");
+    } else {
+      // Structured values recurse, including through the generated struct and union writeJson methods
+      if (depth == MAX_DEPTH) {
+        throw new IllegalArgumentException("JSON values may not be nested more than " + MAX_DEPTH + " levels deep");
+      }
+      depth++;
+      try {
+        writeNested(value);
+      } finally {
+        depth--;
+      }
+    }
+  }
+
+  private void writeNested(Object value) throws IOException {
+    if (value instanceof Map) {
+      writeMap((Map<?, ?>) value);
+    } else if (value instanceof Collection) {
+      writeIterable((Collection<?>) value);
+    } else if (value instanceof Tuple) {
+      writeIterable((Tuple) value);
+    } else if (value instanceof GoloStruct) {
+      ((GoloStruct) value).writeJson(this);
+    } else if (value instanceof Union) {
+      ((Union) value).writeJson(this);
+    } else if (value instanceof DynamicObject) {
+      writeDynamicObject((DynamicObject) value);
+    } else if (value instanceof Object[]) {
+      writeObjectArray((Object[]) value);
+    } else if (value.getClass().isArray()) {
+      writePrimitiveArray(value);
+    } else {
+      writeString(value.toString());
+    }
+  }
+
+  private void writeNumber(Number number) throws IOException {
+    if ((number instanceof Double && !Double.isFinite(number.doubleValue()))
+        || (number instanceof Float && !Float.isFinite(number.floatValue()))) {
+      out.append("null");
+    } else {
+      out.append(number.toString());
+    }
+  }
+
+  private void writeMap(Map<?, ?> map) throws IOException {
+    out.append('{');
+    boolean first = true;
+    for (Map.Entry<?, ?> entry : map.entrySet()) {
+      if (!first) {
+        out.append(',');
+      }
+      first = false;
+      writeString(String.valueOf(entry.getKey()));
+      out.append(':');
+      writeValue(entry.getValue());
+    }
+    out.append('}');
+  }
+
+  private void writeIterable(Iterable<?> iterable) throws IOException {
+    out.append('[');
+    boolean first = true;
+    for (Object element : iterable) {
+      if (!first) {
+        out.append(',');
+      }
+      first = false;
+      writeValue(element);
+    }
+    out.append(']');
+  }
+
+  private void writeObjectArray(Object[] array) throws IOException {
+    out.append('[');
+    for (int i = 0; i < array.length; i++) {
+      if (i > 0) {
+        out.append(',');
+      }
+      writeValue(array[i]);
+    }
+    out.append(']');
+  }
+
+  private void writePrimitiveArray(Object array) throws IOException {
+    out.append('[');
+    int length = Array.getLength(array);
+    for (int i = 0; i < length; i++) {
+      if (i > 0) {
+        out.append(',');
+      }
+      writeValue(Array.get(array, i));
+    }
+    out.append(']');
+  }
+
+  private void writeDynamicObject(DynamicObject object) throws IOException {
+    out.append('{');
+    boolean first = true;
+    for (Map.Entry<String, Object> property : object.properties()) {
+      Object value = property.getValue();
+      if (value instanceof FunctionReference) {
+        continue;
+      }
+      if (!first) {
+        out.append(',');
+      }
+      first = false;
+      writeString(property.getKey());
+      out.append(':');
+      writeValue(value);
+    }
+    out.append('}');
+  }
+
+  private void writeString(String string) throws IOException {
+    out.append('"');
+    int length = string.length();
+    int start = 0;
+    for (int i = 0; i < length; i++) {
+      char c = string.charAt(i);
+      String escape = null;
+      switch (c) {
+        case '"':
+          escape = "\\\"";
+          break;
+        case '\\':
+          escape = "\\\\";
+          break;
+        case '/':
+          escape = "\\/";
+          break;
+        case '\n':
+          escape = "\\n";
+          break;
+        case '\r':
+          escape = "\\r";
+          break;
+        case '\t':
+          escape = "\\t";
+          break;
+        case '\b':
+          escape = "\\b";
+          break;
+        case '\f':
+          escape = "\\f";
+          break;
+        default:
+          if (c >= 0x20 && c != '\u2028' && c != '\u2029') {
+            continue;
+          }
+      }
+      out.append(string, start, i);
+      if (escape != null) {
+        out.append(escape);
+      } else {
+        out.append("\\u")
+          .append(HEX[(c >> 12) & 0xF])
+          .append(HEX[(c >> 8) & 0xF])
+          .append(HEX[(c >> 4) & 0xF])
+          .append(HEX[c & 0xF]);
+      }
+      start = i + 1;
+    }
+    out.append(string, start, length);
+    out.append('"');
+  }
+}
@@ -944,7 +944,9 @@ public final class Predefined {
    * @return a set of the given values.
    */
   public static Set<Object> set(Object... values) {
-    return new LinkedHashSet<>(Arrays.asList(values));
+    Set<Object> s = new LinkedHashSet<>((int) (values.length / 0.75f) + 1);
+    Collections.addAll(s, values);
+    return s;
   }
 
   /**
@@ -981,7 +983,7 @@ public final class Predefined {
    * @return a map corresponding to the given key/value pairs.
    */
   public static Map<Object, Object> map(Tuple... items) {
-    Map<Object, Object> m = new LinkedHashMap<>();
+    Map<Object, Object> m = new LinkedHashMap<>((int) (items.length / 0.75f) + 1);
     for (Tuple t : items) {
       m.put(t.get(0), t.get(1));
     }
@@ -20,6 +20,23 @@ import org.eclipse.golo.runtime.InvalidDestructuringException;
 public abstract class Union {
 
   private static final Object[] EMPTY = new Object[0];
+
+  /**
+   * Name reserved for the ordinal of the union values, that the value members can't use.
+   */
+  public static final String ORDINAL = "unionOrdinal";
+
+  /**
+   * Gives the position of this value in the union definition.
+   * <p>
+   * Golo union value classes override this method, the first value of a union having the ordinal {@code 0}.
+   *
+   * @return the ordinal of this value, or {@code -1} if the value class does not define it.
+   */
+  public int unionOrdinal() {
+    return -1;
+  }
+
   /**
    * Array conversion.
    *
@@ -29,6 +46,22 @@ public abstract class Union {
     return EMPTY;
   }
 
+  /**
+   * Writes the JSON representation of this union value.
+   * <p>
+   * Golo union value classes override this method to write a JSON object with a single entry, mapping the value name
+   * to the JSON object of its members. This default implementation writes the string representation of the value.
+   *
+   * @param out where to write the JSON text.
+   * @return {@code out}.
+   * @throws java.io.UncheckedIOException if writing to {@code out} fails.
+   * @see JSONWriter
+   */
+  public Appendable writeJson(Appendable out) {
+    JSONWriter.of(out).write(toString());
+    return out;
+  }
+
   /**
    * Destructuration helper.
    *
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2012-2021 Institut National des Sciences Appliquées de Lyon (INSA Lyon) and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package gololang.concurrent.async;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.Executor;
+
+/**
+ * An executor that runs tasks on the calling thread, without growing the stack.
+ * <p>
+ * The first task submitted from a thread is run immediately. Tasks submitted while it is running are queued and run
+ * one after the other once it returns, instead of being nested. A long chain of synchronous continuations (e.g.
+ * {@code flatMap} on already resolved futures) hence runs in constant stack space.
+ * <p>
+ * You should consult the "golodoc" of the {@code gololang.Async} module.
+ */
+public final class TrampolineExecutor implements Executor {
+
+  private static final TrampolineExecutor INSTANCE = new TrampolineExecutor();
+
+  private final ThreadLocal<ArrayDeque<Runnable>> pending = new ThreadLocal<>();
+
+  private TrampolineExecutor() {
+    // use the shared instance
+  }
+
+  /**
+   * @return the shared trampoline executor.
+   */
+  public static TrampolineExecutor trampoline() {
+    return INSTANCE;
+  }
+
+  /**
+   * Runs a task on the calling thread, or queues it if the thread is already running a trampolined task.
+   * <p>
+   * Should a task throw an exception, the remaining queued tasks are still run before the first exception is
+   * propagated to the caller.
+   *
+   * @param task the task to run.
+   */
+  @Override
+  public void execute(Runnable task) {
+    ArrayDeque<Runnable> queue = pending.get();
+    if (queue != null) {
+      queue.add(task);
+      return;
+    }
+    queue = new ArrayDeque<>();
+    pending.set(queue);
+    RuntimeException failure = null;
+    try {
+      Runnable next = task;
+      while (next != null) {
+        try {
+          next.run();
+        } catch (RuntimeException e) {
+          if (failure == null) {
+            failure = e;
+          }
+        }
+        next = queue.poll();
+      }
+    } finally {
+      pending.remove();
+    }
+    if (failure != null) {
+      throw failure;
+    }
+  }
+
+  /**
+   * @return {@code true} if the calling thread is currently running trampolined tasks.
+   */
+  public boolean isRunning() {
+    return pending.get() != null;
+  }
+
+  @Override
+  public String toString() {
+    return "TrampolineExecutor";
+  }
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright (c) 2012-2021 Institut National des Sciences Appliquées de Lyon (INSA Lyon) and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package gololang.concurrent.workers;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A mailbox policy describes how a port queues and dispatches its messages.
+ * <p>
+ * A policy defines:
+ * <ul>
+ * <li>the number of messages processed each time the port is scheduled on the executor (1 by default), and an
+ * optional time slice after which the port yields the executor thread even if the batch is not complete,</li>
+ * <li>the mailbox capacity, either unbounded (the default) or bounded, in which case an overflow strategy tells what
+ * to do with messages sent to a full mailbox.</li>
+ * </ul>
+ * Bounded mailboxes are backed by a multiple-producers, single-consumer array queue.
+ * <p>
+ * Policies are immutable, and can be shared among ports:
+ * <pre class="listing"><code class="lang-golo" data-lang="golo">
+ * let policy = MailboxPolicy.blocking(1024): withBatchSize(64)
+ * let port = env: spawn(^handler, policy)
+ * </code></pre>
+ */
+public final class MailboxPolicy {
+
+  /**
+   * What to do with a message sent to a full bounded mailbox.
+   */
+  public enum Overflow {
+
+    /**
+     * The sender blocks until there is room in the mailbox.
+     * <p>
+     * Beware that a worker sending messages to a full port may then hold an executor thread until the target port
+     * has processed a message, which can dead-lock small thread pools.
+     */
+    BLOCK,
+
+    /**
+     * The message is silently discarded.
+     */
+    DROP,
+
+    /**
+     * The sender gets a {@link java.util.concurrent.RejectedExecutionException}.
+     */
+    FAIL
+  }
+
+  private static final MailboxPolicy DEFAULT = new MailboxPolicy(1, 0L, 0, Overflow.BLOCK);
+
+  private final int batchSize;
+  private final long timeSliceNanos;
+  private final int capacity;
+  private final Overflow overflow;
+
+  private MailboxPolicy(int batchSize, long timeSliceNanos, int capacity, Overflow overflow) {
+    if (batchSize < 1) {
+      throw new IllegalArgumentException("The batch size must be positive: " + batchSize);
+    }
+    if (timeSliceNanos < 0) {
+      throw new IllegalArgumentException("The time slice can't be negative: " + timeSliceNanos);
+    }
+    if (capacity < 0) {
+      throw new IllegalArgumentException("The capacity can't be negative: " + capacity);
+    }
+    this.batchSize = batchSize;
+    this.timeSliceNanos = timeSliceNanos;
+    this.capacity = capacity;
+    this.overflow = overflow;
+  }
+
+  /**
+   * @return the default policy: an unbounded mailbox processing one message per scheduling.
+   */
+  public static MailboxPolicy unbounded() {
+    return DEFAULT;
+  }
+
+  /**
+   * @param capacity the maximum number of pending messages.
+   * @param overflow the overflow strategy.
+   * @return a bounded mailbox policy.
+   */
+  public static MailboxPolicy bounded(int capacity, Overflow overflow) {
+    if (capacity < 1) {
+      throw new IllegalArgumentException("The capacity of a bounded mailbox must be positive: " + capacity);
+    }
+    return new MailboxPolicy(1, 0L, capacity, overflow);
+  }
+
+  /**
+   * @param capacity the maximum number of pending messages.
+   * @return a bounded mailbox policy where senders block when the mailbox is full.
+   */
+  public static MailboxPolicy blocking(int capacity) {
+    return bounded(capacity, Overflow.BLOCK);
+  }
+
+  /**
+   * @param capacity the maximum number of pending messages.
+   * @return a bounded mailbox policy where messages sent to a full mailbox are discarded.
+   */
+  public static MailboxPolicy dropping(int capacity) {
+    return bounded(capacity, Overflow.DROP);
+  }
+
+  /**
+   * @param capacity the maximum number of pending messages.
+   * @return a bounded mailbox policy where sending to a full mailbox throws an exception.
+   */
+  public static MailboxPolicy failing(int capacity) {
+    return bounded(capacity, Overflow.FAIL);
+  }
+
+  /**
+   * @param size the maximum number of messages to process each time the port is scheduled.
+   * @return a policy similar to this one with the given batch size.
+   */
+  public MailboxPolicy withBatchSize(int size) {
+    return new MailboxPolicy(size, timeSliceNanos, capacity, overflow);
+  }
+
+  /**
+   * @param duration the maximum duration of a batch.
+   * @param unit the duration unit.
+   * @return a policy similar to this one with the given time slice.
+   */
+  public MailboxPolicy withTimeSlice(long duration, TimeUnit unit) {
+    return new MailboxPolicy(batchSize, unit.toNanos(duration), capacity, overflow);
+  }
+
+  /**
+   * @param millis the maximum duration of a batch, in milliseconds.
+   * @return a policy similar to this one with the given time slice.
+   */
+  public MailboxPolicy withTimeSlice(long millis) {
+    return withTimeSlice(millis, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * @return the maximum number of messages processed per scheduling.
+   */
+  public int batchSize() {
+    return batchSize;
+  }
+
+  /**
+   * @return the maximum duration of a batch in nanoseconds, or {@code 0} if batches are not time-bounded.
+   */
+  public long timeSliceNanos() {
+    return timeSliceNanos;
+  }
+
+  /**
+   * @return the mailbox capacity, or {@code 0} if it is unbounded.
+   */
+  public int capacity() {
+    return capacity;
+  }
+
+  /**
+   * @return {@code true} if the mailbox is bounded.
+   */
+  public boolean isBounded() {
+    return capacity > 0;
+  }
+
+  /**
+   * @return the overflow strategy of a bounded mailbox.
+   */
+  public Overflow overflow() {
+    return overflow;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("MailboxPolicy{batchSize=%d, timeSliceNanos=%d, capacity=%d, overflow=%s}",
+        batchSize, timeSliceNanos, capacity, overflow);
+  }
+}
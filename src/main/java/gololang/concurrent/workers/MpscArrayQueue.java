@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2012-2021 Institut National des Sciences Appliquées de Lyon (INSA Lyon) and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package gololang.concurrent.workers;
+
+import java.util.AbstractQueue;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A bounded, lock-free, multiple-producers single-consumer queue backed by a ring buffer.
+ * <p>
+ * Producers claim a slot by advancing the producer index, then publish their element in it. The single consumer
+ * reads the slots in order, waiting for a claimed slot to be published if needed. {@code poll} and {@code peek} must
+ * only be called by one thread at a time.
+ * <p>
+ * The iterator is weakly consistent: it gives the published elements between the consumer and producer indexes at
+ * its creation that are not consumed yet, and does not support {@code remove}. Hence the queue can't remove an
+ * element other than its head.
+ */
+final class MpscArrayQueue<E> extends AbstractQueue<E> {
+
+  private final AtomicReferenceArray<E> buffer;
+  private final int capacity;
+  private final int mask;
+  private final AtomicLong producerIndex = new AtomicLong();
+  private final AtomicLong consumerIndex = new AtomicLong();
+
+  MpscArrayQueue(int capacity) {
+    if (capacity < 1 || capacity > (1 << 30)) {
+      throw new IllegalArgumentException("Invalid queue capacity: " + capacity);
+    }
+    int size = Integer.highestOneBit(capacity);
+    if (size < capacity) {
+      size = size << 1;
+    }
+    this.buffer = new AtomicReferenceArray<>(size);
+    this.capacity = capacity;
+    this.mask = size - 1;
+  }
+
+  @Override
+  public boolean offer(E element) {
+    if (element == null) {
+      throw new NullPointerException();
+    }
+    long index;
+    do {
+      index = producerIndex.get();
+      if (index - consumerIndex.get() >= capacity) {
+        return false;
+      }
+    } while (!producerIndex.compareAndSet(index, index + 1));
+    buffer.lazySet((int) index & mask, element);
+    return true;
+  }
+
+  @Override
+  public E poll() {
+    long index = consumerIndex.get();
+    int offset = (int) index & mask;
+    E element = buffer.get(offset);
+    if (element == null) {
+      if (index == producerIndex.get()) {
+        return null;
+      }
+      // A producer claimed the slot but has not published its element yet
+      do {
+        element = buffer.get(offset);
+      } while (element == null);
+    }
+    buffer.lazySet(offset, null);
+    consumerIndex.lazySet(index + 1);
+    return element;
+  }
+
+  @Override
+  public E peek() {
+    long index = consumerIndex.get();
+    int offset = (int) index & mask;
+    E element = buffer.get(offset);
+    if (element == null && index != producerIndex.get()) {
+      do {
+        element = buffer.get(offset);
+      } while (element == null);
+    }
+    return element;
+  }
+
+  @Override
+  public int size() {
+    long consumer = consumerIndex.get();
+    long producer = producerIndex.get();
+    return (int) Math.max(0L, Math.min(producer - consumer, capacity));
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return consumerIndex.get() == producerIndex.get();
+  }
+
+  @Override
+  public Iterator<E> iterator() {
+    return new Iterator<E>() {
+      private final long end = producerIndex.get();
+      private long index = consumerIndex.get();
+      private E next = advance();
+
+      private E advance() {
+        while (index < end) {
+          long current = index++;
+          E element = buffer.get((int) current & mask);
+          // the slot is reused once the consumer is past it
+          if (element != null && consumerIndex.get() <= current) {
+            return element;
+          }
+        }
+        return null;
+      }
+
+      @Override
+      public boolean hasNext() {
+        return next != null;
+      }
+
+      @Override
+      public E next() {
+        if (next == null) {
+          throw new NoSuchElementException();
+        }
+        E element = next;
+        next = advance();
+        return element;
+      }
+    };
+  }
+}
@@ -10,24 +10,45 @@
 
 package gololang.concurrent.workers;
 
+import gololang.Tuple;
+import gololang.concurrent.async.Future;
+import gololang.concurrent.async.Promise;
+import gololang.error.Result;
+
+import java.util.Collection;
+import java.util.Queue;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * A port is the communication endpoint to a worker function.
  * <p>
  * A port is obtained from a worker environment when spawning a function. It can then be used to send messages that
  * will be eventually processed by the target function. Messages are being put in a first-in, first-out queue.
+ * <p>
+ * The way messages are queued and dispatched is defined by a {@link MailboxPolicy}. Ports also maintain some
+ * metrics, such as the number of pending and processed messages, or the time spent in the worker function.
  */
 public final class Port {
 
   private final ExecutorService executor;
   private final WorkerFunction function;
+  private final MailboxPolicy policy;
 
-  private final ConcurrentLinkedQueue<Object> queue = new ConcurrentLinkedQueue<>();
+  private final Queue<Object> queue;
+  private final Semaphore slots;
   private final AtomicBoolean running = new AtomicBoolean(false);
 
+  // Only updated by the thread running the port, hence the plain volatile fields
+  private volatile long processedCount = 0L;
+  private volatile long batchCount = 0L;
+  private volatile long processingTimeNanos = 0L;
+  private final AtomicLong droppedCount = new AtomicLong();
+
   /**
    * Port constructor.
    *
@@ -35,8 +56,28 @@ public final class Port {
    * @param function the target worker function.
    */
   public Port(ExecutorService executor, WorkerFunction function) {
+    this(executor, function, MailboxPolicy.unbounded());
+  }
+
+  /**
+   * Port constructor.
+   *
+   * @param executor the executor to dispatch the asynchronous message handling jobs to.
+   * @param function the target worker function.
+   * @param policy the mailbox policy.
+   */
+  public Port(ExecutorService executor, WorkerFunction function, MailboxPolicy policy) {
     this.executor = executor;
     this.function = function;
+    this.policy = policy;
+    if (policy.isBounded()) {
+      this.queue = new MpscArrayQueue<>(policy.capacity());
+      // Blocking senders wait for a slot; other strategies rely on the queue rejecting the offer
+      this.slots = policy.overflow() == MailboxPolicy.Overflow.BLOCK ? new Semaphore(policy.capacity()) : null;
+    } else {
+      this.queue = new ConcurrentLinkedQueue<>();
+      this.slots = null;
+    }
   }
 
   private final Runnable runner = new Runnable() {
@@ -44,7 +85,7 @@ public final class Port {
     public void run() {
       if (running.get()) {
         try {
-          function.apply(queue.poll());
+          processBatch();
         } finally {
           running.set(false);
           scheduleNext();
@@ -53,6 +94,37 @@ public final class Port {
     }
   };
 
+  private void processBatch() {
+    final int batchSize = policy.batchSize();
+    final long timeSlice = policy.timeSliceNanos();
+    final long start = System.nanoTime();
+    int processed = 0;
+    try {
+      Object message;
+      while (processed < batchSize && (message = queue.poll()) != null) {
+        if (slots != null) {
+          slots.release();
+        }
+        processed++;
+        try {
+          function.apply(message);
+        } catch (Throwable t) {
+          if (message instanceof Request) {
+            ((Request) message).fail(t);
+          }
+          throw t;
+        }
+        if (timeSlice > 0L && System.nanoTime() - start >= timeSlice) {
+          break;
+        }
+      }
+    } finally {
+      processedCount += processed;
+      batchCount += 1;
+      processingTimeNanos += System.nanoTime() - start;
+    }
+  }
+
   private void scheduleNext() {
     if (!queue.isEmpty() && running.compareAndSet(false, true)) {
       try {
@@ -66,14 +138,127 @@ public final class Port {
 
   /**
    * Sends a message to the target worker function. This method returns immediately as message processing is
-   * asynchronous.
+   * asynchronous, unless the port has a full bounded mailbox with a blocking policy.
+   * <p>
+   * When the mailbox is full, the message is handled according to the mailbox policy overflow strategy: the
+   * caller blocks until some room is available, the message is dropped, or a
+   * {@link RejectedExecutionException} is thrown.
    *
    * @param message the message of any type.
    * @return the same port object.
    */
   public Port send(Object message) {
-    queue.offer(message);
+    if (slots != null) {
+      try {
+        slots.acquire();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new RejectedExecutionException("Interrupted while waiting for the mailbox", e);
+      }
+    }
+    if (!queue.offer(message)) {
+      if (policy.overflow() == MailboxPolicy.Overflow.FAIL) {
+        throw new RejectedExecutionException("The mailbox is full (capacity: " + policy.capacity() + ")");
+      }
+      droppedCount.incrementAndGet();
+      if (message instanceof Request) {
+        ((Request) message).fail(new RejectedExecutionException("The message has been dropped"));
+      }
+      return this;
+    }
     scheduleNext();
     return this;
   }
+
+  /**
+   * Sends a message that expects a reply to the target worker function.
+   * <p>
+   * The worker function receives a {@link Request} wrapping the message, and is expected to reply to it.
+   *
+   * @param message the message of any type.
+   * @return a future on the reply.
+   */
+  public Future ask(Object message) {
+    Promise promise = new Promise();
+    Request request = new Request(message, promise);
+    try {
+      send(request);
+    } catch (RuntimeException e) {
+      promise.fail(e);
+    }
+    return promise.future();
+  }
+
+  /**
+   * Sends the outcomes of futures to the target worker function as they get resolved.
+   * <p>
+   * This provides a fan-in from several asynchronous sources into a single worker. The worker function receives
+   * the outcome of each future as a {@code [future, result]} {@link Tuple}, in completion order, and processes them
+   * one at a time. The result is a {@link Result} holding either the value of the future, or the exception it failed
+   * with.
+   *
+   * @param futures the futures to listen to.
+   * @return the same port object.
+   */
+  public Port fanIn(Collection<? extends Future> futures) {
+    for (Future future : futures) {
+      future
+        .onSet(value -> send(new Tuple(future, Result.ok(value))))
+        .onFail(error -> send(new Tuple(future, Result.error((Throwable) error))));
+    }
+    return this;
+  }
+
+  /**
+   * @return the mailbox policy of this port.
+   */
+  public MailboxPolicy policy() {
+    return policy;
+  }
+
+  /**
+   * Gives the number of pending messages.
+   * <p>
+   * This is an estimate, since messages may be concurrently sent and processed. Note that it takes a time linear in
+   * the number of pending messages for unbounded mailboxes.
+   *
+   * @return the queue depth.
+   */
+  public int queueDepth() {
+    return queue.size();
+  }
+
+  /**
+   * @return the number of messages that have been processed, including those whose processing threw an exception.
+   */
+  public long processedCount() {
+    return processedCount;
+  }
+
+  /**
+   * @return the number of messages dropped because the mailbox was full.
+   */
+  public long droppedCount() {
+    return droppedCount.get();
+  }
+
+  /**
+   * @return the number of times the port has been scheduled to process a batch of messages.
+   */
+  public long batchCount() {
+    return batchCount;
+  }
+
+  /**
+   * @return the total time spent processing messages, in nanoseconds.
+   */
+  public long processingTimeNanos() {
+    return processingTimeNanos;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("Port{queueDepth=%d, processed=%d, dropped=%d, batches=%d, processingTimeNanos=%d}",
+        queueDepth(), processedCount, droppedCount(), batchCount, processingTimeNanos);
+  }
 }
@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) 2012-2021 Institut National des Sciences Appliquées de Lyon (INSA Lyon) and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package gololang.concurrent.workers;
+
+import gololang.FunctionReference;
+import gololang.concurrent.async.Future;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A port group dispatches messages to a fixed set of ports according to a routing strategy.
+ * <p>
+ * Routing messages by hash is useful to shard some state among several workers: since all the messages with the same
+ * key are processed by the same worker function, and a port processes its messages one at a time, the state
+ * associated with a key can be kept by a single worker without locking.
+ * <pre class="listing"><code class="lang-golo" data-lang="golo">
+ * let shards = list[env: spawn(newCounterWorker()) foreach i in range(4)]
+ * let group = PortGroup.hashed(shards, |message| -> message: key())
+ * group: send(event)
+ * </code></pre>
+ */
+public final class PortGroup {
+
+  /**
+   * A routing strategy selects the port that should receive a message.
+   */
+  @FunctionalInterface
+  public interface Router {
+
+    /**
+     * Selects a port.
+     *
+     * @param message the message to route.
+     * @param size the number of ports in the group.
+     * @return the index of the target port, between {@code 0} and {@code size - 1}.
+     */
+    int route(Object message, int size);
+  }
+
+  private final Port[] ports;
+  private final Router router;
+
+  /**
+   * Creates a port group.
+   *
+   * @param ports the ports of the group.
+   * @param router the routing strategy.
+   */
+  public PortGroup(Collection<Port> ports, Router router) {
+    if (ports.isEmpty()) {
+      throw new IllegalArgumentException("A port group can't be empty");
+    }
+    this.ports = ports.toArray(new Port[ports.size()]);
+    this.router = router;
+  }
+
+  /**
+   * @param ports the ports of the group.
+   * @return a port group dispatching the messages to each port in turn.
+   */
+  public static PortGroup roundRobin(Collection<Port> ports) {
+    final AtomicInteger next = new AtomicInteger();
+    return new PortGroup(ports, (message, size) -> Math.floorMod(next.getAndIncrement(), size));
+  }
+
+  /**
+   * @param ports the ports of the group.
+   * @return a port group dispatching the messages according to their hash code.
+   */
+  public static PortGroup hashed(Collection<Port> ports) {
+    return new PortGroup(ports, (message, size) -> Math.floorMod(spread(message), size));
+  }
+
+  /**
+   * @param ports the ports of the group.
+   * @param key a function giving the routing key of a message.
+   * @return a port group dispatching the messages according to the hash code of their key.
+   */
+  public static PortGroup hashed(Collection<Port> ports, FunctionReference key) {
+    return new PortGroup(ports, (message, size) -> {
+      try {
+        return Math.floorMod(spread(key.invoke1(message)), size);
+      } catch (RuntimeException | Error e) {
+        throw e;
+      } catch (Throwable t) {
+        throw new IllegalStateException(t);
+      }
+    });
+  }
+
+  private static int spread(Object key) {
+    if (key == null) {
+      return 0;
+    }
+    int h = key.hashCode();
+    return h ^ (h >>> 16);
+  }
+
+  /**
+   * @param message a message.
+   * @return the port that would receive the message.
+   */
+  public Port route(Object message) {
+    return ports[router.route(message, ports.length)];
+  }
+
+  /**
+   * Sends a message to the port selected by the routing strategy.
+   *
+   * @param message the message.
+   * @return the same port group object.
+   * @see Port#send(Object)
+   */
+  public PortGroup send(Object message) {
+    route(message).send(message);
+    return this;
+  }
+
+  /**
+   * Sends a message that expects a reply to the port selected by the routing strategy.
+   * <p>
+   * The routing is done on the message, not on the {@link Request} that wraps it.
+   *
+   * @param message the message.
+   * @return a future on the reply.
+   * @see Port#ask(Object)
+   */
+  public Future ask(Object message) {
+    return route(message).ask(message);
+  }
+
+  /**
+   * Sends a message to all the ports of the group.
+   *
+   * @param message the message.
+   * @return the same port group object.
+   */
+  public PortGroup broadcast(Object message) {
+    for (Port port : ports) {
+      port.send(message);
+    }
+    return this;
+  }
+
+  /**
+   * Sends a message that expects a reply to all the ports of the group.
+   *
+   * @param message the message.
+   * @return the futures on the replies, in the order of the ports.
+   */
+  public List<Future> askAll(Object message) {
+    List<Future> futures = new ArrayList<>(ports.length);
+    for (Port port : ports) {
+      futures.add(port.ask(message));
+    }
+    return futures;
+  }
+
+  /**
+   * @return the ports of the group.
+   */
+  public List<Port> ports() {
+    List<Port> list = new ArrayList<>(ports.length);
+    Collections.addAll(list, ports);
+    return Collections.unmodifiableList(list);
+  }
+
+  /**
+   * @return the number of ports in the group.
+   */
+  public int size() {
+    return ports.length;
+  }
+}
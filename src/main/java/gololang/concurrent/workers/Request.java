@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2012-2021 Institut National des Sciences Appliquées de Lyon (INSA Lyon) and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package gololang.concurrent.workers;
+
+import gololang.concurrent.async.Future;
+import gololang.concurrent.async.Promise;
+
+/**
+ * A request is a message that expects a reply.
+ * <p>
+ * Requests are sent by {@link Port#ask(Object)}, and received as messages by worker functions. A worker function
+ * answers a request by calling {@link #reply(Object)} or {@link #fail(Throwable)}, which resolves the future
+ * returned to the sender. If the worker function throws an exception while processing a request, the request fails
+ * with that exception.
+ * <p>
+ * Worker functions spawned with {@link WorkerEnvironment#spawnReplying(gololang.FunctionReference)} do not have to
+ * deal with requests, as their return value is used as the reply.
+ */
+public final class Request {
+
+  private final Object message;
+  private final Promise promise;
+
+  Request(Object message, Promise promise) {
+    this.message = message;
+    this.promise = promise;
+  }
+
+  /**
+   * @return the request message.
+   */
+  public Object message() {
+    return message;
+  }
+
+  /**
+   * Replies to the request. This has no effect if the request has already been answered.
+   *
+   * @param value the reply value.
+   * @return the same request object.
+   */
+  public Request reply(Object value) {
+    promise.set(value);
+    return this;
+  }
+
+  /**
+   * Fails the request. This has no effect if the request has already been answered.
+   *
+   * @param throwable the failure.
+   * @return the same request object.
+   */
+  public Request fail(Throwable throwable) {
+    promise.fail(throwable);
+    return this;
+  }
+
+  /**
+   * @return {@code true} if the request has been answered.
+   */
+  public boolean isAnswered() {
+    return promise.isResolved();
+  }
+
+  /**
+   * @return a future on the reply.
+   */
+  public Future future() {
+    return promise.future();
+  }
+
+  @Override
+  public String toString() {
+    return String.format("Request{message=%s, answered=%s}", message, isAnswered());
+  }
+}
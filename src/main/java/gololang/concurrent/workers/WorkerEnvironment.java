@@ -13,20 +13,31 @@ package gololang.concurrent.workers;
 import gololang.FunctionReference;
 import gololang.Predefined;
 
+import java.lang.invoke.MethodHandle;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.TimeUnit;
 
+import static java.lang.invoke.MethodHandles.publicLookup;
+import static java.lang.invoke.MethodType.methodType;
+
 /**
  * A worker environment is an abstraction over a set of spawned functions that can asynchronously process messages
  * sent through ports.
  * <p>
  * Each port is internally associated to a worker function and a messages queue. The worker environment maintains
  * an executor that dispatches message processing jobs over its thread pool.
+ * <p>
+ * A worker environment also provides a continuation executor, that is used by default to run asynchronous future
+ * continuations (see the {@code mapAsync} and similar augmentations in {@code gololang.Async}). Unless specified, it
+ * is the same executor as the one used to process messages.
  */
 public final class WorkerEnvironment {
 
   private final ExecutorService executor;
+  private volatile Executor continuationExecutor;
 
   /**
    * Creates a new worker environment using an executor.
@@ -34,7 +45,18 @@ public final class WorkerEnvironment {
    * @param executor the executor.
    */
   public WorkerEnvironment(ExecutorService executor) {
+    this(executor, executor);
+  }
+
+  /**
+   * Creates a new worker environment using an executor, and a separate executor for future continuations.
+   *
+   * @param executor the executor.
+   * @param continuationExecutor the executor to run future continuations on.
+   */
+  public WorkerEnvironment(ExecutorService executor, Executor continuationExecutor) {
     this.executor = executor;
+    this.continuationExecutor = continuationExecutor;
   }
 
   /**
@@ -89,6 +111,102 @@ public final class WorkerEnvironment {
     public WorkerEnvironment withSingleThreadExecutor() {
       return new WorkerEnvironment(Executors.newSingleThreadExecutor());
     }
+
+    /**
+     * @param parallelism the targeted parallelism level.
+     * @return a worker environment with a work-stealing pool in asynchronous (first-in, first-out) mode.
+     * @see ForkJoinPool#ForkJoinPool(int, ForkJoinPool.ForkJoinWorkerThreadFactory, Thread.UncaughtExceptionHandler, boolean)
+     */
+    public WorkerEnvironment withWorkStealingPool(int parallelism) {
+      return new WorkerEnvironment(new ForkJoinPool(
+            parallelism,
+            ForkJoinPool.defaultForkJoinWorkerThreadFactory,
+            null,
+            true));
+    }
+
+    /**
+     * @return a worker environment with a work-stealing pool in asynchronous mode, whose parallelism is the number
+     * of available processors.
+     * @see #withWorkStealingPool(int)
+     * @see Runtime#availableProcessors()
+     */
+    public WorkerEnvironment withWorkStealingPool() {
+      return withWorkStealingPool(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Checks whether the running JVM supports virtual threads.
+     *
+     * @return {@code true} if {@link #withVirtualThreads()} can be used.
+     */
+    public boolean supportsVirtualThreads() {
+      return VirtualThreads.FACTORY != null;
+    }
+
+    /**
+     * Virtual threads are cheap to create and to block, so that a large number of ports whose worker functions
+     * block on I/O can be processed concurrently.
+     *
+     * @return a worker environment that starts a new virtual thread for each task.
+     * @throws UnsupportedOperationException if the running JVM does not support virtual threads.
+     * @see #supportsVirtualThreads()
+     */
+    public WorkerEnvironment withVirtualThreads() {
+      if (!supportsVirtualThreads()) {
+        throw new UnsupportedOperationException("Virtual threads are not supported by this JVM");
+      }
+      return new WorkerEnvironment(VirtualThreads.newExecutor());
+    }
+
+    /**
+     * @return a worker environment using virtual threads if the running JVM supports them, or a cached thread pool
+     * otherwise.
+     * @see #withVirtualThreads()
+     * @see #withCachedThreadPool()
+     */
+    public WorkerEnvironment withVirtualThreadsOrCachedThreadPool() {
+      if (supportsVirtualThreads()) {
+        return withVirtualThreads();
+      }
+      return withCachedThreadPool();
+    }
+  }
+
+  /**
+   * Lazily detects {@code Executors.newVirtualThreadPerTaskExecutor()}, since the build targets Java 8.
+   */
+  private static final class VirtualThreads {
+
+    private static final MethodHandle FACTORY = lookupFactory();
+
+    private VirtualThreads() {
+      // holder class
+    }
+
+    private static MethodHandle lookupFactory() {
+      try {
+        MethodHandle factory = publicLookup().findStatic(
+            Executors.class,
+            "newVirtualThreadPerTaskExecutor",
+            methodType(ExecutorService.class));
+        // Fails with an UnsupportedOperationException when virtual threads are a disabled preview feature
+        ((ExecutorService) factory.invokeExact()).shutdown();
+        return factory;
+      } catch (Throwable t) {
+        return null;
+      }
+    }
+
+    static ExecutorService newExecutor() {
+      try {
+        return (ExecutorService) FACTORY.invokeExact();
+      } catch (RuntimeException | Error e) {
+        throw e;
+      } catch (Throwable t) {
+        throw new IllegalStateException(t);
+      }
+    }
   }
 
   /**
@@ -111,6 +229,89 @@ public final class WorkerEnvironment {
     return new Port(executor, function);
   }
 
+  /**
+   * Spawns a worker function with a specific mailbox policy.
+   *
+   * @param func the worker target.
+   * @param policy the mailbox policy of the port.
+   * @return a port to send messages to <code>handle</code>.
+   */
+  public Port spawn(FunctionReference func, MailboxPolicy policy) {
+    return spawnWorker((WorkerFunction) Predefined.asInterfaceInstance(WorkerFunction.class, func), policy);
+  }
+
+  /**
+   * Spawns a worker function whose return value is used as the reply to requests.
+   * <p>
+   * When the port receives a {@link Request} (see {@link Port#ask(Object)}), {@code func} is called on the request
+   * message and the request is answered with its result, or failed with the exception it throws. Other messages
+   * are processed as usual and the function result is ignored.
+   *
+   * @param func the worker target.
+   * @return a port to send messages to <code>func</code>.
+   */
+  public Port spawnReplying(FunctionReference func) {
+    return spawnReplying(func, MailboxPolicy.unbounded());
+  }
+
+  /**
+   * Spawns a worker function whose return value is used as the reply to requests, with a specific mailbox policy.
+   *
+   * @param func the worker target.
+   * @param policy the mailbox policy of the port.
+   * @return a port to send messages to <code>func</code>.
+   * @see #spawnReplying(FunctionReference)
+   */
+  public Port spawnReplying(FunctionReference func, MailboxPolicy policy) {
+    return spawnWorker(message -> {
+      if (message instanceof Request) {
+        Request request = (Request) message;
+        try {
+          request.reply(func.invoke1(request.message()));
+        } catch (Throwable t) {
+          request.fail(t);
+        }
+        return;
+      }
+      try {
+        func.invoke1(message);
+      } catch (RuntimeException | Error e) {
+        throw e;
+      } catch (Throwable t) {
+        throw new IllegalStateException(t);
+      }
+    }, policy);
+  }
+
+  /**
+   * Spawns a worker function with a specific mailbox policy.
+   *
+   * @param function the worker target.
+   * @param policy the mailbox policy of the port.
+   * @return a port to send messages to <code>function</code>.
+   */
+  public Port spawnWorker(WorkerFunction function, MailboxPolicy policy) {
+    return new Port(executor, function, policy);
+  }
+
+  /**
+   * @return the executor used to run future continuations.
+   */
+  public Executor continuationExecutor() {
+    return continuationExecutor;
+  }
+
+  /**
+   * Changes the executor used to run future continuations.
+   *
+   * @param continuationExecutor the new continuation executor.
+   * @return the same worker environment object.
+   */
+  public WorkerEnvironment withContinuationExecutor(Executor continuationExecutor) {
+    this.continuationExecutor = continuationExecutor;
+    return this;
+  }
+
   /**
    * Shutdown the worker environment.
    *
@@ -277,7 +277,7 @@ public final class Result<T, E extends Throwable> implements Iterable<T> {
     if (value != null) {
       return value;
     }
-    return fun.invoke();
+    return fun.invoke0();
   }
 
 
@@ -462,7 +462,7 @@ public final class Result<T, E extends Throwable> implements Iterable<T> {
     }
     Object result;
     try {
-      result = mapper.invoke(value);
+      result = mapper.invoke1(value);
     } catch (Throwable e) {
       return error(e);
     }
@@ -489,9 +489,9 @@ public final class Result<T, E extends Throwable> implements Iterable<T> {
    */
   public Object either(FunctionReference mapping, FunctionReference recover) throws Throwable {
     if (isError()) {
-      return recover.invoke(error);
+      return recover.invoke1(error);
     }
-    return mapping.invoke(value);
+    return mapping.invoke1(value);
   }
 
     /**
@@ -508,7 +508,7 @@ public final class Result<T, E extends Throwable> implements Iterable<T> {
    */
   public Object either(FunctionReference mapping, FunctionReference recover, FunctionReference def) throws Throwable {
     if (isEmpty()) {
-      return def.invoke();
+      return def.invoke0();
     }
     return this.either(mapping, recover);
   }
@@ -558,7 +558,7 @@ public final class Result<T, E extends Throwable> implements Iterable<T> {
     if (value == null) {
       return init;
     }
-    return func.invoke(init, value);
+    return func.invoke2(init, value);
   }
 
   /**
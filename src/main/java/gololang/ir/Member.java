@@ -15,17 +15,33 @@ import static java.util.Objects.requireNonNull;
 public final class Member extends GoloElement<Member> {
 
   private final String name;
+  private final Class<?> type;
 
-  private Member(String name) {
+  private Member(String name, Class<?> type) {
     super();
     this.name = requireNonNull(name);
+    this.type = requireNonNull(type);
   }
 
   public static Member of(Object o) {
     if (o instanceof Member) {
       return (Member) o;
     }
-    return new Member(o.toString());
+    return new Member(o.toString(), Object.class);
+  }
+
+  /**
+   * Creates a typed member.
+   *
+   * @param name the member name.
+   * @param type the member type, either {@code Object} or a primitive type.
+   * @return a new member.
+   */
+  public static Member of(String name, Class<?> type) {
+    if (type != Object.class && !type.isPrimitive() || type == void.class) {
+      throw new IllegalArgumentException("Invalid member type: " + type.getName());
+    }
+    return new Member(name, type);
   }
 
   protected Member self() { return this; }
@@ -34,6 +50,20 @@ public final class Member extends GoloElement<Member> {
     return name;
   }
 
+  /**
+   * @return the member type, which is {@code Object} unless the member is typed.
+   */
+  public Class<?> getType() {
+    return type;
+  }
+
+  /**
+   * @return {@code true} if the member has a primitive type.
+   */
+  public boolean isTyped() {
+    return type != Object.class;
+  }
+
   public boolean isPublic() {
     return !name.startsWith("_");
   }
@@ -59,6 +89,9 @@ public final class Member extends GoloElement<Member> {
    */
   @Override
   public String toString() {
+    if (isTyped()) {
+      return String.format("<%s: %s>", name, type.getName());
+    }
     return String.format("<%s>", name);
   }
 }
@@ -31,6 +31,9 @@ public final class CompilerCommand implements CliCommand {
   @Parameter(names = "--output", descriptionKey = "compile.output")
   String output = ".";
 
+  @Parameter(names = "--optimize", descriptionKey = "compile.optimize")
+  Integer optimize = null;
+
   @Parameter(descriptionKey = "source_files", converter = FileConverter.class)
   LinkedList<File> sources = new LinkedList<>();
 
@@ -49,6 +52,9 @@ public final class CompilerCommand implements CliCommand {
   public void execute() throws Throwable {
     GoloClassLoader loader = classpath.initGoloClassLoader();
     GoloCompiler compiler = loader.getCompiler();
+    if (this.optimize != null) {
+      compiler.setOptimizationLevel(this.optimize);
+    }
     try (GoloFilesManager fm = GoloFilesManager.of(this.output)) {
       GoloFilesManager.goloFiles(this.sources)
         .filter(this::canRead)
@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2012-2021 Institut National des Sciences Appliquées de Lyon (INSA Lyon) and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.golo.compiler;
+
+import gololang.ir.*;
+import org.eclipse.golo.runtime.OperatorSupport;
+
+import java.lang.invoke.MethodHandle;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+import static java.lang.invoke.MethodHandles.publicLookup;
+import static java.lang.invoke.MethodType.methodType;
+
+/**
+ * Visitor to simplify constant expressions.
+ * <p>
+ * This optimization pass is applied on the refined IR, that is after the sugar expansion and the local references
+ * verification. It:
+ * <ul>
+ *   <li>folds arithmetic, comparison and logical operations whose operands are literal values, such as
+ *   {@code 1 + 2}, {@code "a" + "b"} or {@code not true}, into the resulting literal;
+ *   <li>short-circuits {@code and}, {@code or} and {@code orIfNull} operations whose left operand is a literal
+ *   deciding the result;
+ *   <li>removes the branches of conditionals whose condition is a literal boolean, and thus of the {@code case} and
+ *   {@code match} constructs, that are expanded into conditionals.
+ * </ul>
+ * <p>
+ * Operations are evaluated with the very {@link OperatorSupport} methods used at runtime, such that folding does not
+ * change the semantic of the program. Operations that fail, such as a division by zero, are kept as is to fail at
+ * runtime.
+ */
+public class ConstantFoldingVisitor extends AbstractGoloIrVisitor {
+
+  private static boolean isFoldable(Object value) {
+    return value == null
+      || value instanceof Boolean
+      || value instanceof Character
+      || value instanceof String
+      || value instanceof Integer
+      || value instanceof Long
+      || value instanceof Double
+      || value instanceof Float
+      || value instanceof BigInteger
+      || value instanceof BigDecimal;
+  }
+
+  private static boolean isLiteral(GoloElement<?> element) {
+    return element instanceof ConstantStatement && isFoldable(((ConstantStatement) element).value());
+  }
+
+  private static Object valueOf(GoloElement<?> element) {
+    return ((ConstantStatement) element).value();
+  }
+
+  private static Class<?> typeOf(Object value) {
+    return value == null ? Object.class : value.getClass();
+  }
+
+  private static MethodHandle operator(String name, Object... args) {
+    Class<?>[] types = new Class<?>[args.length];
+    Class<?>[] objects = new Class<?>[args.length];
+    for (int i = 0; i < args.length; i++) {
+      types[i] = typeOf(args[i]);
+      objects[i] = Object.class;
+    }
+    try {
+      return publicLookup().findStatic(OperatorSupport.class, name, methodType(Object.class, types));
+    } catch (NoSuchMethodException | IllegalAccessException e) {
+      try {
+        return publicLookup().findStatic(OperatorSupport.class, name + "_fallback", methodType(Object.class, objects));
+      } catch (NoSuchMethodException | IllegalAccessException e2) {
+        return null;
+      }
+    }
+  }
+
+  private static void fold(ExpressionStatement<?> operation, String name, Object... args) {
+    MethodHandle target = operator(name, args);
+    if (target == null) {
+      return;
+    }
+    Object result;
+    try {
+      result = target.invokeWithArguments(args);
+    } catch (Throwable t) {
+      return;
+    }
+    if (isFoldable(result)) {
+      operation.replaceInParentBy(ConstantStatement.of(result));
+    }
+  }
+
+  /**
+   * The closure functions are already module functions at this stage, and are optimized as such.
+   */
+  @Override
+  public void visitClosureReference(ClosureReference closure) {
+    // nothing to do
+  }
+
+  @Override
+  public void visitBlock(Block block) {
+    block.walk(this);
+    block.flatten();
+  }
+
+  @Override
+  public void visitBinaryOperation(BinaryOperation operation) {
+    operation.walk(this);
+    if (operation.isMethodCall() || !isLiteral(operation.left())) {
+      return;
+    }
+    Object left = valueOf(operation.left());
+    switch (operation.getType()) {
+      case AND:
+        if (Boolean.FALSE.equals(left)) {
+          operation.replaceInParentBy(ConstantStatement.of(false));
+        } else if (Boolean.TRUE.equals(left) && isLiteral(operation.right())
+                   && valueOf(operation.right()) instanceof Boolean) {
+          operation.replaceInParentBy(ConstantStatement.of(valueOf(operation.right())));
+        }
+        break;
+      case OR:
+        if (Boolean.TRUE.equals(left)) {
+          operation.replaceInParentBy(ConstantStatement.of(true));
+        } else if (Boolean.FALSE.equals(left) && isLiteral(operation.right())
+                   && valueOf(operation.right()) instanceof Boolean) {
+          operation.replaceInParentBy(ConstantStatement.of(valueOf(operation.right())));
+        }
+        break;
+      case ORIFNULL:
+        operation.replaceInParentBy(left == null ? operation.right() : operation.left());
+        break;
+      case IS:
+      case ISNT:
+        if (isLiteral(operation.right()) && (left == null || valueOf(operation.right()) == null)) {
+          boolean same = left == valueOf(operation.right());
+          operation.replaceInParentBy(ConstantStatement.of(operation.getType() == OperatorType.IS ? same : !same));
+        }
+        break;
+      case OFTYPE:
+        break;
+      default:
+        if (isLiteral(operation.right())) {
+          fold(operation, operation.getType().name().toLowerCase(), left, valueOf(operation.right()));
+        }
+    }
+  }
+
+  @Override
+  public void visitUnaryOperation(UnaryOperation operation) {
+    operation.walk(this);
+    if (isLiteral(operation.expression())) {
+      fold(operation, operation.getType().name().toLowerCase(), valueOf(operation.expression()));
+    }
+  }
+
+  @Override
+  public void visitConditionalBranching(ConditionalBranching branching) {
+    branching.walk(this);
+    if (!isLiteral(branching.getCondition()) || !(valueOf(branching.getCondition()) instanceof Boolean)) {
+      return;
+    }
+    if ((Boolean) valueOf(branching.getCondition())) {
+      branching.replaceInParentBy(branching.getTrueBlock());
+    } else if (branching.hasFalseBlock()) {
+      branching.replaceInParentBy(branching.getFalseBlock());
+    } else if (branching.hasElseConditionalBranching()) {
+      branching.replaceInParentBy(branching.getElseConditionalBranching());
+    } else {
+      branching.replaceInParentBy(Noop.of("if false"));
+    }
+  }
+}
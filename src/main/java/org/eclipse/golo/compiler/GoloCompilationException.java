@@ -45,8 +45,10 @@ public class GoloCompilationException extends RuntimeException {
       INVALID_ENCODING,
       INCOMPLETE_NAMED_ARGUMENTS_USAGE,
       AMBIGUOUS_DECLARATION,
+      INVALID_MEMBER_TYPE,
       UNKNOWN_MACRO,
-      MACRO_EXPANSION
+      MACRO_EXPANSION,
+      INVALID_TAIL_CALL
     }
 
     private final Type type;
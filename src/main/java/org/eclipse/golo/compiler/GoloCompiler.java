@@ -38,6 +38,7 @@ public final class GoloCompiler {
   private GoloParser parser;
   private GoloCompilationException.Builder exceptionBuilder = null;
   private final ClassLoader classloader;
+  private int optimizationLevel = defaultOptimizationLevel();
 
   public GoloCompiler() {
     this(Thread.currentThread().getContextClassLoader());
@@ -68,6 +69,37 @@ public final class GoloCompiler {
     exceptionBuilder = null;
   }
 
+  private static int defaultOptimizationLevel() {
+    String level = System.getProperty("golo.optimize.level", System.getenv("GOLO_OPTIMIZE_LEVEL"));
+    if (level == null) {
+      return 1;
+    }
+    try {
+      return Integer.parseInt(level.trim());
+    } catch (NumberFormatException e) {
+      return 1;
+    }
+  }
+
+  /**
+   * Defines the optimizations applied to the refined IR.
+   * <p>
+   * At level {@code 0}, no optimization is done. At level {@code 1} and above, constant expressions are folded and
+   * constant conditional branches are pruned (see {@link ConstantFoldingVisitor}).
+   * <p>
+   * The default level is {@code 1}, unless specified by the {@code golo.optimize.level} system property or the
+   * {@code GOLO_OPTIMIZE_LEVEL} environment variable.
+   *
+   * @param level the optimization level.
+   */
+  public void setOptimizationLevel(int level) {
+    this.optimizationLevel = level;
+  }
+
+  public int getOptimizationLevel() {
+    return this.optimizationLevel;
+  }
+
   /**
    * Initializes a parser from a reader. This method is made public for the requirements of IDEs support.
    *
@@ -190,8 +222,23 @@ public final class GoloCompiler {
       goloModule.accept(new SugarExpansionVisitor());
       goloModule.accept(new ClosureCaptureGoloIrVisitor());
       goloModule.accept(new LocalReferenceAssignmentAndVerificationVisitor(getOrCreateExceptionBuilder(goloModule.sourceFile())));
+      goloModule.accept(new TailCallVisitor(getOrCreateExceptionBuilder(goloModule.sourceFile())));
     }
     throwIfErrorEncountered();
+    return optimize(goloModule);
+  }
+
+  /**
+   * Applies the optimizations enabled by the optimization level on a refined module.
+   *
+   * @param goloModule the module to optimize.
+   * @return the optimized module.
+   * @see #setOptimizationLevel(int)
+   */
+  public GoloModule optimize(GoloModule goloModule) {
+    if (goloModule != null && optimizationLevel > 0) {
+      goloModule.accept(new ConstantFoldingVisitor());
+    }
     return goloModule;
   }
 
@@ -12,6 +12,7 @@ package org.eclipse.golo.compiler;
 
 import gololang.FunctionReference;
 import gololang.ir.*;
+import org.eclipse.golo.runtime.StringConcatenationSupport;
 import org.objectweb.asm.*;
 
 import java.lang.invoke.MethodType;
@@ -45,11 +46,22 @@ final class JavaBytecodeGenerationGoloIrVisitor implements GoloIrVisitor {
       "ClosureReferenceSupport", "Ljava/lang/String;II");
   private static final Handle CLOSURE_INVOCATION_HANDLE = makeHandle(
       "ClosureCallSupport", "[Ljava/lang/Object;");
+  private static final Handle STRING_CONCATENATION_HANDLE = makeHandle(
+      "StringConcatenationSupport", "Ljava/lang/String;");
+  private static final Handle TAIL_CALL_HANDLE = makeHandle(
+      "TailCallSupport", "");
+  private static final Handle MATCH_HANDLE = makeHandle(
+      "MatchSupport", "[Ljava/lang/Object;");
+  private static final Handle DESTRUCTURING_HANDLE = makeHandle(
+      "DestructuringSupport", "[Ljava/lang/Object;");
+
+  private static final int SWITCH_THRESHOLD = 3;
+  private static final int MAX_CONCATENATION_ARGUMENTS = 200;
 
   private static final JavaBytecodeStructGenerator STRUCT_GENERATOR = new JavaBytecodeStructGenerator();
   private static final JavaBytecodeUnionGenerator UNION_GENERATOR = new JavaBytecodeUnionGenerator();
 
-  private static final boolean USE_TCE = gololang.Runtime.loadBoolean("golo.optimize.tce", "GOLO_OPTIMIZE_TCE", true);
+  static final boolean USE_TCE = gololang.Runtime.loadBoolean("golo.optimize.tce", "GOLO_OPTIMIZE_TCE", true);
 
   private ClassWriter classWriter;
   private String klass;
@@ -68,6 +80,8 @@ final class JavaBytecodeGenerationGoloIrVisitor implements GoloIrVisitor {
     private final Deque<Label> finallyStartLabels = new LinkedList<>();
     private final Map<LoopStatement, Label> loopStartMap = new HashMap<>();
     private final Map<LoopStatement, Label> loopEndMap = new HashMap<>();
+    private final Map<String, LocalReference[]> forEachCounters = new HashMap<>();
+    private final Map<GoloElement<?>, Label> switchLabels = new HashMap<>();
 
     Label labelFor(GoloElement<?> element) {
       return visitLine(element, this.currentMethodVisitor);
@@ -446,14 +460,75 @@ final class JavaBytecodeGenerationGoloIrVisitor implements GoloIrVisitor {
 
   @Override
   public void visitFunction(GoloFunction function) {
+    TailCallVisitor.Group group = tailCallGroup(function);
     context.enterFunction(function, this.classWriter);
     addFunctionAnnotations(function);
     for (String parameter: function.getParameterNames()) {
       context.currentMethodVisitor.visitParameter(parameter, ACC_FINAL);
     }
     context.currentMethodVisitor.visitCode();
-    function.walk(this);
+    if (group != null) {
+      invokeTailCallGroup(function, group);
+    } else {
+      function.walk(this);
+    }
     context.exitFunction();
+    if (group != null && group.markGenerated()) {
+      generateTailCallGroup(group);
+    }
+  }
+
+  private static TailCallVisitor.Group tailCallGroup(GoloFunction function) {
+    Object group = function.metadata(TailCallVisitor.TAIL_CALL_GROUP);
+    return USE_TCE && group instanceof TailCallVisitor.Group ? (TailCallVisitor.Group) group : null;
+  }
+
+  /**
+   * Generates the body of a function of a tail calls group, that delegates to the group method.
+   */
+  private void invokeTailCallGroup(GoloFunction function, TailCallVisitor.Group group) {
+    MethodVisitor mv = context.currentMethodVisitor;
+    for (int i = 0; i < group.arity(); i++) {
+      if (i < function.getArity()) {
+        mv.visitVarInsn(ALOAD, i);
+      } else {
+        mv.visitInsn(ACONST_NULL);
+      }
+    }
+    loadInteger(mv, group.indexOf(function));
+    mv.visitMethodInsn(INVOKESTATIC, jvmKlass, group.name(), group.descriptor(), false);
+    mv.visitInsn(ARETURN);
+  }
+
+  /**
+   * Generates the method of a tail calls group.
+   * <p>
+   * The method dispatches on its last parameter to the body of the corresponding function. The parameters of the
+   * function are the first parameters of the method, and its local references follow, such that the tail calls
+   * between the functions of the group are jumps to the beginning of their bodies.
+   */
+  private void generateTailCallGroup(TailCallVisitor.Group group) {
+    MethodVisitor mv = classWriter.visitMethod(ACC_PRIVATE | ACC_STATIC | ACC_SYNTHETIC,
+        group.name(), group.descriptor(), null, null);
+    context.currentMethodVisitor = mv;
+    mv.visitCode();
+    Label[] labels = new Label[group.functions().size()];
+    for (int i = 0; i < labels.length; i++) {
+      labels[i] = new Label();
+      context.functionLabels.put(group.functions().get(i), labels[i]);
+    }
+    mv.visitVarInsn(ILOAD, group.arity());
+    mv.visitTableSwitchInsn(0, labels.length - 1, labels[0], labels);
+    for (int i = 0; i < labels.length; i++) {
+      GoloFunction function = group.functions().get(i);
+      mv.visitLabel(labels[i]);
+      context.currentFunction = function;
+      context.labelFor(function);
+      function.walk(this);
+    }
+    mv.visitMaxs(0, 0);
+    mv.visitEnd();
+    context.currentFunction = null;
   }
 
   private void addFunctionAnnotations(GoloFunction function) {
@@ -500,7 +575,7 @@ final class JavaBytecodeGenerationGoloIrVisitor implements GoloIrVisitor {
     }
     Label blockEnd = context.newLabel();
     for (LocalReference localReference : block.getReferenceTable().ownedReferences()) {
-      if (localReference.isModuleState()) {
+      if (localReference.isModuleState() || localReference.metadata(SugarExpansionVisitor.FOREACH_COUNTER) != null) {
         continue;
       }
       context.currentMethodVisitor.visitLocalVariable(localReference.getName(), TOBJECT, null,
@@ -572,8 +647,16 @@ final class JavaBytecodeGenerationGoloIrVisitor implements GoloIrVisitor {
   public void visitReturnStatement(ReturnStatement returnStatement) {
     GoloStatement<?> expr = returnStatement.expression();
     if (isRecursiveTailCall(expr)) {
-      storeInvocationArguments((FunctionInvocation) expr, context.currentFunction);
-      context.goToCurrentFunction();
+      tailCall((FunctionInvocation) expr, context.currentFunction);
+      return;
+    }
+    GoloFunction target = tailCallTarget(expr);
+    if (target != null) {
+      tailCall((FunctionInvocation) expr, target);
+      return;
+    }
+    if (USE_TCE && expr instanceof BinaryOperation && expr.metadata(TailCallVisitor.TAIL_METHOD_CALL) != null) {
+      tailMethodCall((BinaryOperation) expr);
       return;
     }
     if (expr != null) {
@@ -596,6 +679,73 @@ final class JavaBytecodeGenerationGoloIrVisitor implements GoloIrVisitor {
     return false;
   }
 
+  private GoloFunction tailCallTarget(GoloStatement<?> statement) {
+    if (statement instanceof FunctionInvocation && tailCallGroup(context.currentFunction) != null) {
+      Object target = statement.metadata(TailCallVisitor.TAIL_CALL_TARGET);
+      if (target instanceof GoloFunction && context.functionLabels.containsKey(target)) {
+        return (GoloFunction) target;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Replaces the parameters of the target function by the invocation arguments, and jumps to its beginning.
+   * <p>
+   * The arguments are all evaluated before any parameter is changed, since they may refer to them.
+   */
+  private void tailCall(AbstractInvocation<?> invocation, GoloFunction target) {
+    List<String> parameters = target.getParameterNames().subList(target.getSyntheticParameterCount(), target.getArity());
+    for (GoloElement<?> argument : reorderArguments(invocation.getArguments(), parameters)) {
+      argument.accept(this);
+    }
+    storeParameters(target, parameters);
+    context.goTo(context.functionLabels.get(target));
+  }
+
+  private void storeParameters(GoloFunction function, List<String> parameters) {
+    ReferenceTable table = function.getBlock().getReferenceTable();
+    for (int i = parameters.size() - 1; i >= 0; i--) {
+      context.storeObject(table.get(parameters.get(i)).getIndex());
+    }
+  }
+
+  private void loadParameters(GoloFunction function) {
+    ReferenceTable table = function.getBlock().getReferenceTable();
+    for (String parameter : function.getParameterNames()) {
+      context.loadObject(table.get(parameter).getIndex());
+    }
+  }
+
+  /**
+   * Generates a method invocation with the same name and arity as the enclosing augmentation function.
+   * <p>
+   * The receiver and the arguments become the function parameters. If the method resolved on the receiver is the
+   * function itself, the invocation is a jump to its beginning, otherwise it is a regular method invocation.
+   */
+  private void tailMethodCall(BinaryOperation operation) {
+    GoloFunction function = context.currentFunction;
+    MethodInvocation invocation = (MethodInvocation) operation.right();
+    String name = invocation.getName().replaceAll("\\.", "#");
+    String signature = goloFunctionSignature(function.getArity());
+    Label regular = new Label();
+    operation.left().accept(this);
+    for (GoloElement<?> argument : invocation.getArguments()) {
+      argument.accept(this);
+    }
+    storeParameters(function, function.getParameterNames());
+    loadParameters(function);
+    context.currentMethodVisitor.visitInvokeDynamicInsn(name,
+        MethodType.genericMethodType(function.getArity()).changeReturnType(boolean.class).toMethodDescriptorString(),
+        TAIL_CALL_HANDLE);
+    context.currentMethodVisitor.visitJumpInsn(IFEQ, regular);
+    context.goToCurrentFunction();
+    context.currentMethodVisitor.visitLabel(regular);
+    loadParameters(function);
+    context.currentMethodVisitor.visitInvokeDynamicInsn(name, signature, METHOD_INVOCATION_HANDLE, 0);
+    context.makeReturn(false);
+  }
+
   @Override
   public void visitThrowStatement(ThrowStatement throwStatement) {
     throwStatement.walk(this);
@@ -616,19 +766,6 @@ final class JavaBytecodeGenerationGoloIrVisitor implements GoloIrVisitor {
     return argumentNames;
   }
 
-  private void storeInvocationArguments(AbstractInvocation<?> invocation, GoloFunction function) {
-    int offset = function.getBlock().getReferenceTable().size();
-    storeRegularInvocationArguments(reorderArguments(invocation.getArguments(), function.getParameterNames()), offset);
-    reloadNextCallArguments(function.getArity(), offset, function.getSyntheticParameterCount());
-  }
-
-  private void reloadNextCallArguments(int paramNumber, int tmpOffset, int paramOffset) {
-    for (int i = 0; i < paramNumber - paramOffset; i++) {
-      context.loadObject(i + tmpOffset);
-      context.storeObject(i + paramOffset);
-    }
-  }
-
   private static List<GoloElement<?>> reorderArguments(List<GoloElement<?>> arguments, List<String> parameterNames) {
     if (!arguments.stream().allMatch(e -> e instanceof NamedArgument)) {
       return arguments;
@@ -641,13 +778,6 @@ final class JavaBytecodeGenerationGoloIrVisitor implements GoloIrVisitor {
     return ordered;
   }
 
-  private void storeRegularInvocationArguments(List<GoloElement<?>> arguments, int offset) {
-    for (int i = 0; i < arguments.size(); i++) {
-      arguments.get(i).accept(this);
-      context.storeObject(i + offset);
-    }
-  }
-
   @Override
   public void visitFunctionInvocation(FunctionInvocation functionInvocation) {
     String name = functionInvocation.getName().replaceAll("\\.", "#");
@@ -668,13 +798,66 @@ final class JavaBytecodeGenerationGoloIrVisitor implements GoloIrVisitor {
       typeDef = type.toMethodDescriptorString();
       handle = CLOSURE_INVOCATION_HANDLE;
     }
-    List<String> argumentNames = visitInvocationArguments(functionInvocation);
-    bootstrapArgs.addAll(argumentNames);
+    GoloFunction target = namedArgumentsTarget(functionInvocation);
+    if (target != null) {
+      for (GoloElement<?> argument : reorderArguments(functionInvocation.getArguments(), target.getParameterNames())) {
+        argument.accept(this);
+      }
+    } else {
+      bootstrapArgs.addAll(visitInvocationArguments(functionInvocation));
+    }
     context.currentMethodVisitor.visitInvokeDynamicInsn(name, typeDef, handle, bootstrapArgs.toArray());
   }
 
+  /**
+   * Gives the module function invoked with named arguments, if the arguments can be reordered at compile time.
+   * <p>
+   * The functions invoked from a module function are looked up in the module first, so that the invoked function is
+   * the module function with the same name and arity. The arguments are reordered only if they have no side effect,
+   * since they would not be evaluated in the written order otherwise. Variable arity functions are left to the
+   * runtime.
+   */
+  private GoloFunction namedArgumentsTarget(FunctionInvocation invocation) {
+    if (!invocation.usesNamedArguments() || invocation.isOnReference() || invocation.isOnModuleState()
+        || invocation.isAnonymous() || invocation.getName().contains(".")
+        || context.currentFunction == null || !context.currentFunction.isInModule()) {
+      return null;
+    }
+    GoloFunction target = null;
+    for (GoloFunction function : currentModule.getFunctions()) {
+      if (function.getName().equals(invocation.getName()) && function.getArity() == invocation.getArity()) {
+        if (target != null) {
+          return null;
+        }
+        target = function;
+      }
+    }
+    if (target == null || target.isVarargs() || target.getSyntheticParameterCount() > 0) {
+      return null;
+    }
+    Set<String> names = new HashSet<>();
+    for (GoloElement<?> argument : invocation.getArguments()) {
+      if (!(argument instanceof NamedArgument)
+          || !target.getParameterNames().contains(((NamedArgument) argument).getName())
+          || !names.add(((NamedArgument) argument).getName())
+          || !isSideEffectFree(((NamedArgument) argument).expression())) {
+        return null;
+      }
+    }
+    return target;
+  }
+
+  private static boolean isSideEffectFree(GoloElement<?> expression) {
+    return expression instanceof ConstantStatement
+      || expression instanceof ReferenceLookup
+      || expression instanceof ClosureReference;
+  }
+
   @Override
   public void visitMethodInvocation(MethodInvocation methodInvocation) {
+    if (destructuring(methodInvocation)) {
+      return;
+    }
     List<Object> bootstrapArgs = new ArrayList<>();
     bootstrapArgs.add(methodInvocation.isNullSafeGuarded() ? 1 : 0);
     List<String> argumentNames = visitInvocationArguments(methodInvocation);
@@ -686,6 +869,25 @@ final class JavaBytecodeGenerationGoloIrVisitor implements GoloIrVisitor {
         bootstrapArgs.toArray());
   }
 
+  /**
+   * Generates the invocations of a destructuring assignment, the receiver being on the stack.
+   */
+  private boolean destructuring(MethodInvocation methodInvocation) {
+    Object destructuring = methodInvocation.metadata(SugarExpansionVisitor.DESTRUCTURING);
+    Object element = methodInvocation.metadata(SugarExpansionVisitor.DESTRUCTURED_ELEMENT);
+    if (destructuring instanceof Object[]) {
+      context.currentMethodVisitor.visitInvokeDynamicInsn(
+          "destruct", goloFunctionSignature(1), DESTRUCTURING_HANDLE, (Object[]) destructuring);
+      return true;
+    }
+    if (element instanceof Integer) {
+      context.currentMethodVisitor.visitInvokeDynamicInsn(
+          "element", goloFunctionSignature(1), DESTRUCTURING_HANDLE, element);
+      return true;
+    }
+    return false;
+  }
+
   @Override
   public void visitMacroInvocation(MacroInvocation macroInvocation) {
     throw invalidElement(macroInvocation);
@@ -722,17 +924,22 @@ final class JavaBytecodeGenerationGoloIrVisitor implements GoloIrVisitor {
 
   @Override
   public void visitConditionalBranching(ConditionalBranching conditionalBranching) {
+    if (!context.switchLabels.containsKey(conditionalBranching.getTrueBlock())) {
+      switchOnConditions(conditionalBranching);
+    }
     Label branchingElseLabel = new Label();
     Label branchingExitLabel = new Label();
     conditionalBranching.getCondition().accept(this);
     asmBooleanValue();
     context.currentMethodVisitor.visitJumpInsn(IFEQ, branchingElseLabel);
+    visitSwitchLabel(conditionalBranching.getTrueBlock());
     conditionalBranching.getTrueBlock().accept(this);
     if (conditionalBranching.hasFalseBlock()) {
       if (!conditionalBranching.getTrueBlock().hasReturn()) {
         context.goTo(branchingExitLabel);
       }
       context.currentMethodVisitor.visitLabel(branchingElseLabel);
+      visitSwitchLabel(conditionalBranching);
       conditionalBranching.getFalseBlock().accept(this);
       context.currentMethodVisitor.visitLabel(branchingExitLabel);
     } else if (conditionalBranching.hasElseConditionalBranching()) {
@@ -744,11 +951,126 @@ final class JavaBytecodeGenerationGoloIrVisitor implements GoloIrVisitor {
       context.currentMethodVisitor.visitLabel(branchingExitLabel);
     } else {
       context.currentMethodVisitor.visitLabel(branchingElseLabel);
+      visitSwitchLabel(conditionalBranching);
+    }
+  }
+
+  private void visitSwitchLabel(GoloElement<?> element) {
+    Label label = context.switchLabels.remove(element);
+    if (label != null) {
+      context.currentMethodVisitor.visitLabel(label);
+    }
+  }
+
+  /**
+   * Generates a switch on the conditions of an {@code if}/{@code else if} chain, as resulting from a {@code case} or
+   * a {@code match}.
+   * <p>
+   * When all the conditions compare the same local reference with {@code ==} to integer, long or string constants,
+   * all check its type with {@code oftype}, or all test its union value with a parameterless {@code is<Value>()}
+   * method, a {@link org.eclipse.golo.runtime.MatchSupport} invocation gives the
+   * index of the first matching condition, and a {@code tableswitch} jumps to the corresponding block, or after the
+   * last condition if none matches. The chain is generated as usual after the switch, with labels at the start of the
+   * blocks, and is used when the index is unknown.
+   */
+  private void switchOnConditions(ConditionalBranching branching) {
+    OperatorType kind = null;
+    ReferenceLookup subject = null;
+    List<ConditionalBranching> chain = new ArrayList<>();
+    List<Object> keys = new ArrayList<>();
+    for (ConditionalBranching current = branching; current != null;
+        current = current.hasElseConditionalBranching() ? current.getElseConditionalBranching() : null) {
+      if (!(current.getCondition() instanceof BinaryOperation)) {
+        return;
+      }
+      BinaryOperation condition = (BinaryOperation) current.getCondition();
+      ExpressionStatement<?> reference = condition.left();
+      ExpressionStatement<?> constant = condition.right();
+      if (condition.getType() == OperatorType.EQUALS && constant instanceof ReferenceLookup) {
+        reference = condition.right();
+        constant = condition.left();
+      }
+      if (kind == null) {
+        kind = condition.getType();
+      }
+      if (condition.getType() != kind
+          || !(reference instanceof ReferenceLookup)
+          || subject != null && !subject.getName().equals(((ReferenceLookup) reference).getName())) {
+        return;
+      }
+      subject = (ReferenceLookup) reference;
+      Object key = switchKey(kind, constant);
+      if (key == null) {
+        return;
+      }
+      chain.add(current);
+      keys.add(key);
+    }
+    if (chain.size() < SWITCH_THRESHOLD) {
+      return;
+    }
+    LocalReference reference = subject.resolveIn(context.referenceTableStack.peek());
+    if (reference == null || reference.isModuleState()) {
+      return;
+    }
+    MethodVisitor mv = context.currentMethodVisitor;
+    Label conditions = new Label();
+    Label[] targets = new Label[chain.size() + 2];
+    targets[0] = conditions;
+    targets[1] = new Label();
+    context.switchLabels.put(chain.get(chain.size() - 1), targets[1]);
+    for (int i = 0; i < chain.size(); i++) {
+      targets[i + 2] = new Label();
+      context.switchLabels.put(chain.get(i).getTrueBlock(), targets[i + 2]);
+    }
+    context.loadObject(reference.getIndex());
+    mv.visitInvokeDynamicInsn(switchKind(kind), "(Ljava/lang/Object;)I", MATCH_HANDLE, keys.toArray());
+    mv.visitTableSwitchInsn(-2, chain.size() - 1, conditions, targets);
+    mv.visitLabel(conditions);
+  }
+
+  private static Object switchKey(OperatorType kind, ExpressionStatement<?> operand) {
+    if (kind == OperatorType.METHOD_CALL && operand instanceof MethodInvocation) {
+      MethodInvocation invocation = (MethodInvocation) operand;
+      String name = invocation.getName();
+      if (name.length() > 2 && name.startsWith("is") && invocation.getArity() == 0
+          && !invocation.isNullSafeGuarded()) {
+        return name.substring(2);
+      }
+      return null;
+    }
+    if (!(operand instanceof ConstantStatement)) {
+      return null;
+    }
+    Object value = ((ConstantStatement) operand).value();
+    if (kind == OperatorType.EQUALS
+        && (value instanceof Integer || value instanceof Long || value instanceof String)) {
+      return value;
+    }
+    if (kind == OperatorType.OFTYPE && value instanceof ClassReference) {
+      return ((ClassReference) value).toJVMType();
+    }
+    return null;
+  }
+
+  private static String switchKind(OperatorType kind) {
+    switch (kind) {
+      case EQUALS:
+        return "equals";
+      case OFTYPE:
+        return "oftype";
+      default:
+        return "union";
     }
   }
 
   @Override
   public void visitLoopStatement(LoopStatement loopStatement) {
+    Object counters = loopStatement.metadata(SugarExpansionVisitor.FOREACH_COUNTERS);
+    if (counters instanceof LocalReference[]) {
+      forEachLoop(loopStatement, (LocalReference[]) counters);
+      return;
+    }
     // TODO: handle init and post statement and potential reference scoping issues
     Label loopStart = new Label();
     Label loopEnd = new Label();
@@ -769,6 +1091,225 @@ final class JavaBytecodeGenerationGoloIrVisitor implements GoloIrVisitor {
     context.currentMethodVisitor.visitLabel(loopEnd);
   }
 
+  /**
+   * Generates a loop resulting from a {@code foreach}.
+   * <p>
+   * The iterated value is already in the iterator reference. When it is an integer range or an array, the
+   * loop uses primitive index, end and step counters, and the values are given by the {@code next} invocation on the
+   * iterator reference (see {@link #forEachNext(BinaryOperation, LocalReference[])}). When it is a long range, the
+   * loop uses the long counters in the same way. Otherwise, both steps are 0 and the loop uses the iterator. The body is thus generated only once, and the kind of iteration is chosen once per
+   * loop.
+   */
+  private void forEachLoop(LoopStatement loopStatement, LocalReference[] counters) {
+    MethodVisitor mv = context.currentMethodVisitor;
+    int iterator = counters[0].getIndex();
+    int index = counters[1].getIndex();
+    int end = counters[2].getIndex();
+    int step = counters[3].getIndex();
+    int longIndex = counters[4].getIndex();
+    int longEnd = counters[5].getIndex();
+    int longStep = counters[6].getIndex();
+    Label loopStart = new Label();
+    Label loopEnd = new Label();
+    Label notRange = new Label();
+    Label notLongRange = new Label();
+    Label generic = new Label();
+    Label negative = new Label();
+    Label longCondition = new Label();
+    Label longNegative = new Label();
+    Label genericCondition = new Label();
+    Label body = new Label();
+    context.loopStartMap.put(loopStatement, loopStart);
+    context.loopEndMap.put(loopStatement, loopEnd);
+
+    for (int counter : new int[]{index, end, step}) {
+      mv.visitInsn(ICONST_0);
+      mv.visitVarInsn(ISTORE, counter);
+    }
+    for (int counter : new int[]{longIndex, longEnd, longStep}) {
+      mv.visitInsn(LCONST_0);
+      mv.visitVarInsn(LSTORE, counter);
+    }
+    context.loadObject(iterator);
+    mv.visitMethodInsn(INVOKESTATIC, "org/eclipse/golo/runtime/ForEachHelper", "isIntRange", "(Ljava/lang/Object;)Z", false);
+    mv.visitJumpInsn(IFEQ, notRange);
+    context.loadObject(iterator);
+    mv.visitTypeInsn(CHECKCAST, "gololang/Range");
+    mv.visitInsn(DUP);
+    mv.visitInsn(DUP);
+    mv.visitMethodInsn(INVOKEINTERFACE, "gololang/Range", "from", "()Ljava/lang/Object;", true);
+    asmIntValue();
+    mv.visitVarInsn(ISTORE, index);
+    mv.visitMethodInsn(INVOKEINTERFACE, "gololang/Range", "to", "()Ljava/lang/Object;", true);
+    asmIntValue();
+    mv.visitVarInsn(ISTORE, end);
+    mv.visitMethodInsn(INVOKEINTERFACE, "gololang/Range", "increment", "()I", true);
+    mv.visitVarInsn(ISTORE, step);
+    mv.visitInsn(ACONST_NULL);
+    context.storeObject(iterator);
+    context.goTo(loopStart);
+
+    mv.visitLabel(notRange);
+    context.loadObject(iterator);
+    mv.visitMethodInsn(INVOKESTATIC, "org/eclipse/golo/runtime/ForEachHelper", "isLongRange", "(Ljava/lang/Object;)Z", false);
+    mv.visitJumpInsn(IFEQ, notLongRange);
+    context.loadObject(iterator);
+    mv.visitTypeInsn(CHECKCAST, "gololang/Range");
+    mv.visitInsn(DUP);
+    mv.visitInsn(DUP);
+    mv.visitMethodInsn(INVOKEINTERFACE, "gololang/Range", "from", "()Ljava/lang/Object;", true);
+    asmLongValue();
+    mv.visitVarInsn(LSTORE, longIndex);
+    mv.visitMethodInsn(INVOKEINTERFACE, "gololang/Range", "to", "()Ljava/lang/Object;", true);
+    asmLongValue();
+    mv.visitVarInsn(LSTORE, longEnd);
+    mv.visitMethodInsn(INVOKEINTERFACE, "gololang/Range", "increment", "()I", true);
+    mv.visitInsn(I2L);
+    mv.visitVarInsn(LSTORE, longStep);
+    mv.visitInsn(ACONST_NULL);
+    context.storeObject(iterator);
+    context.goTo(loopStart);
+
+    mv.visitLabel(notLongRange);
+    context.loadObject(iterator);
+    mv.visitMethodInsn(INVOKESTATIC, "org/eclipse/golo/runtime/ForEachHelper", "arrayLength", "(Ljava/lang/Object;)I", false);
+    mv.visitInsn(DUP);
+    mv.visitVarInsn(ISTORE, end);
+    mv.visitJumpInsn(IFLT, generic);
+    mv.visitInsn(ICONST_1);
+    mv.visitVarInsn(ISTORE, step);
+    context.loadObject(iterator);
+    mv.visitMethodInsn(INVOKESTATIC, "org/eclipse/golo/runtime/ForEachHelper", "counted", "(Ljava/lang/Object;)Ljava/lang/Object;", false);
+    context.storeObject(iterator);
+    context.goTo(loopStart);
+
+    mv.visitLabel(generic);
+    loopStatement.init().accept(this);
+
+    mv.visitLabel(loopStart);
+    mv.visitVarInsn(ILOAD, step);
+    mv.visitJumpInsn(IFEQ, longCondition);
+    mv.visitVarInsn(ILOAD, step);
+    mv.visitJumpInsn(IFLT, negative);
+    mv.visitVarInsn(ILOAD, index);
+    mv.visitVarInsn(ILOAD, end);
+    mv.visitJumpInsn(IF_ICMPGE, loopEnd);
+    context.goTo(body);
+    mv.visitLabel(negative);
+    mv.visitVarInsn(ILOAD, index);
+    mv.visitVarInsn(ILOAD, end);
+    mv.visitJumpInsn(IF_ICMPLE, loopEnd);
+    context.goTo(body);
+    mv.visitLabel(longCondition);
+    mv.visitVarInsn(LLOAD, longStep);
+    mv.visitInsn(LCONST_0);
+    mv.visitInsn(LCMP);
+    mv.visitJumpInsn(IFEQ, genericCondition);
+    mv.visitVarInsn(LLOAD, longStep);
+    mv.visitInsn(LCONST_0);
+    mv.visitInsn(LCMP);
+    mv.visitJumpInsn(IFLT, longNegative);
+    mv.visitVarInsn(LLOAD, longIndex);
+    mv.visitVarInsn(LLOAD, longEnd);
+    mv.visitInsn(LCMP);
+    mv.visitJumpInsn(IFGE, loopEnd);
+    context.goTo(body);
+    mv.visitLabel(longNegative);
+    mv.visitVarInsn(LLOAD, longIndex);
+    mv.visitVarInsn(LLOAD, longEnd);
+    mv.visitInsn(LCMP);
+    mv.visitJumpInsn(IFLE, loopEnd);
+    context.goTo(body);
+    mv.visitLabel(genericCondition);
+    loopStatement.condition().accept(this);
+    asmBooleanValue();
+    mv.visitJumpInsn(IFEQ, loopEnd);
+
+    mv.visitLabel(body);
+    context.forEachCounters.put(counters[0].getName(), counters);
+    loopStatement.getBlock().accept(this);
+    context.forEachCounters.remove(counters[0].getName());
+    context.goTo(loopStart);
+    mv.visitLabel(loopEnd);
+  }
+
+  private LocalReference[] forEachCountersOf(BinaryOperation operation) {
+    if (operation.getType() == OperatorType.METHOD_CALL
+        && operation.left() instanceof ReferenceLookup
+        && operation.right() instanceof MethodInvocation) {
+      MethodInvocation invocation = (MethodInvocation) operation.right();
+      if ("next".equals(invocation.getName()) && invocation.getArity() == 0) {
+        return context.forEachCounters.get(((ReferenceLookup) operation.left()).getName());
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Generates the {@code next} invocation on the iterator of a {@code foreach} loop.
+   * <p>
+   * With a range, the iterator reference is {@code null} and the value is the boxed index, or the boxed long index
+   * for a long range. With an object array, the
+   * value is the indexed element. With a primitive array, the iterator reference holds the accessor given by
+   * {@code ForEachHelper.counted} at the loop start, that boxes the indexed element.
+   */
+  private void forEachNext(BinaryOperation operation, LocalReference[] counters) {
+    MethodVisitor mv = context.currentMethodVisitor;
+    int iterator = counters[0].getIndex();
+    int index = counters[1].getIndex();
+    int step = counters[3].getIndex();
+    int longIndex = counters[4].getIndex();
+    int longStep = counters[6].getIndex();
+    Label generic = new Label();
+    Label longRange = new Label();
+    Label array = new Label();
+    Label primitiveArray = new Label();
+    Label advance = new Label();
+    Label exit = new Label();
+    mv.visitVarInsn(ILOAD, step);
+    mv.visitJumpInsn(IFEQ, longRange);
+    context.loadObject(iterator);
+    mv.visitJumpInsn(IFNONNULL, array);
+    mv.visitVarInsn(ILOAD, index);
+    mv.visitMethodInsn(INVOKESTATIC, "java/lang/Integer", "valueOf", "(I)Ljava/lang/Integer;", false);
+    context.goTo(advance);
+    mv.visitLabel(array);
+    context.loadObject(iterator);
+    mv.visitTypeInsn(INSTANCEOF, "[Ljava/lang/Object;");
+    mv.visitJumpInsn(IFEQ, primitiveArray);
+    context.loadObject(iterator);
+    mv.visitTypeInsn(CHECKCAST, "[Ljava/lang/Object;");
+    mv.visitVarInsn(ILOAD, index);
+    mv.visitInsn(AALOAD);
+    context.goTo(advance);
+    mv.visitLabel(primitiveArray);
+    context.loadObject(iterator);
+    mv.visitTypeInsn(CHECKCAST, "org/eclipse/golo/runtime/ForEachHelper$PrimitiveElements");
+    mv.visitVarInsn(ILOAD, index);
+    mv.visitMethodInsn(INVOKEVIRTUAL, "org/eclipse/golo/runtime/ForEachHelper$PrimitiveElements", "get", "(I)Ljava/lang/Object;", false);
+    mv.visitLabel(advance);
+    mv.visitVarInsn(ILOAD, index);
+    mv.visitVarInsn(ILOAD, step);
+    mv.visitInsn(IADD);
+    mv.visitVarInsn(ISTORE, index);
+    context.goTo(exit);
+    mv.visitLabel(longRange);
+    mv.visitVarInsn(LLOAD, longStep);
+    mv.visitInsn(LCONST_0);
+    mv.visitInsn(LCMP);
+    mv.visitJumpInsn(IFEQ, generic);
+    mv.visitVarInsn(LLOAD, longIndex);
+    mv.visitMethodInsn(INVOKESTATIC, "java/lang/Long", "valueOf", "(J)Ljava/lang/Long;", false);
+    mv.visitVarInsn(LLOAD, longIndex);
+    mv.visitVarInsn(LLOAD, longStep);
+    mv.visitInsn(LADD);
+    mv.visitVarInsn(LSTORE, longIndex);
+    context.goTo(exit);
+    mv.visitLabel(generic);
+    operation.walk(this);
+    mv.visitLabel(exit);
+  }
+
   @Override
   public void visitLoopBreakFlowStatement(LoopBreakFlowStatement loopBreakFlowStatement) {
     Label jumpTarget;
@@ -892,43 +1433,29 @@ final class JavaBytecodeGenerationGoloIrVisitor implements GoloIrVisitor {
     final boolean isVarArgs = target.isVarargs();
     final int arity = isVarArgs ? target.getArity() - 1 : target.getArity();
     final int syntheticCount = target.getSyntheticParameterCount();
-    context.currentMethodVisitor.visitInvokeDynamicInsn(
-        target.getName(),
-        methodType(FunctionReference.class).toMethodDescriptorString(),
-        CLOSUREREF_HANDLE,
-        klass,
-        (Integer) arity,
-        (Boolean) isVarArgs);
     if (syntheticCount > 0) {
       String[] refs = closureReference.getCapturedReferenceNames().toArray(new String[syntheticCount]);
-      loadInteger(context.currentMethodVisitor, 0);
-      loadInteger(context.currentMethodVisitor, syntheticCount);
-      context.currentMethodVisitor.visitTypeInsn(ANEWARRAY, JOBJECT);
       ReferenceTable table = context.referenceTableStack.peek();
       for (int i = 0; i < syntheticCount; i++) {
-        context.currentMethodVisitor.visitInsn(DUP);
-        loadInteger(context.currentMethodVisitor, i);
         context.loadObject(table.get(refs[i]).getIndex());
-        context.currentMethodVisitor.visitInsn(AASTORE);
-      }
-      context.currentMethodVisitor.visitMethodInsn(
-          INVOKEVIRTUAL,
-          "gololang/FunctionReference",
-          "insertArguments",
-          "(I[Ljava/lang/Object;)Lgololang/FunctionReference;", false);
-      if (isVarArgs) {
-        context.currentMethodVisitor.visitLdcInsn(Type.getType(Object[].class));
-        context.currentMethodVisitor.visitMethodInsn(
-            INVOKEVIRTUAL,
-            "gololang/FunctionReference",
-            "asVarargsCollector",
-            "(Ljava/lang/Class;)Lgololang/FunctionReference;", false);
       }
     }
+    context.currentMethodVisitor.visitInvokeDynamicInsn(
+        target.getName(),
+        genericMethodType(syntheticCount).changeReturnType(FunctionReference.class).toMethodDescriptorString(),
+        CLOSUREREF_HANDLE,
+        klass,
+        (Integer) arity,
+        (Boolean) isVarArgs);
   }
 
   @Override
   public void visitBinaryOperation(BinaryOperation binaryOperation) {
+    LocalReference[] counters = forEachCountersOf(binaryOperation);
+    if (counters != null) {
+      forEachNext(binaryOperation, counters);
+      return;
+    }
     switch (binaryOperation.getType()) {
       case AND:
         andOperator(binaryOperation);
@@ -939,6 +1466,12 @@ final class JavaBytecodeGenerationGoloIrVisitor implements GoloIrVisitor {
       case ORIFNULL:
         orIfNullOperator(binaryOperation);
         break;
+      case PLUS:
+        if (!stringConcatenation(binaryOperation)) {
+          binaryOperation.walk(this);
+          genericBinaryOperator(binaryOperation);
+        }
+        break;
       default:
         binaryOperation.walk(this);
         genericBinaryOperator(binaryOperation);
@@ -952,20 +1485,70 @@ final class JavaBytecodeGenerationGoloIrVisitor implements GoloIrVisitor {
     }
   }
 
+  /**
+   * Generates a chain of {@code +} operations starting with a string literal as a single concatenation.
+   * <p>
+   * Since the result of {@code +} is a string as soon as one of its operands is, every operation of a chain like
+   * {@code "a" + x + "b" + y} is a string concatenation. The literal strings are put in the recipe, and the other
+   * operands are given to the invocation, avoiding the intermediate strings and the operator dispatch.
+   * <p>
+   * A method takes at most 255 arguments, so a chain with more than {@value #MAX_CONCATENATION_ARGUMENTS} other
+   * operands is split in several invocations, each one taking the string given by the previous one as first operand.
+   *
+   * @return {@code false} if the operation is not such a chain.
+   */
+  private boolean stringConcatenation(BinaryOperation binaryOperation) {
+    LinkedList<ExpressionStatement<?>> operands = new LinkedList<>();
+    ExpressionStatement<?> current = binaryOperation;
+    while (current instanceof BinaryOperation && ((BinaryOperation) current).getType() == OperatorType.PLUS) {
+      operands.addFirst(((BinaryOperation) current).right());
+      current = ((BinaryOperation) current).left();
+    }
+    if (!(current instanceof ConstantStatement && ((ConstantStatement) current).value() instanceof String)) {
+      return false;
+    }
+    operands.addFirst(current);
+    StringBuilder recipe = new StringBuilder();
+    int arity = 0;
+    for (ExpressionStatement<?> operand : operands) {
+      Object value = operand instanceof ConstantStatement ? ((ConstantStatement) operand).value() : null;
+      if (value instanceof String && !hasRecipeTags((String) value)) {
+        recipe.append((String) value);
+      } else {
+        if (arity == MAX_CONCATENATION_ARGUMENTS) {
+          concatenate(recipe, arity);
+          recipe.setLength(0);
+          recipe.append(StringConcatenationSupport.ARGUMENT);
+          arity = 1;
+        }
+        operand.accept(this);
+        recipe.append(StringConcatenationSupport.ARGUMENT);
+        arity++;
+      }
+    }
+    concatenate(recipe, arity);
+    return true;
+  }
+
+  private void concatenate(CharSequence recipe, int arity) {
+    context.currentMethodVisitor.visitInvokeDynamicInsn("concat",
+        genericMethodType(arity).changeReturnType(String.class).toMethodDescriptorString(),
+        STRING_CONCATENATION_HANDLE, recipe.toString());
+  }
+
+  private static boolean hasRecipeTags(String value) {
+    return value.indexOf(StringConcatenationSupport.ARGUMENT) >= 0
+      || value.indexOf(StringConcatenationSupport.CONSTANT) >= 0;
+  }
+
   private void orIfNullOperator(BinaryOperation binaryOperation) {
-    int idx = context.referenceTableStack.peek().size();
-    Label nullLabel = new Label();
     Label exitLabel = new Label();
     binaryOperation.left().accept(this);
-    context.storeObject(idx);
-    context.loadObject(idx);
-    context.currentMethodVisitor.visitJumpInsn(IFNULL, nullLabel);
-    context.goTo(exitLabel);
-    context.currentMethodVisitor.visitLabel(nullLabel);
+    context.currentMethodVisitor.visitInsn(DUP);
+    context.currentMethodVisitor.visitJumpInsn(IFNONNULL, exitLabel);
+    context.currentMethodVisitor.visitInsn(POP);
     binaryOperation.right().accept(this);
-    context.storeObject(idx);
     context.currentMethodVisitor.visitLabel(exitLabel);
-    context.loadObject(idx);
   }
 
   private void orOperator(BinaryOperation binaryOperation) {
@@ -1008,6 +1591,16 @@ final class JavaBytecodeGenerationGoloIrVisitor implements GoloIrVisitor {
     context.currentMethodVisitor.visitFieldInsn(GETSTATIC, "java/lang/Boolean", "TRUE", "Ljava/lang/Boolean;");
   }
 
+  private void asmIntValue() {
+    context.currentMethodVisitor.visitTypeInsn(CHECKCAST, "java/lang/Integer");
+    context.currentMethodVisitor.visitMethodInsn(INVOKEVIRTUAL, "java/lang/Integer", "intValue", "()I", false);
+  }
+
+  private void asmLongValue() {
+    context.currentMethodVisitor.visitTypeInsn(CHECKCAST, "java/lang/Long");
+    context.currentMethodVisitor.visitMethodInsn(INVOKEVIRTUAL, "java/lang/Long", "longValue", "()J", false);
+  }
+
   private void asmBooleanValue() {
     context.currentMethodVisitor.visitTypeInsn(CHECKCAST, "java/lang/Boolean");
     context.currentMethodVisitor.visitMethodInsn(INVOKEVIRTUAL, "java/lang/Boolean", "booleanValue", "()Z", false);
@@ -12,14 +12,22 @@ package org.eclipse.golo.compiler;
 
 import gololang.ir.Struct;
 import gololang.ir.Member;
+import gololang.JSONWriter;
 import org.objectweb.asm.ClassWriter;
 import org.objectweb.asm.FieldVisitor;
 import org.objectweb.asm.Label;
 import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Type;
+
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 
 import static org.eclipse.golo.compiler.JavaBytecodeUtils.loadInteger;
 import static org.eclipse.golo.compiler.JavaBytecodeUtils.deprecatedFlag;
 import static org.eclipse.golo.compiler.JavaBytecodeUtils.addAnnotations;
+import static org.eclipse.golo.compiler.JavaBytecodeUtils.stringSwitch;
 import static org.objectweb.asm.ClassWriter.COMPUTE_FRAMES;
 import static org.objectweb.asm.ClassWriter.COMPUTE_MAXS;
 import static org.objectweb.asm.Opcodes.*;
@@ -29,6 +37,7 @@ import static gololang.ir.Struct.IMMUTABLE_FACTORY_METHOD;
 class JavaBytecodeStructGenerator {
 
   private static final String $_frozen = "$_frozen";
+  private static final String $_members = "$_members";
 
   public CodeGenerationResult compile(Struct struct, String sourceFilename) {
     ClassWriter classWriter = new ClassWriter(COMPUTE_FRAMES | COMPUTE_MAXS);
@@ -48,28 +57,120 @@ class JavaBytecodeStructGenerator {
     makeToArrayMethod(classWriter, struct);
     makeGetMethod(classWriter, struct);
     makeSetMethod(classWriter, struct);
+    makeMemberIndexMethod(classWriter, struct);
+    makeIndexedGetMethod(classWriter, struct);
+    makeIndexedSetMethod(classWriter, struct);
+    makeMembersTable(classWriter, struct);
+    makeWriteJson(classWriter, struct);
+    makeFromJson(classWriter, struct);
     classWriter.visitEnd();
     return new CodeGenerationResult(classWriter.toByteArray(), struct.getPackageAndClass(), sourceFilename);
   }
 
+  private void makeWriteJson(ClassWriter classWriter, Struct struct) {
+    String owner = struct.getPackageAndClass().toJVMType();
+    MethodVisitor visitor = classWriter.visitMethod(ACC_PUBLIC, "writeJson", "(Ljava/lang/Appendable;)Ljava/lang/Appendable;", null, null);
+    visitor.visitCode();
+    visitor.visitVarInsn(ALOAD, 1);
+    visitor.visitMethodInsn(INVOKESTATIC, "gololang/JSONWriter", "of", "(Ljava/lang/Appendable;)Lgololang/JSONWriter;", false);
+    String separator = "{";
+    for (Member member : struct.getPublicMembers()) {
+      visitor.visitLdcInsn(separator + JSONWriter.stringify(member.getName()) + ":");
+      visitor.visitMethodInsn(INVOKEVIRTUAL, "gololang/JSONWriter", "raw", "(Ljava/lang/String;)Lgololang/JSONWriter;", false);
+      visitor.visitVarInsn(ALOAD, 0);
+      loadMember(visitor, owner, member);
+      visitor.visitMethodInsn(INVOKEVIRTUAL, "gololang/JSONWriter", "write", "(Ljava/lang/Object;)Lgololang/JSONWriter;", false);
+      separator = ",";
+    }
+    visitor.visitLdcInsn("{".equals(separator) ? "{}" : "}");
+    visitor.visitMethodInsn(INVOKEVIRTUAL, "gololang/JSONWriter", "raw", "(Ljava/lang/String;)Lgololang/JSONWriter;", false);
+    visitor.visitInsn(POP);
+    visitor.visitVarInsn(ALOAD, 1);
+    visitor.visitInsn(ARETURN);
+    visitor.visitMaxs(0, 0);
+    visitor.visitEnd();
+  }
+
+  private void makeFromJson(ClassWriter classWriter, Struct struct) {
+    String owner = struct.getPackageAndClass().toJVMType();
+    MethodVisitor visitor = classWriter.visitMethod(ACC_PUBLIC | ACC_STATIC, "fromJson", "(Lgololang/JSONParser;)L" + owner + ";", null, null);
+    visitor.visitParameter("parser", ACC_FINAL);
+    visitor.visitCode();
+    visitor.visitTypeInsn(NEW, owner);
+    visitor.visitInsn(DUP);
+    visitor.visitMethodInsn(INVOKESPECIAL, owner, "<init>", "()V", false);
+    visitor.visitVarInsn(ASTORE, 1);
+    visitor.visitVarInsn(ALOAD, 0);
+    visitor.visitMethodInsn(INVOKEVIRTUAL, "gololang/JSONParser", "beginObject", "()Lgololang/JSONParser;", false);
+    visitor.visitInsn(POP);
+    Label loop = new Label();
+    Label end = new Label();
+    Label skip = new Label();
+    visitor.visitLabel(loop);
+    visitor.visitVarInsn(ALOAD, 0);
+    visitor.visitMethodInsn(INVOKEVIRTUAL, "gololang/JSONParser", "nextKey", "()Z", false);
+    visitor.visitJumpInsn(IFEQ, end);
+    visitor.visitVarInsn(ALOAD, 0);
+    visitor.visitMethodInsn(INVOKEVIRTUAL, "gololang/JSONParser", "string", "()Ljava/lang/String;", false);
+    visitor.visitVarInsn(ASTORE, 2);
+    visitor.visitVarInsn(ALOAD, 0);
+    visitor.visitMethodInsn(INVOKEVIRTUAL, "gololang/JSONParser", "next", "()Lgololang/JSONParser$Event;", false);
+    visitor.visitInsn(POP);
+    List<String> names = new ArrayList<>();
+    for (Member member : struct.getPublicMembers()) {
+      names.add(member.getName());
+    }
+    Label[] cases = new Label[names.size()];
+    for (int i = 0; i < cases.length; i++) {
+      cases[i] = new Label();
+    }
+    stringSwitch(visitor, 2, names, cases, skip);
+    int i = 0;
+    for (Member member : struct.getPublicMembers()) {
+      visitor.visitLabel(cases[i++]);
+      visitor.visitVarInsn(ALOAD, 1);
+      visitor.visitVarInsn(ALOAD, 0);
+      visitor.visitMethodInsn(INVOKEVIRTUAL, "gololang/JSONParser", "readValue", "()Ljava/lang/Object;", false);
+      if (member.isTyped()) {
+        // A JSON null leaves the default value of a primitive-typed member, as a missing entry does
+        Label store = new Label();
+        visitor.visitInsn(DUP);
+        visitor.visitJumpInsn(IFNONNULL, store);
+        visitor.visitInsn(POP2);
+        visitor.visitJumpInsn(GOTO, loop);
+        visitor.visitLabel(store);
+      }
+      storeMember(visitor, owner, member);
+      visitor.visitJumpInsn(GOTO, loop);
+    }
+    visitor.visitLabel(skip);
+    visitor.visitVarInsn(ALOAD, 0);
+    visitor.visitMethodInsn(INVOKEVIRTUAL, "gololang/JSONParser", "skipValue", "()Lgololang/JSONParser;", false);
+    visitor.visitInsn(POP);
+    visitor.visitJumpInsn(GOTO, loop);
+    visitor.visitLabel(end);
+    visitor.visitVarInsn(ALOAD, 1);
+    visitor.visitInsn(ARETURN);
+    visitor.visitMaxs(0, 0);
+    visitor.visitEnd();
+  }
+
   private void makeSetMethod(ClassWriter classWriter, Struct struct) {
     String owner = struct.getPackageAndClass().toJVMType();
     MethodVisitor visitor = classWriter.visitMethod(ACC_PUBLIC, "set", "(Ljava/lang/String;Ljava/lang/Object;)L" + owner + ";", null, null);
     visitor.visitCode();
     insertPrivateElementCheck(struct, visitor);
-    Label nextCase = new Label();
+    Label unknown = new Label();
+    Label[] cases = memberSwitch(visitor, struct.getMembers(), unknown);
+    int i = 0;
     for (Member member : struct.getMembers()) {
-      visitor.visitLdcInsn(member.getName());
-      visitor.visitVarInsn(ALOAD, 1);
-      visitor.visitMethodInsn(INVOKEVIRTUAL, "java/lang/String", "equals", "(Ljava/lang/Object;)Z", false);
-      visitor.visitJumpInsn(IFEQ, nextCase);
+      visitor.visitLabel(cases[i++]);
       visitor.visitVarInsn(ALOAD, 0);
       visitor.visitVarInsn(ALOAD, 2);
       visitor.visitMethodInsn(INVOKEVIRTUAL, owner, member.getName(), "(Ljava/lang/Object;)L" + owner + ";", false);
       visitor.visitInsn(ARETURN);
-      visitor.visitLabel(nextCase);
-      nextCase = new Label();
     }
+    visitor.visitLabel(unknown);
     insertUnknowElementCode(struct, visitor);
     visitor.visitMaxs(0, 0);
     visitor.visitEnd();
@@ -80,23 +181,116 @@ class JavaBytecodeStructGenerator {
     MethodVisitor visitor = classWriter.visitMethod(ACC_PUBLIC, "get", "(Ljava/lang/String;)Ljava/lang/Object;", null, null);
     visitor.visitCode();
     insertPrivateElementCheck(struct, visitor);
-    Label nextCase = new Label();
+    Label unknown = new Label();
+    Label[] cases = memberSwitch(visitor, struct.getMembers(), unknown);
+    int i = 0;
     for (Member member : struct.getMembers()) {
-      visitor.visitLdcInsn(member.getName());
-      visitor.visitVarInsn(ALOAD, 1);
-      visitor.visitMethodInsn(INVOKEVIRTUAL, "java/lang/String", "equals", "(Ljava/lang/Object;)Z", false);
-      visitor.visitJumpInsn(IFEQ, nextCase);
+      visitor.visitLabel(cases[i++]);
       visitor.visitVarInsn(ALOAD, 0);
       visitor.visitMethodInsn(INVOKEVIRTUAL, owner, member.getName(), "()Ljava/lang/Object;", false);
       visitor.visitInsn(ARETURN);
-      visitor.visitLabel(nextCase);
-      nextCase = new Label();
     }
+    visitor.visitLabel(unknown);
     insertUnknowElementCode(struct, visitor);
     visitor.visitMaxs(0, 0);
     visitor.visitEnd();
   }
 
+  private void makeMemberIndexMethod(ClassWriter classWriter, Struct struct) {
+    MethodVisitor visitor = classWriter.visitMethod(ACC_PUBLIC, "memberIndex", "(Ljava/lang/String;)I", null, null);
+    visitor.visitCode();
+    Label unknown = new Label();
+    Label[] cases = memberSwitch(visitor, struct.getPublicMembers(), unknown);
+    for (int i = 0; i < cases.length; i++) {
+      visitor.visitLabel(cases[i]);
+      loadInteger(visitor, i);
+      visitor.visitInsn(IRETURN);
+    }
+    visitor.visitLabel(unknown);
+    visitor.visitInsn(ICONST_M1);
+    visitor.visitInsn(IRETURN);
+    visitor.visitMaxs(0, 0);
+    visitor.visitEnd();
+  }
+
+  /*
+   * Emits a hash code switch on the member name held by the first argument, and gives the labels of the cases, in the
+   * order of the members.
+   */
+  private Label[] memberSwitch(MethodVisitor visitor, Collection<Member> members, Label unknown) {
+    List<String> names = new ArrayList<>(members.size());
+    for (Member member : members) {
+      names.add(member.getName());
+    }
+    Label[] cases = new Label[names.size()];
+    for (int i = 0; i < cases.length; i++) {
+      cases[i] = new Label();
+    }
+    stringSwitch(visitor, 1, names, cases, unknown);
+    return cases;
+  }
+
+  private void makeIndexedGetMethod(ClassWriter classWriter, Struct struct) {
+    String owner = struct.getPackageAndClass().toJVMType();
+    MethodVisitor visitor = classWriter.visitMethod(ACC_PUBLIC, "get", "(I)Ljava/lang/Object;", null, null);
+    visitor.visitCode();
+    Label outOfBounds = new Label();
+    Label[] cases = indexSwitch(visitor, struct, outOfBounds);
+    int i = 0;
+    for (Member member : struct.getPublicMembers()) {
+      visitor.visitLabel(cases[i++]);
+      visitor.visitVarInsn(ALOAD, 0);
+      visitor.visitMethodInsn(INVOKEVIRTUAL, owner, member.getName(), "()Ljava/lang/Object;", false);
+      visitor.visitInsn(ARETURN);
+    }
+    visitor.visitLabel(outOfBounds);
+    insertOutOfBoundsCode(visitor);
+    visitor.visitMaxs(0, 0);
+    visitor.visitEnd();
+  }
+
+  private void makeIndexedSetMethod(ClassWriter classWriter, Struct struct) {
+    String owner = struct.getPackageAndClass().toJVMType();
+    MethodVisitor visitor = classWriter.visitMethod(ACC_PUBLIC, "set", "(ILjava/lang/Object;)L" + owner + ";", null, null);
+    visitor.visitCode();
+    Label outOfBounds = new Label();
+    Label[] cases = indexSwitch(visitor, struct, outOfBounds);
+    int i = 0;
+    for (Member member : struct.getPublicMembers()) {
+      visitor.visitLabel(cases[i++]);
+      visitor.visitVarInsn(ALOAD, 0);
+      visitor.visitVarInsn(ALOAD, 2);
+      visitor.visitMethodInsn(INVOKEVIRTUAL, owner, member.getName(), "(Ljava/lang/Object;)L" + owner + ";", false);
+      visitor.visitInsn(ARETURN);
+    }
+    visitor.visitLabel(outOfBounds);
+    insertOutOfBoundsCode(visitor);
+    visitor.visitMaxs(0, 0);
+    visitor.visitEnd();
+  }
+
+  private Label[] indexSwitch(MethodVisitor visitor, Struct struct, Label outOfBounds) {
+    Label[] cases = new Label[struct.getPublicMembers().size()];
+    for (int i = 0; i < cases.length; i++) {
+      cases[i] = new Label();
+    }
+    if (cases.length == 0) {
+      visitor.visitJumpInsn(GOTO, outOfBounds);
+    } else {
+      visitor.visitVarInsn(ILOAD, 1);
+      visitor.visitTableSwitchInsn(0, cases.length - 1, outOfBounds, cases);
+    }
+    return cases;
+  }
+
+  private void insertOutOfBoundsCode(MethodVisitor visitor) {
+    visitor.visitTypeInsn(NEW, "java/lang/IndexOutOfBoundsException");
+    visitor.visitInsn(DUP);
+    visitor.visitVarInsn(ILOAD, 1);
+    visitor.visitMethodInsn(INVOKESPECIAL, "java/lang/IndexOutOfBoundsException", "<init>", "(I)V", false);
+    visitor.visitInsn(ATHROW);
+  }
+
   private void throwLocalized(MethodVisitor visitor, String exceptionType, String message, String structName) {
     visitor.visitTypeInsn(NEW, exceptionType);
     visitor.visitInsn(DUP);
@@ -137,7 +331,7 @@ class JavaBytecodeStructGenerator {
       visitor.visitInsn(DUP);
       loadInteger(visitor, index);
       visitor.visitVarInsn(ALOAD, 0);
-      visitor.visitFieldInsn(GETFIELD, owner, member.getName(), "Ljava/lang/Object;");
+      loadMember(visitor, owner, member);
       visitor.visitInsn(AASTORE);
       index++;
     }
@@ -176,10 +370,10 @@ class JavaBytecodeStructGenerator {
     // The argument is not frozen
     for (Member member : struct.getMembers()) {
       visitor.visitVarInsn(ALOAD, 0);
-      visitor.visitFieldInsn(GETFIELD, owner, member.getName(), "Ljava/lang/Object;");
+      loadMember(visitor, owner, member);
       visitor.visitVarInsn(ALOAD, 1);
       visitor.visitTypeInsn(CHECKCAST, owner);
-      visitor.visitFieldInsn(GETFIELD, owner, member.getName(), "Ljava/lang/Object;");
+      loadMember(visitor, owner, member);
       visitor.visitMethodInsn(INVOKESTATIC, "java/util/Objects", "equals", "(Ljava/lang/Object;Ljava/lang/Object;)Z", false);
       visitor.visitJumpInsn(IFEQ, falseLabel);
     }
@@ -214,7 +408,7 @@ class JavaBytecodeStructGenerator {
       visitor.visitInsn(DUP);
       loadInteger(visitor, i);
       visitor.visitVarInsn(ALOAD, 0);
-      visitor.visitFieldInsn(GETFIELD, owner, member.getName(), "Ljava/lang/Object;");
+      loadMember(visitor, owner, member);
       visitor.visitInsn(AASTORE);
       i++;
     }
@@ -233,7 +427,7 @@ class JavaBytecodeStructGenerator {
     visitor.visitInsn(DUP);
     for (Member member : struct.getMembers()) {
       visitor.visitVarInsn(ALOAD, 0);
-      visitor.visitFieldInsn(GETFIELD, owner, member.getName(), "Ljava/lang/Object;");
+      loadMember(visitor, owner, member);
     }
     visitor.visitMethodInsn(INVOKESPECIAL, owner, "<init>", allArgsConstructorSignature(struct), false);
     visitor.visitInsn(DUP);
@@ -260,7 +454,7 @@ class JavaBytecodeStructGenerator {
       visitor.visitMethodInsn(INVOKEVIRTUAL, "java/lang/StringBuilder", "append", "(Ljava/lang/String;)Ljava/lang/StringBuilder;", false);
       visitor.visitInsn(DUP);
       visitor.visitVarInsn(ALOAD, 0);
-      visitor.visitFieldInsn(GETFIELD, owner, member.getName(), "Ljava/lang/Object;");
+      loadMember(visitor, owner, member);
       visitor.visitMethodInsn(INVOKEVIRTUAL, "java/lang/StringBuilder", "append", "(Ljava/lang/Object;)Ljava/lang/StringBuilder;", false);
     }
     visitor.visitLdcInsn("}");
@@ -290,7 +484,7 @@ class JavaBytecodeStructGenerator {
     for (Member member : struct.getMembers()) {
       visitor.visitVarInsn(ALOAD, 0);
       visitor.visitVarInsn(ALOAD, arg);
-      visitor.visitFieldInsn(PUTFIELD, owner, member.getName(), "Ljava/lang/Object;");
+      storeMember(visitor, owner, member);
       arg++;
     }
     initMembersField(struct, owner, visitor);
@@ -326,19 +520,31 @@ class JavaBytecodeStructGenerator {
     visitor.visitEnd();
   }
 
-  private void initMembersField(Struct struct, String owner, MethodVisitor visitor) {
-    int arg;
-    visitor.visitVarInsn(ALOAD, 0);
+  private void makeMembersTable(ClassWriter classWriter, Struct struct) {
+    String owner = struct.getPackageAndClass().toJVMType();
+    classWriter.visitField(ACC_PRIVATE | ACC_STATIC | ACC_FINAL | ACC_SYNTHETIC, $_members, "[Ljava/lang/String;", null, null).visitEnd();
+    MethodVisitor visitor = classWriter.visitMethod(ACC_STATIC, "<clinit>", "()V", null, null);
+    visitor.visitCode();
     loadInteger(visitor, struct.getPublicMembers().size());
     visitor.visitTypeInsn(ANEWARRAY, "java/lang/String");
-    arg = 0;
+    int index = 0;
     for (Member member : struct.getPublicMembers()) {
       visitor.visitInsn(DUP);
-      loadInteger(visitor, arg);
+      loadInteger(visitor, index);
       visitor.visitLdcInsn(member.getName());
       visitor.visitInsn(AASTORE);
-      arg++;
+      index++;
     }
+    visitor.visitFieldInsn(PUTSTATIC, owner, $_members, "[Ljava/lang/String;");
+    visitor.visitInsn(RETURN);
+    visitor.visitMaxs(0, 0);
+    visitor.visitEnd();
+  }
+
+  private void initMembersField(Struct struct, String owner, MethodVisitor visitor) {
+    // The member names table is shared by all the instances
+    visitor.visitVarInsn(ALOAD, 0);
+    visitor.visitFieldInsn(GETSTATIC, owner, $_members, "[Ljava/lang/String;");
     visitor.visitFieldInsn(PUTFIELD, owner, "members", "[Ljava/lang/String;");
   }
 
@@ -370,10 +576,46 @@ class JavaBytecodeStructGenerator {
     visitor.visitEnd();
   }
 
+  /*
+   * Loads the value of a member of the object on the top of the stack, boxing it if the member is typed.
+   */
+  private void loadMember(MethodVisitor visitor, String owner, Member member) {
+    Class<?> type = member.getType();
+    visitor.visitFieldInsn(GETFIELD, owner, member.getName(), Type.getDescriptor(type));
+    if (member.isTyped()) {
+      Type boxed = Type.getType(boxedType(type));
+      visitor.visitMethodInsn(INVOKESTATIC, boxed.getInternalName(), "valueOf",
+          "(" + Type.getDescriptor(type) + ")" + boxed.getDescriptor(), false);
+    }
+  }
+
+  /*
+   * Stores the object on the top of the stack in a member of the object below it, unboxing it if the member is typed.
+   * Any number can be stored in a numeric member.
+   */
+  private void storeMember(MethodVisitor visitor, String owner, Member member) {
+    Class<?> type = member.getType();
+    if (type == boolean.class) {
+      visitor.visitTypeInsn(CHECKCAST, "java/lang/Boolean");
+      visitor.visitMethodInsn(INVOKEVIRTUAL, "java/lang/Boolean", "booleanValue", "()Z", false);
+    } else if (type == char.class) {
+      visitor.visitTypeInsn(CHECKCAST, "java/lang/Character");
+      visitor.visitMethodInsn(INVOKEVIRTUAL, "java/lang/Character", "charValue", "()C", false);
+    } else if (member.isTyped()) {
+      visitor.visitTypeInsn(CHECKCAST, "java/lang/Number");
+      visitor.visitMethodInsn(INVOKEVIRTUAL, "java/lang/Number", type.getName() + "Value", "()" + Type.getDescriptor(type), false);
+    }
+    visitor.visitFieldInsn(PUTFIELD, owner, member.getName(), Type.getDescriptor(type));
+  }
+
+  private static Class<?> boxedType(Class<?> type) {
+    return MethodType.methodType(type).wrap().returnType();
+  }
+
   private void makeFields(ClassWriter classWriter, Struct struct) {
     classWriter.visitField(ACC_PRIVATE | ACC_FINAL, $_frozen, "Z", null, null).visitEnd();
     for (Member member : struct.getMembers()) {
-      FieldVisitor fieldVisitor = classWriter.visitField(ACC_PRIVATE, member.getName(), "Ljava/lang/Object;", null, null);
+      FieldVisitor fieldVisitor = classWriter.visitField(ACC_PRIVATE, member.getName(), Type.getDescriptor(member.getType()), null, null);
       fieldVisitor.visitEnd();
     }
   }
@@ -381,8 +623,8 @@ class JavaBytecodeStructGenerator {
   private void makeAccessors(ClassWriter classWriter, Struct struct) {
     String owner = struct.getPackageAndClass().toJVMType();
     for (Member member : struct.getMembers()) {
-      makeGetter(classWriter, owner, member.getName());
-      makeSetter(classWriter, owner, member.getName(), struct);
+      makeGetter(classWriter, owner, member);
+      makeSetter(classWriter, owner, member, struct);
     }
     makeFrozenGetter(classWriter, owner);
   }
@@ -397,7 +639,8 @@ class JavaBytecodeStructGenerator {
     visitor.visitEnd();
   }
 
-  private void makeSetter(ClassWriter classWriter, String owner, String name, Struct struct) {
+  private void makeSetter(ClassWriter classWriter, String owner, Member member, Struct struct) {
+    String name = member.getName();
     int accessFlag = name.startsWith("_") ? ACC_PRIVATE : ACC_PUBLIC;
     MethodVisitor visitor = classWriter.visitMethod(accessFlag, name, "(Ljava/lang/Object;)L" + struct.getPackageAndClass().toJVMType() + ";", null, null);
     visitor.visitCode();
@@ -409,19 +652,20 @@ class JavaBytecodeStructGenerator {
     visitor.visitLabel(setLabel);
     visitor.visitVarInsn(ALOAD, 0);
     visitor.visitVarInsn(ALOAD, 1);
-    visitor.visitFieldInsn(PUTFIELD, owner, name, "Ljava/lang/Object;");
+    storeMember(visitor, owner, member);
     visitor.visitVarInsn(ALOAD, 0);
     visitor.visitInsn(ARETURN);
     visitor.visitMaxs(0, 0);
     visitor.visitEnd();
   }
 
-  private void makeGetter(ClassWriter classWriter, String owner, String name) {
+  private void makeGetter(ClassWriter classWriter, String owner, Member member) {
+    String name = member.getName();
     int accessFlag = name.startsWith("_") ? ACC_PRIVATE : ACC_PUBLIC;
     MethodVisitor visitor = classWriter.visitMethod(accessFlag, name, "()Ljava/lang/Object;", null, null);
     visitor.visitCode();
     visitor.visitVarInsn(ALOAD, 0);
-    visitor.visitFieldInsn(GETFIELD, owner, name, "Ljava/lang/Object;");
+    loadMember(visitor, owner, member);
     visitor.visitInsn(ARETURN);
     visitor.visitMaxs(0, 0);
     visitor.visitEnd();
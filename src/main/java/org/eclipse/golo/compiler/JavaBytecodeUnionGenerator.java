@@ -13,18 +13,22 @@ package org.eclipse.golo.compiler;
 import gololang.ir.Union;
 import gololang.ir.UnionValue;
 import gololang.ir.Member;
+import gololang.JSONWriter;
 import org.objectweb.asm.ClassWriter;
 import org.objectweb.asm.Label;
 import org.objectweb.asm.MethodVisitor;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
 
 import static org.eclipse.golo.compiler.JavaBytecodeUtils.loadInteger;
 import static org.eclipse.golo.compiler.JavaBytecodeUtils.deprecatedFlag;
 import static org.eclipse.golo.compiler.JavaBytecodeUtils.addAnnotations;
+import static org.eclipse.golo.compiler.JavaBytecodeUtils.stringSwitch;
 import static org.objectweb.asm.ClassWriter.COMPUTE_FRAMES;
 import static org.objectweb.asm.ClassWriter.COMPUTE_MAXS;
 import static org.objectweb.asm.Opcodes.*;
@@ -40,9 +44,10 @@ class JavaBytecodeUnionGenerator {
     addAnnotations(union, classWriter::visitAnnotation);
     makeDefaultConstructor(classWriter, "gololang/Union");
     HashMap<String, PackageAndClass> staticFields = new HashMap<>();
+    int ordinal = 0;
     for (UnionValue value : union.getValues()) {
       makeMatchlikeTestMethod(classWriter, value, false);
-      results.add(makeUnionValue(classWriter, sourceFilename, value));
+      results.add(makeUnionValue(classWriter, sourceFilename, value, ordinal++));
       if (value.hasMembers()) {
         makeStaticFactory(classWriter, value);
       } else {
@@ -50,6 +55,7 @@ class JavaBytecodeUnionGenerator {
       }
     }
     initStaticFields(classWriter, union.getPackageAndClass(), staticFields);
+    makeFromJson(classWriter, union);
     classWriter.visitEnd();
     results.addFirst(new CodeGenerationResult(classWriter.toByteArray(), union.getPackageAndClass(), sourceFilename));
     return results;
@@ -182,7 +188,7 @@ class JavaBytecodeUnionGenerator {
     visitor.visitEnd();
   }
 
-  private CodeGenerationResult makeUnionValue(ClassWriter parentClassWriter, String sourceFilename, UnionValue value) {
+  private CodeGenerationResult makeUnionValue(ClassWriter parentClassWriter, String sourceFilename, UnionValue value, int ordinal) {
     String unionType = value.getUnion().getPackageAndClass().toJVMType();
     String valueType = value.getPackageAndClass().toJVMType();
     ClassWriter classWriter = new ClassWriter(COMPUTE_FRAMES | COMPUTE_MAXS);
@@ -205,11 +211,157 @@ class JavaBytecodeUnionGenerator {
             value.getUnion().getPackageAndClass().toJVMRef(), null, null).visitEnd();
     }
     makeToString(classWriter, value);
+    makeOrdinal(classWriter, ordinal);
+    makeWriteJson(classWriter, value);
     makeMatchlikeTestMethod(classWriter, value, true);
     classWriter.visitEnd();
     return new CodeGenerationResult(classWriter.toByteArray(), value.getPackageAndClass(), sourceFilename);
   }
 
+  private void makeOrdinal(ClassWriter cw, int ordinal) {
+    MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, gololang.Union.ORDINAL, "()I", null, null);
+    mv.visitCode();
+    loadInteger(mv, ordinal);
+    mv.visitInsn(IRETURN);
+    mv.visitMaxs(0, 0);
+    mv.visitEnd();
+  }
+
+  private void makeWriteJson(ClassWriter cw, UnionValue value) {
+    MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "writeJson", "(Ljava/lang/Appendable;)Ljava/lang/Appendable;", null, null);
+    mv.visitCode();
+    mv.visitVarInsn(ALOAD, 1);
+    mv.visitMethodInsn(INVOKESTATIC, "gololang/JSONWriter", "of", "(Ljava/lang/Appendable;)Lgololang/JSONWriter;", false);
+    String prefix = "{" + JSONWriter.stringify(value.getName()) + ":{";
+    for (Member member : value.getMembers()) {
+      mv.visitLdcInsn(prefix + JSONWriter.stringify(member.getName()) + ":");
+      mv.visitMethodInsn(INVOKEVIRTUAL, "gololang/JSONWriter", "raw", "(Ljava/lang/String;)Lgololang/JSONWriter;", false);
+      mv.visitVarInsn(ALOAD, 0);
+      mv.visitFieldInsn(GETFIELD, value.getPackageAndClass().toJVMType(), member.getName(), "Ljava/lang/Object;");
+      mv.visitMethodInsn(INVOKEVIRTUAL, "gololang/JSONWriter", "write", "(Ljava/lang/Object;)Lgololang/JSONWriter;", false);
+      prefix = ",";
+    }
+    mv.visitLdcInsn(value.hasMembers() ? "}}" : prefix + "}}");
+    mv.visitMethodInsn(INVOKEVIRTUAL, "gololang/JSONWriter", "raw", "(Ljava/lang/String;)Lgololang/JSONWriter;", false);
+    mv.visitInsn(POP);
+    mv.visitVarInsn(ALOAD, 1);
+    mv.visitInsn(ARETURN);
+    mv.visitMaxs(0, 0);
+    mv.visitEnd();
+  }
+
+  private void makeFromJson(ClassWriter cw, Union union) {
+    // Locals: 0 = parser, 1 = value name, 2 = member name, 3.. = member values
+    String unionType = union.getPackageAndClass().toJVMType();
+    MethodVisitor mv = cw.visitMethod(ACC_PUBLIC | ACC_STATIC, "fromJson", "(Lgololang/JSONParser;)L" + unionType + ";", null, null);
+    mv.visitParameter("parser", ACC_FINAL);
+    mv.visitCode();
+    Label unknown = new Label();
+    mv.visitVarInsn(ALOAD, 0);
+    mv.visitMethodInsn(INVOKEVIRTUAL, "gololang/JSONParser", "beginObject", "()Lgololang/JSONParser;", false);
+    mv.visitMethodInsn(INVOKEVIRTUAL, "gololang/JSONParser", "nextKey", "()Z", false);
+    Label hasKey = new Label();
+    mv.visitJumpInsn(IFNE, hasKey);
+    mv.visitLdcInsn("");
+    mv.visitVarInsn(ASTORE, 1);
+    mv.visitJumpInsn(GOTO, unknown);
+    mv.visitLabel(hasKey);
+    mv.visitVarInsn(ALOAD, 0);
+    mv.visitMethodInsn(INVOKEVIRTUAL, "gololang/JSONParser", "string", "()Ljava/lang/String;", false);
+    mv.visitVarInsn(ASTORE, 1);
+    mv.visitVarInsn(ALOAD, 0);
+    mv.visitMethodInsn(INVOKEVIRTUAL, "gololang/JSONParser", "next", "()Lgololang/JSONParser$Event;", false);
+    mv.visitInsn(POP);
+    List<String> names = new ArrayList<>();
+    for (UnionValue value : union.getValues()) {
+      names.add(value.getName());
+    }
+    Label[] cases = new Label[names.size()];
+    for (int i = 0; i < cases.length; i++) {
+      cases[i] = new Label();
+    }
+    stringSwitch(mv, 1, names, cases, unknown);
+    int i = 0;
+    for (UnionValue value : union.getValues()) {
+      mv.visitLabel(cases[i++]);
+      readUnionValue(mv, value);
+      mv.visitVarInsn(ALOAD, 0);
+      mv.visitMethodInsn(INVOKEVIRTUAL, "gololang/JSONParser", "endObject", "()Lgololang/JSONParser;", false);
+      mv.visitInsn(POP);
+      mv.visitInsn(ARETURN);
+    }
+    mv.visitLabel(unknown);
+    mv.visitTypeInsn(NEW, "java/lang/IllegalArgumentException");
+    mv.visitInsn(DUP);
+    mv.visitLdcInsn("Unknown " + union.getPackageAndClass().className() + " value: ");
+    mv.visitVarInsn(ALOAD, 1);
+    mv.visitMethodInsn(INVOKEVIRTUAL, "java/lang/String", "concat", "(Ljava/lang/String;)Ljava/lang/String;", false);
+    mv.visitMethodInsn(INVOKESPECIAL, "java/lang/IllegalArgumentException", "<init>", "(Ljava/lang/String;)V", false);
+    mv.visitInsn(ATHROW);
+    mv.visitMaxs(0, 0);
+    mv.visitEnd();
+  }
+
+  private void readUnionValue(MethodVisitor mv, UnionValue value) {
+    String unionType = value.getUnion().getPackageAndClass().toJVMType();
+    if (!value.hasMembers()) {
+      mv.visitVarInsn(ALOAD, 0);
+      mv.visitMethodInsn(INVOKEVIRTUAL, "gololang/JSONParser", "skipValue", "()Lgololang/JSONParser;", false);
+      mv.visitInsn(POP);
+      mv.visitFieldInsn(GETSTATIC, unionType, value.getName(), value.getUnion().getPackageAndClass().toJVMRef());
+      return;
+    }
+    List<String> members = new ArrayList<>();
+    for (Member member : value.getMembers()) {
+      members.add(member.getName());
+    }
+    for (int i = 0; i < members.size(); i++) {
+      mv.visitInsn(ACONST_NULL);
+      mv.visitVarInsn(ASTORE, 3 + i);
+    }
+    Label loop = new Label();
+    Label end = new Label();
+    Label skip = new Label();
+    mv.visitVarInsn(ALOAD, 0);
+    mv.visitMethodInsn(INVOKEVIRTUAL, "gololang/JSONParser", "beginObject", "()Lgololang/JSONParser;", false);
+    mv.visitInsn(POP);
+    mv.visitLabel(loop);
+    mv.visitVarInsn(ALOAD, 0);
+    mv.visitMethodInsn(INVOKEVIRTUAL, "gololang/JSONParser", "nextKey", "()Z", false);
+    mv.visitJumpInsn(IFEQ, end);
+    mv.visitVarInsn(ALOAD, 0);
+    mv.visitMethodInsn(INVOKEVIRTUAL, "gololang/JSONParser", "string", "()Ljava/lang/String;", false);
+    mv.visitVarInsn(ASTORE, 2);
+    mv.visitVarInsn(ALOAD, 0);
+    mv.visitMethodInsn(INVOKEVIRTUAL, "gololang/JSONParser", "next", "()Lgololang/JSONParser$Event;", false);
+    mv.visitInsn(POP);
+    Label[] cases = new Label[members.size()];
+    for (int i = 0; i < cases.length; i++) {
+      cases[i] = new Label();
+    }
+    stringSwitch(mv, 2, members, cases, skip);
+    for (int i = 0; i < cases.length; i++) {
+      mv.visitLabel(cases[i]);
+      mv.visitVarInsn(ALOAD, 0);
+      mv.visitMethodInsn(INVOKEVIRTUAL, "gololang/JSONParser", "readValue", "()Ljava/lang/Object;", false);
+      mv.visitVarInsn(ASTORE, 3 + i);
+      mv.visitJumpInsn(GOTO, loop);
+    }
+    mv.visitLabel(skip);
+    mv.visitVarInsn(ALOAD, 0);
+    mv.visitMethodInsn(INVOKEVIRTUAL, "gololang/JSONParser", "skipValue", "()Lgololang/JSONParser;", false);
+    mv.visitInsn(POP);
+    mv.visitJumpInsn(GOTO, loop);
+    mv.visitLabel(end);
+    mv.visitTypeInsn(NEW, value.getPackageAndClass().toJVMType());
+    mv.visitInsn(DUP);
+    for (int i = 0; i < members.size(); i++) {
+      mv.visitVarInsn(ALOAD, 3 + i);
+    }
+    mv.visitMethodInsn(INVOKESPECIAL, value.getPackageAndClass().toJVMType(), "<init>",
+        argsSignature(members.size()) + "V", false);
+  }
+
   private void makeEquals(ClassWriter cw, UnionValue value) {
     String target = value.getPackageAndClass().toJVMType();
     MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "equals", "(Ljava/lang/Object;)Z", null, null);
@@ -14,7 +14,10 @@ import gololang.ir.GoloElement;
 import org.objectweb.asm.Label;
 import org.objectweb.asm.Type;
 import org.objectweb.asm.MethodVisitor;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 import gololang.Tuple;
 import java.util.function.BiFunction;
 import org.objectweb.asm.AnnotationVisitor;
@@ -59,6 +62,49 @@ final class JavaBytecodeUtils {
     }
   }
 
+  /**
+   * Emits a switch on the string stored in a local variable, the same way javac compiles string switches: a lookup
+   * switch on the string hash code, followed by equality checks for the cases sharing the same hash code.
+   *
+   * @param visitor the method visitor.
+   * @param stringVar the index of the local variable holding the (non-null) string.
+   * @param keys the distinct case strings.
+   * @param targets the labels to jump to, in the same order as the keys.
+   * @param defaultLabel the label to jump to when no key matches.
+   */
+  static void stringSwitch(MethodVisitor visitor, int stringVar, List<String> keys, Label[] targets, Label defaultLabel) {
+    if (keys.isEmpty()) {
+      visitor.visitJumpInsn(GOTO, defaultLabel);
+      return;
+    }
+    TreeMap<Integer, List<Integer>> buckets = new TreeMap<>();
+    for (int i = 0; i < keys.size(); i++) {
+      buckets.computeIfAbsent(keys.get(i).hashCode(), h -> new ArrayList<>()).add(i);
+    }
+    int[] hashes = new int[buckets.size()];
+    Label[] bucketLabels = new Label[buckets.size()];
+    int b = 0;
+    for (int hash : buckets.keySet()) {
+      hashes[b] = hash;
+      bucketLabels[b] = new Label();
+      b++;
+    }
+    visitor.visitVarInsn(ALOAD, stringVar);
+    visitor.visitMethodInsn(INVOKEVIRTUAL, "java/lang/String", "hashCode", "()I", false);
+    visitor.visitLookupSwitchInsn(defaultLabel, hashes, bucketLabels);
+    b = 0;
+    for (List<Integer> bucket : buckets.values()) {
+      visitor.visitLabel(bucketLabels[b++]);
+      for (int index : bucket) {
+        visitor.visitVarInsn(ALOAD, stringVar);
+        visitor.visitLdcInsn(keys.get(index));
+        visitor.visitMethodInsn(INVOKEVIRTUAL, "java/lang/String", "equals", "(Ljava/lang/Object;)Z", false);
+        visitor.visitJumpInsn(IFNE, targets[index]);
+      }
+      visitor.visitJumpInsn(GOTO, defaultLabel);
+    }
+  }
+
   static Label visitLine(GoloElement<?> element, MethodVisitor visitor) {
     Label label = labelAtPosition(element, visitor);
     visitor.visitLabel(label);
@@ -40,6 +40,14 @@ public class LocalReferenceAssignmentAndVerificationVisitor extends AbstractGolo
       return counter++;
     }
 
+    public int next(LocalReference reference) {
+      int index = counter++;
+      if (reference.metadata(SugarExpansionVisitor.FOREACH_WIDE_COUNTER) != null) {
+        counter++;
+      }
+      return index;
+    }
+
     public void reset() {
       counter = 0;
     }
@@ -117,7 +125,7 @@ public class LocalReferenceAssignmentAndVerificationVisitor extends AbstractGolo
   private void extractUninitializedReferences(ReferenceTable table) {
     for (LocalReference reference : table.ownedReferences()) {
       if (reference.getIndex() < 0 && !reference.isModuleState()) {
-        reference.setIndex(assignmentCounter.next());
+        reference.setIndex(assignmentCounter.next(reference));
         uninitializedReferences.add(reference);
       }
     }
@@ -175,7 +183,7 @@ public class LocalReferenceAssignmentAndVerificationVisitor extends AbstractGolo
       if (table.hasReferenceFor(reference.getName())) {
         reference.setIndex(table.get(reference.getName()).getIndex());
       } else if (reference.isSynthetic()) {
-        reference.setIndex(assignmentCounter.next());
+        reference.setIndex(assignmentCounter.next(reference));
         table.add(reference);
       }
     }
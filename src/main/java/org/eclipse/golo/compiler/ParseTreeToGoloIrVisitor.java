@@ -14,8 +14,10 @@ import gololang.ir.*;
 import org.eclipse.golo.compiler.parser.*;
 
 import java.util.Deque;
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 import static java.util.Collections.nCopies;
@@ -348,10 +350,28 @@ public class ParseTreeToGoloIrVisitor implements GoloParserVisitor {
   @Override
   public Object visit(ASTMemberDeclaration node, Object data) {
     Context context = (Context) data;
-    context.push(Member.of(node.getName()).ofAST(node));
+    Class<?> type = Object.class;
+    if (node.getTypeName() != null) {
+      type = MEMBER_TYPES.get(node.getTypeName());
+      if (type == null) {
+        context.errorMessage(INVALID_MEMBER_TYPE, node,
+            message("invalid_member_type", node.getTypeName(), node.getName()));
+        type = Object.class;
+      }
+    }
+    context.push(Member.of(node.getName(), type).ofAST(node));
     return context;
   }
 
+  private static final Map<String, Class<?>> MEMBER_TYPES = new HashMap<>();
+
+  static {
+    for (Class<?> type : new Class<?>[]{
+        boolean.class, byte.class, char.class, short.class, int.class, long.class, float.class, double.class}) {
+      MEMBER_TYPES.put(type.getName(), type);
+    }
+  }
+
   @Override
   public Object visit(ASTStructDeclaration node, Object data) {
     Context context = (Context) data;
@@ -380,7 +400,16 @@ public class ParseTreeToGoloIrVisitor implements GoloParserVisitor {
     for (int i = 0; i < node.jjtGetNumChildren(); i++) {
       node.jjtGetChild(i).jjtAccept(this, context);
       if (context.peek() instanceof Member) {
-        value.withMember(context.pop());
+        Member member = (Member) context.pop();
+        if (member.isTyped()) {
+          context.errorMessage(INVALID_MEMBER_TYPE, (GoloASTNode) node.jjtGetChild(i),
+              message("typed_union_member", member.getName()));
+        }
+        if (gololang.Union.ORDINAL.equals(member.getName())) {
+          context.errorMessage(AMBIGUOUS_DECLARATION, (GoloASTNode) node.jjtGetChild(i),
+              message("reserved_union_member", member.getName()));
+        }
+        value.withMember(member);
       }
     }
     MacroInvocation decoLike = context.convertDecoratorsAsMacroCalls(value);
@@ -29,6 +29,33 @@ import static gololang.ir.TryCatchFinally.DUMMY_TRY_RESULT_VARIABLE;
  */
 public class SugarExpansionVisitor extends AbstractGoloIrVisitor {
 
+  /**
+   * Metadata of the loops resulting from a {@code foreach}, giving the iterator, index, end and step references,
+   * followed by the index, end and step references of the long ranges.
+   */
+  static final String FOREACH_COUNTERS = "golo.foreach.counters";
+
+  /**
+   * Metadata of the references holding primitive counters of a {@code foreach} loop.
+   */
+  static final String FOREACH_COUNTER = "golo.foreach.counter";
+
+  /**
+   * Metadata of the {@code foreach} counter references holding a {@code long}, that take two local variable slots.
+   */
+  static final String FOREACH_WIDE_COUNTER = "golo.foreach.wide";
+
+  /**
+   * Metadata of the {@code __$$_destruct} invocations of the destructuring assignments, giving the number of
+   * references, {@code 1} if the last one takes the remaining values, and {@code 1} for each skipped reference.
+   */
+  static final String DESTRUCTURING = "golo.destructuring";
+
+  /**
+   * Metadata of the {@code get} invocations of the destructuring assignments, giving the index of the value.
+   */
+  static final String DESTRUCTURED_ELEMENT = "golo.destructuring.element";
+
   private final SymbolGenerator symbols = new SymbolGenerator("golo.compiler.sugar");
   private final List<GoloFunction> functionsToAdd = new LinkedList<>();
   private GoloModule module;
@@ -233,18 +260,32 @@ public class SugarExpansionVisitor extends AbstractGoloIrVisitor {
    * Literal expansion.
    * <p>
    * Converts a collection literal into a call to {@code gololang.Predefined.<type>}.
+   * <p>
+   * Tuples being immutable, a tuple literal whose elements are all constants is converted into a constant call, such
+   * that the tuple is created only once. This also applies to the entries of a map literal.
    */
   @Override
   public void visitCollectionLiteral(CollectionLiteral collection) {
     if (!expressionToBlock(collection)) {
       collection.walk(this);
-      AbstractInvocation<?> construct = FunctionInvocation.of("gololang.Predefined." + collection.getType().toString())
+      FunctionInvocation construct = FunctionInvocation.of("gololang.Predefined." + collection.getType().toString())
+        .constant(collection.getType() == CollectionLiteral.Type.tuple && hasConstantElements(collection))
         .withArgs(collection.getExpressions().toArray());
       collection.replaceInParentBy(construct);
       construct.accept(this);
     }
   }
 
+  private static boolean hasConstantElements(CollectionLiteral collection) {
+    for (ExpressionStatement<?> element : collection.getExpressions()) {
+      if (!(element instanceof ConstantStatement
+            || element instanceof FunctionInvocation && ((FunctionInvocation) element).isConstant())) {
+        return false;
+      }
+    }
+    return true;
+  }
+
   /**
    * Converts a literal function reference into a call to {@code Predefined.fun}.
    */
@@ -337,11 +378,19 @@ public class SugarExpansionVisitor extends AbstractGoloIrVisitor {
    * </code></pre>
    * is converted to:
    * <pre class="listing"><code class="lang-golo" data-lang="golo">
-   * for (__$$_iterator_0 = expr: iterator(), __$$_iterator_0: hasNext(),) {
+   * var __$$_iterator_0 = expr
+   * var __$$_index_1 = 0
+   * var __$$_end_2 = 0
+   * var __$$_step_3 = 0
+   * for (__$$_iterator_0 = __$$_iterator_0: iterator(), __$$_iterator_0: hasNext(),) {
    *   let x = __$$_iterator_0: next()
    *   block
    * }
    * </code></pre>
+   * <p>
+   * The loop is marked with the {@link #FOREACH_COUNTERS} metadata, holding the iterator and counters references.
+   * The bytecode generator uses it to iterate over integer and long ranges and arrays with primitive counters, and only
+   * falls back to the iterator for other values. The counters are not used otherwise.
    */
   @Override
   public void visitForEachLoopStatement(ForEachLoopStatement foreachStatement) {
@@ -372,15 +421,40 @@ public class SugarExpansionVisitor extends AbstractGoloIrVisitor {
           AssignmentStatement.create(foreachStatement.getLocalReference(), invoke("next").on(iterVar.lookup()), true));
     }
 
+    LocalReference indexVar = counterReference("forEachIndex");
+    LocalReference endVar = counterReference("forEachEnd");
+    LocalReference stepVar = counterReference("forEachStep");
+    LocalReference longIndexVar = counterReference("forEachLongIndex").metadata(FOREACH_WIDE_COUNTER, true);
+    LocalReference longEndVar = counterReference("forEachLongEnd").metadata(FOREACH_WIDE_COUNTER, true);
+    LocalReference longStepVar = counterReference("forEachLongStep").metadata(FOREACH_WIDE_COUNTER, true);
+
     // build the equivalent loop
     LoopStatement newLoop = LoopStatement.loop()
       .init(
-          AssignmentStatement.create(iterVar, invoke("iterator").on(foreachStatement.getIterable()), true))
+          AssignmentStatement.create(iterVar, invoke("iterator").on(iterVar.lookup()), false))
       .condition(
           invoke("hasNext").on(iterVar.lookup()))
-      .block(loopInnerBlock);
-    foreachStatement.replaceInParentBy(newLoop);
-    newLoop.accept(this);
+      .block(loopInnerBlock)
+      .metadata(FOREACH_COUNTERS, new LocalReference[]{
+        iterVar, indexVar, endVar, stepVar, longIndexVar, longEndVar, longStepVar});
+    Block replacement = Block.block(
+        AssignmentStatement.create(iterVar, foreachStatement.getIterable(), true),
+        AssignmentStatement.create(indexVar, ConstantStatement.of(0), true),
+        AssignmentStatement.create(endVar, ConstantStatement.of(0), true),
+        AssignmentStatement.create(stepVar, ConstantStatement.of(0), true),
+        AssignmentStatement.create(longIndexVar, ConstantStatement.of(0), true),
+        AssignmentStatement.create(longEndVar, ConstantStatement.of(0), true),
+        AssignmentStatement.create(longStepVar, ConstantStatement.of(0), true),
+        newLoop);
+    foreachStatement.replaceInParentBy(replacement);
+    replacement.accept(this);
+  }
+
+  private LocalReference counterReference(String name) {
+    return LocalReference.of(symbols.next(name))
+      .variable()
+      .synthetic()
+      .metadata(FOREACH_COUNTER, true);
   }
 
   /**
@@ -443,21 +517,30 @@ public class SugarExpansionVisitor extends AbstractGoloIrVisitor {
    * let b = tmp: get(1)
    * let c = tmp: get(2)
    * </code></pre>
+   * <p>
+   * The invocations are marked with the {@link #DESTRUCTURING} and {@link #DESTRUCTURED_ELEMENT} metadata, such that
+   * the bytecode generator reads the values directly from tuples, arrays, structures and map entries, without the
+   * intermediate array.
    */
   private Block newDestructuring(DestructuringAssignment assignment) {
     LocalReference tmpRef = LocalReference.of(symbols.next("destruct")).synthetic();
     Block block = Block.empty();
     Object[] toSkip = new Object[assignment.getReferencesCount()];
+    Object[] destructuring = new Object[assignment.getReferencesCount() + 2];
+    destructuring[0] = assignment.getReferencesCount();
+    destructuring[1] = assignment.isVarargs() ? 1 : 0;
     int idx = 0;
     for (LocalReference ref : assignment.getReferences()) {
       if ("_".equals(ref.getName())) {
         toSkip[idx] = ConstantStatement.of(true);
+        destructuring[idx + 2] = 1;
       } else {
         toSkip[idx] = ConstantStatement.of(false);
+        destructuring[idx + 2] = 0;
         block.add(
             AssignmentStatement.create(
               ref,
-              invoke("get").withArgs(ConstantStatement.of(idx)).on(tmpRef.lookup()),
+              invoke("get").withArgs(ConstantStatement.of(idx)).metadata(DESTRUCTURED_ELEMENT, idx).on(tmpRef.lookup()),
               assignment.isDeclaring()));
       }
       idx++;
@@ -468,6 +551,7 @@ public class SugarExpansionVisitor extends AbstractGoloIrVisitor {
             ConstantStatement.of(assignment.getReferencesCount()),
             ConstantStatement.of(assignment.isVarargs()),
             CollectionLiteral.create(CollectionLiteral.Type.array, toSkip))
+          .metadata(DESTRUCTURING, destructuring)
           .on(assignment.expression()),
         true));
     return block;
@@ -0,0 +1,397 @@
+/*
+ * Copyright (c) 2012-2021 Institut National des Sciences Appliquées de Lyon (INSA Lyon) and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.golo.compiler;
+
+import gololang.ir.*;
+
+import java.util.*;
+
+import static org.eclipse.golo.compiler.GoloCompilationException.Problem.Type.*;
+import static gololang.Messages.message;
+
+/**
+ * Visitor to find the tail calls that can be compiled into jumps.
+ * <p>
+ * Besides the direct self-recursion, already dealt with by the bytecode generator, this visitor finds:
+ * <ul>
+ *   <li>the groups of module functions calling each other in tail position, such as mutually recursive functions.
+ *   The functions of a group are compiled into a single method, where the tail calls between them are jumps;
+ *   <li>the method invocations in tail position of an augmentation function, with the same name and arity, such as
+ *   {@code this: tail(): foldl(f, z)}. They are compiled into a jump when the runtime resolution of the method on the
+ *   receiver gives the augmentation function itself.
+ * </ul>
+ * <p>
+ * Moreover, it checks that the recursive calls of the functions marked with the {@code gololang.macros.tailrec} macro
+ * are optimized, and reports an error otherwise. Since nothing is optimized when tail call optimization is disabled,
+ * this check is then skipped.
+ * <p>
+ * The calls to decorated functions, to variable arity functions and to closures are not optimized, since the
+ * decorator, the arguments collection or the captured values are applied by the invocation.
+ */
+final class TailCallVisitor extends AbstractGoloIrVisitor {
+
+  /**
+   * Metadata key of the functions that must have their recursive calls optimized.
+   */
+  static final String TAILREC = "golo.tailrec";
+
+  /**
+   * Metadata key of a function invocation to a function of the same group, whose value is the called function.
+   */
+  static final String TAIL_CALL_TARGET = "golo.tailcall.target";
+
+  /**
+   * Metadata key of a function belonging to a group, whose value is the {@link Group}.
+   */
+  static final String TAIL_CALL_GROUP = "golo.tailcall.group";
+
+  /**
+   * Metadata key of a method invocation in tail position that can be a jump to the enclosing augmentation function.
+   */
+  static final String TAIL_METHOD_CALL = "golo.tailcall.method";
+
+  private static final String GROUP_PREFIX = SymbolGenerator.PREFIX + "tailcalls_";
+
+  /**
+   * A group of module functions calling each other in tail position.
+   * <p>
+   * The group is compiled into a private method taking the parameters of the largest function, followed by the index
+   * of the function to execute.
+   */
+  static final class Group {
+    private final String name;
+    private final List<GoloFunction> functions;
+    private final int arity;
+    private boolean generated;
+
+    Group(String name, List<GoloFunction> functions) {
+      this.name = name;
+      this.functions = functions;
+      this.arity = functions.stream().mapToInt(GoloFunction::getArity).max().orElse(0);
+    }
+
+    String name() {
+      return name;
+    }
+
+    List<GoloFunction> functions() {
+      return functions;
+    }
+
+    int arity() {
+      return arity;
+    }
+
+    int indexOf(GoloFunction function) {
+      return functions.indexOf(function);
+    }
+
+    String descriptor() {
+      StringBuilder descriptor = new StringBuilder("(");
+      for (int i = 0; i < arity; i++) {
+        descriptor.append("Ljava/lang/Object;");
+      }
+      return descriptor.append("I)Ljava/lang/Object;").toString();
+    }
+
+    boolean markGenerated() {
+      boolean done = generated;
+      generated = true;
+      return !done;
+    }
+  }
+
+  private final GoloCompilationException.Builder exceptionBuilder;
+  private final List<GoloFunction> functions = new ArrayList<>();
+  private final Map<GoloFunction, List<FunctionInvocation>> invocations = new HashMap<>();
+  private final Map<GoloFunction, List<BinaryOperation>> methodCalls = new HashMap<>();
+  private final Map<String, List<GoloFunction>> byName = new HashMap<>();
+  private final Map<GoloFunction, List<GoloFunction>> recursions = new HashMap<>();
+
+  TailCallVisitor(GoloCompilationException.Builder exceptionBuilder) {
+    this.exceptionBuilder = exceptionBuilder;
+  }
+
+  @Override
+  public void visitModule(GoloModule module) {
+    module.walk(this);
+    findGroups();
+    findMethodCalls();
+    if (!JavaBytecodeGenerationGoloIrVisitor.USE_TCE) {
+      return;
+    }
+    for (GoloFunction function : functions) {
+      if (Boolean.TRUE.equals(function.metadata(TAILREC))) {
+        checkTailRecursive(function);
+      }
+    }
+  }
+
+  @Override
+  public void visitFunction(GoloFunction function) {
+    functions.add(function);
+    List<FunctionInvocation> calls = new ArrayList<>();
+    List<BinaryOperation> methods = new ArrayList<>();
+    collectCalls(function.getBlock(), calls, methods);
+    invocations.put(function, calls);
+    methodCalls.put(function, methods);
+  }
+
+  private static void collectCalls(GoloElement<?> element, List<FunctionInvocation> calls, List<BinaryOperation> methods) {
+    if (element instanceof ClosureReference) {
+      return;
+    }
+    if (element instanceof FunctionInvocation) {
+      calls.add((FunctionInvocation) element);
+    } else if (element instanceof BinaryOperation && ((BinaryOperation) element).isMethodCall()
+        && ((BinaryOperation) element).right() instanceof MethodInvocation) {
+      methods.add((BinaryOperation) element);
+    }
+    for (GoloElement<?> child : element.children()) {
+      collectCalls(child, calls, methods);
+    }
+  }
+
+  private static boolean isGroupable(GoloFunction function) {
+    return function.isInModule()
+      && !function.isDecorated()
+      && !function.isVarargs()
+      && !function.isMacro()
+      && !function.isMain()
+      && !function.isModuleInit()
+      && function.getSyntheticParameterCount() == 0;
+  }
+
+  private static boolean isAugmentationTailCallable(GoloFunction function) {
+    return function.isInAugment()
+      && !function.isDecorated()
+      && !function.isVarargs()
+      && function.getArity() > 0;
+  }
+
+  /**
+   * Checks if the element is the returned value, and is not followed by a {@code finally} block.
+   */
+  private static boolean isInTailPosition(GoloElement<?> element) {
+    if (!(element.parent() instanceof ReturnStatement)) {
+      return false;
+    }
+    GoloElement<?> current = element.parent();
+    while (current != null && !(current instanceof GoloFunction)) {
+      GoloElement<?> parent = current.parent();
+      if (parent instanceof TryCatchFinally) {
+        TryCatchFinally tryCatch = (TryCatchFinally) parent;
+        if (tryCatch.hasFinallyBlock() && current != tryCatch.getFinallyBlock()) {
+          return false;
+        }
+      }
+      current = parent;
+    }
+    return true;
+  }
+
+  private static boolean isCallTo(FunctionInvocation invocation, GoloFunction function) {
+    if (invocation.isOnReference() || invocation.isAnonymous() || invocation.isOnModuleState()
+        || !function.getName().equals(invocation.getName()) || function.getArity() != invocation.getArity()) {
+      return false;
+    }
+    if (invocation.usesNamedArguments()) {
+      for (GoloElement<?> argument : invocation.getArguments()) {
+        if (!(argument instanceof NamedArgument)
+            || !function.getParameterNames().contains(((NamedArgument) argument).getName())) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  private GoloFunction resolve(FunctionInvocation invocation) {
+    List<GoloFunction> candidates = byName.getOrDefault(invocation.getName(), Collections.emptyList());
+    GoloFunction target = null;
+    for (GoloFunction candidate : candidates) {
+      if (candidate.getArity() == invocation.getArity()) {
+        if (target != null || !isCallTo(invocation, candidate)) {
+          return null;
+        }
+        target = candidate;
+      }
+    }
+    return target;
+  }
+
+  private void findGroups() {
+    for (GoloFunction function : functions) {
+      if (function.isInModule() && !function.isAnonymous()) {
+        byName.computeIfAbsent(function.getName(), k -> new ArrayList<>()).add(function);
+      }
+    }
+    Map<GoloFunction, Map<FunctionInvocation, GoloFunction>> calls = new LinkedHashMap<>();
+    Map<GoloFunction, Map<FunctionInvocation, GoloFunction>> edges = new LinkedHashMap<>();
+    for (GoloFunction function : functions) {
+      Map<FunctionInvocation, GoloFunction> targets = new LinkedHashMap<>();
+      Map<FunctionInvocation, GoloFunction> tailTargets = new LinkedHashMap<>();
+      for (FunctionInvocation invocation : invocations.get(function)) {
+        GoloFunction target = resolve(invocation);
+        if (target != null && target != function) {
+          targets.put(invocation, target);
+          if (isGroupable(function) && isGroupable(target) && isInTailPosition(invocation)) {
+            tailTargets.put(invocation, target);
+          }
+        }
+      }
+      calls.put(function, targets);
+      edges.put(function, tailTargets);
+    }
+    for (List<GoloFunction> component : new StronglyConnectedComponents(calls).components()) {
+      for (GoloFunction function : component) {
+        recursions.put(function, component);
+      }
+    }
+    int index = 0;
+    for (List<GoloFunction> component : new StronglyConnectedComponents(edges).components()) {
+      if (component.size() < 2) {
+        continue;
+      }
+      Group group = new Group(GROUP_PREFIX + index++, component);
+      for (GoloFunction function : component) {
+        function.metadata(TAIL_CALL_GROUP, group);
+        for (Map.Entry<FunctionInvocation, GoloFunction> edge : edges.get(function).entrySet()) {
+          if (component.contains(edge.getValue())) {
+            edge.getKey().metadata(TAIL_CALL_TARGET, edge.getValue());
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Tarjan's algorithm on a calls graph, giving the components in the functions order.
+   */
+  private static final class StronglyConnectedComponents {
+    private final Map<GoloFunction, Map<FunctionInvocation, GoloFunction>> edges;
+    private final Map<GoloFunction, Integer> indexes = new HashMap<>();
+    private final Map<GoloFunction, Integer> lowLinks = new HashMap<>();
+    private final Deque<GoloFunction> stack = new ArrayDeque<>();
+    private final Set<GoloFunction> onStack = new HashSet<>();
+    private final List<List<GoloFunction>> components = new ArrayList<>();
+
+    StronglyConnectedComponents(Map<GoloFunction, Map<FunctionInvocation, GoloFunction>> edges) {
+      this.edges = edges;
+    }
+
+    List<List<GoloFunction>> components() {
+      for (GoloFunction function : edges.keySet()) {
+        if (!indexes.containsKey(function)) {
+          connect(function);
+        }
+      }
+      List<GoloFunction> order = new ArrayList<>(edges.keySet());
+      for (List<GoloFunction> component : components) {
+        component.sort(Comparator.comparingInt(order::indexOf));
+      }
+      components.sort(Comparator.comparingInt(c -> order.indexOf(c.get(0))));
+      return components;
+    }
+
+    private void connect(GoloFunction function) {
+      int index = indexes.size();
+      indexes.put(function, index);
+      lowLinks.put(function, index);
+      stack.push(function);
+      onStack.add(function);
+      for (GoloFunction target : new LinkedHashSet<>(edges.get(function).values())) {
+        if (!indexes.containsKey(target)) {
+          connect(target);
+          lowLinks.put(function, Math.min(lowLinks.get(function), lowLinks.get(target)));
+        } else if (onStack.contains(target)) {
+          lowLinks.put(function, Math.min(lowLinks.get(function), indexes.get(target)));
+        }
+      }
+      if (lowLinks.get(function).equals(indexes.get(function))) {
+        List<GoloFunction> component = new ArrayList<>();
+        GoloFunction member;
+        do {
+          member = stack.pop();
+          onStack.remove(member);
+          component.add(member);
+        } while (member != function);
+        components.add(component);
+      }
+    }
+  }
+
+  private static boolean isSelfMethodCall(BinaryOperation operation, GoloFunction function) {
+    MethodInvocation invocation = (MethodInvocation) operation.right();
+    return invocation.getName().equals(function.getName())
+      && invocation.getArity() + 1 == function.getArity();
+  }
+
+  private void findMethodCalls() {
+    for (GoloFunction function : functions) {
+      if (!isAugmentationTailCallable(function)) {
+        continue;
+      }
+      for (BinaryOperation operation : methodCalls.get(function)) {
+        MethodInvocation invocation = (MethodInvocation) operation.right();
+        if (isSelfMethodCall(operation, function)
+            && !invocation.isNullSafeGuarded()
+            && !invocation.usesNamedArguments()
+            && isInTailPosition(operation)) {
+          operation.metadata(TAIL_METHOD_CALL, true);
+        }
+      }
+    }
+  }
+
+  private void checkTailRecursive(GoloFunction function) {
+    if (function.isDecorated() || function.isVarargs()) {
+      errorMessage(function, message("tailrec_not_supported", function.getName()));
+      return;
+    }
+    List<GoloFunction> recursion = recursions.getOrDefault(function, Collections.emptyList());
+    for (FunctionInvocation invocation : invocations.get(function)) {
+      boolean optimized;
+      if (isCallTo(invocation, function)) {
+        optimized = isSelfTailCall(invocation);
+      } else {
+        GoloFunction target = resolve(invocation);
+        optimized = target == null || !recursion.contains(target) || invocation.metadata(TAIL_CALL_TARGET) != null;
+      }
+      if (!optimized) {
+        errorMessage(invocation, message("not_tail_call", invocation.getName(), function.getName()));
+      }
+    }
+    if (function.isInAugment()) {
+      for (BinaryOperation operation : methodCalls.get(function)) {
+        if (isSelfMethodCall(operation, function) && operation.metadata(TAIL_METHOD_CALL) == null) {
+          errorMessage(operation, message("not_tail_call", function.getName(), function.getName()));
+        }
+      }
+    }
+  }
+
+  /**
+   * Self calls are jumps as soon as they are returned, even in a {@code try} block.
+   */
+  private static boolean isSelfTailCall(FunctionInvocation invocation) {
+    return invocation.parent() instanceof ReturnStatement && invocation.isRecursiveTailCall();
+  }
+
+  private void errorMessage(GoloElement<?> node, String message) {
+    PositionInSourceCode position = node.positionInSourceCode();
+    String errorMessage = message + ' ' + (
+        (position != null && !position.isUndefined())
+        ? message("source_position", position.getStartLine(), position.getStartColumn())
+        : message("generated_code")) + ".";
+    exceptionBuilder.report(INVALID_TAIL_CALL, node, errorMessage);
+  }
+}
@@ -12,23 +12,15 @@ package org.eclipse.golo.compiler.macro;
 
 import java.util.List;
 import java.util.LinkedList;
-import java.lang.invoke.MethodHandle;
-import java.lang.reflect.Method;
-import java.util.function.Predicate;
 import java.util.stream.Stream;
 import java.util.Optional;
 
 import gololang.ir.AbstractInvocation;
 
-import org.eclipse.golo.runtime.Extractors;
-import org.eclipse.golo.runtime.TypeMatching;
 import org.eclipse.golo.runtime.Loader;
 
 import static java.util.Arrays.asList;
 import static java.util.Collections.unmodifiableList;
-import static org.eclipse.golo.runtime.DecoratorsHelper.getDecoratedMethodHandle;
-import static org.eclipse.golo.runtime.DecoratorsHelper.isMethodDecorated;
-import static java.lang.invoke.MethodHandles.publicLookup;
 
 
 /**
@@ -41,7 +33,9 @@ import static java.lang.invoke.MethodHandles.publicLookup;
  *   <li>modules specified via the {@code use} special macro;
  *   <li>implicitly imported predefined macros (gololang.Macros)
  * </ol>
- * <p>This finder maintains a cache of found macros, module wise.
+ * <p>This finder maintains a cache of found macros, module wise. The macros defined in each class are indexed once
+ * and shared among all the finders (see {@link MacroIndex}), such that looking up a macro in a new module does not
+ * introspect the macro classes again.
  */
 class MacroFinder {
   // TODO: maybe we should reuse some runtime function finding logic.
@@ -94,38 +88,9 @@ class MacroFinder {
     return getLookupClassNames(invocation)
       .map(loader)
       .filter(java.util.Objects::nonNull)
-      .flatMap(Extractors::getMacros)
-      .filter(isCandidateMacro(invocation))
-      .map(this::toResult)
-      .filter(java.util.Objects::nonNull)
+      .flatMap(klass -> MacroIndex.of(klass).find(invocation))
       .findFirst();
   }
 
-  private Predicate<Method> isCandidateMacro(AbstractInvocation<?> invocation) {
-    return method -> method.getName().equals(invocation.getFunctionName())
-                      && (invocation.getModuleName().isEmpty() ||
-                          invocation.getModuleName().equals(method.getDeclaringClass().getName()))
-                      && (TypeMatching.argumentsNumberMatches(method, invocation.getArity()
-                           + (method.isAnnotationPresent(ContextualMacro.class) ? 1 : 0)
-                           + (method.isAnnotationPresent(SpecialMacro.class) ? 1 : 0))
-                          || isMethodDecorated(method));
-  }
-
-  private MacroFinderResult toResult(Method method) {
-    MethodHandle target = null;
-    if (isMethodDecorated(method)) {
-      target = getDecoratedMethodHandle(publicLookup(), method, -1);
-    } else {
-      try {
-        target = publicLookup().unreflect(method);
-      } catch (IllegalAccessException e) {
-        return null;
-      }
-    }
-    return new MacroFinderResult(target,
-        method.isAnnotationPresent(SpecialMacro.class),
-        method.isAnnotationPresent(ContextualMacro.class));
-  }
-
 }
 
@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2012-2021 Institut National des Sciences Appliquées de Lyon (INSA Lyon) and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.golo.compiler.macro;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import gololang.ir.AbstractInvocation;
+
+import org.eclipse.golo.runtime.Extractors;
+import org.eclipse.golo.runtime.TypeMatching;
+
+import static java.lang.invoke.MethodHandles.publicLookup;
+import static org.eclipse.golo.runtime.DecoratorsHelper.getDecoratedMethodHandle;
+import static org.eclipse.golo.runtime.DecoratorsHelper.isMethodDecorated;
+
+/**
+ * Index of the macros defined in a class, grouped by name.
+ * <p>
+ * Indexes are computed once per class and shared by every macro finder, whatever the module being expanded or the
+ * compiling thread. Since they are attached to the {@code Class} object, a macro module compiled again gives a new
+ * class, and thus a new index, while the index of the previous version is collected with its class.
+ */
+final class MacroIndex {
+
+  private static final ClassValue<MacroIndex> INDEXES = new ClassValue<MacroIndex>() {
+    @Override
+    protected MacroIndex computeValue(Class<?> klass) {
+      return new MacroIndex(klass);
+    }
+  };
+
+  private static final class Candidate {
+    private final Method method;
+    private final int implicitArguments;
+    private final boolean decorated;
+    private volatile MacroFinderResult result;
+
+    Candidate(Method method) {
+      this.method = method;
+      this.decorated = isMethodDecorated(method);
+      this.implicitArguments = (method.isAnnotationPresent(ContextualMacro.class) ? 1 : 0)
+        + (method.isAnnotationPresent(SpecialMacro.class) ? 1 : 0);
+    }
+
+    boolean matches(AbstractInvocation<?> invocation) {
+      return (invocation.getModuleName().isEmpty()
+              || invocation.getModuleName().equals(method.getDeclaringClass().getName()))
+        && (decorated || TypeMatching.argumentsNumberMatches(method, invocation.getArity() + implicitArguments));
+    }
+
+    MacroFinderResult result() {
+      MacroFinderResult r = result;
+      if (r == null) {
+        r = toResult(method);
+        result = r;
+      }
+      return r;
+    }
+  }
+
+  private final Map<String, List<Candidate>> macros = new HashMap<>();
+
+  private MacroIndex(Class<?> klass) {
+    Extractors.getMacros(klass).forEach(method ->
+      macros.computeIfAbsent(method.getName(), k -> new ArrayList<>()).add(new Candidate(method)));
+  }
+
+  static MacroIndex of(Class<?> klass) {
+    return INDEXES.get(klass);
+  }
+
+  /**
+   * Gives the macros of this index that can be expanded for the given invocation, in lookup order.
+   */
+  Stream<MacroFinderResult> find(AbstractInvocation<?> invocation) {
+    return macros.getOrDefault(invocation.getFunctionName(), Collections.emptyList()).stream()
+      .filter(candidate -> candidate.matches(invocation))
+      .map(Candidate::result)
+      .filter(java.util.Objects::nonNull);
+  }
+
+  private static MacroFinderResult toResult(Method method) {
+    MethodHandle target = null;
+    if (isMethodDecorated(method)) {
+      target = getDecoratedMethodHandle(publicLookup(), method, -1);
+    } else {
+      try {
+        target = publicLookup().unreflect(method);
+      } catch (IllegalAccessException e) {
+        return null;
+      }
+    }
+    return new MacroFinderResult(target,
+        method.isAnnotationPresent(SpecialMacro.class),
+        method.isAnnotationPresent(ContextualMacro.class));
+  }
+}
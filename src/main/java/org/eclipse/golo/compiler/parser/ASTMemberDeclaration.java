@@ -13,6 +13,7 @@ package org.eclipse.golo.compiler.parser;
 public class ASTMemberDeclaration extends GoloASTNode implements NamedNode {
 
   private String name;
+  private String typeName;
 
   public ASTMemberDeclaration(int id) {
     super(id);
@@ -32,8 +33,19 @@ public class ASTMemberDeclaration extends GoloASTNode implements NamedNode {
     this.name = name;
   }
 
+  public String getTypeName() {
+    return typeName;
+  }
+
+  public void setTypeName(String typeName) {
+    this.typeName = typeName;
+  }
+
   @Override
   public String toString() {
+    if (typeName != null) {
+      return String.format("ASTMemberDeclaration{name='%s', type='%s'}", name, typeName);
+    }
     return String.format("ASTMemberDeclaration{name='%s'}", name);
   }
 
@@ -22,6 +22,42 @@ public final class ArrayHelper {
     throw new UnsupportedOperationException("Don't instantiate utility classes");
   }
 
+  public static int length(Object[] array) {
+    return array.length;
+  }
+
+  public static int length(int[] array) {
+    return array.length;
+  }
+
+  public static int length(long[] array) {
+    return array.length;
+  }
+
+  public static int length(double[] array) {
+    return array.length;
+  }
+
+  public static int length(float[] array) {
+    return array.length;
+  }
+
+  public static int length(short[] array) {
+    return array.length;
+  }
+
+  public static int length(byte[] array) {
+    return array.length;
+  }
+
+  public static int length(char[] array) {
+    return array.length;
+  }
+
+  public static int length(boolean[] array) {
+    return array.length;
+  }
+
   public static Object head(Object[] array) {
     if (array.length == 0) {
       return null;
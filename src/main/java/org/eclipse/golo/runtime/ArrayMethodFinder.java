@@ -11,7 +11,6 @@
 package org.eclipse.golo.runtime;
 
 import java.lang.invoke.*;
-import java.lang.reflect.Array;
 import java.util.*;
 import static java.lang.invoke.MethodHandles.*;
 import static java.lang.invoke.MethodType.methodType;
@@ -31,6 +30,17 @@ class ArrayMethodFinder extends MethodFinder {
     }
   }
 
+  private boolean isPrimitiveArray() {
+    return invocation.receiverClass().getComponentType().isPrimitive();
+  }
+
+  /**
+   * The array type of the helpers specialized on the receiver component type.
+   */
+  private Class<?> arrayType() {
+    return isPrimitiveArray() ? invocation.receiverClass() : Object[].class;
+  }
+
   @Override
   public MethodHandle find() {
     try {
@@ -51,14 +61,14 @@ class ArrayMethodFinder extends MethodFinder {
       case "size":
       case "length":
         checkArity(0);
-        return lookup.findStatic(Array.class, "getLength", methodType(int.class, Object.class));
+        return lookup.findStatic(ArrayHelper.class, "length", methodType(int.class, arrayType()));
       case "iterator":
         checkArity(0);
         return lookup.findConstructor(PrimitiveArrayIterator.class,
-                                      methodType(void.class, Object[].class));
+                                      methodType(void.class, isPrimitiveArray() ? Object.class : Object[].class));
       case "toString":
         checkArity(0);
-        return lookup.findStatic(Arrays.class, "toString", methodType(String.class, Object[].class));
+        return lookup.findStatic(Arrays.class, "toString", methodType(String.class, arrayType()));
       case "asList":
         checkArity(0);
         return lookup.findStatic(Arrays.class, "asList", methodType(List.class, Object[].class));
@@ -75,7 +85,7 @@ class ArrayMethodFinder extends MethodFinder {
       case "equals":
         checkArity(1);
         return lookup.findStatic(Arrays.class, "equals",
-                                 methodType(boolean.class, Object[].class, Object[].class));
+                                 methodType(boolean.class, arrayType(), arrayType()));
       case "getClass":
         checkArity(0);
         return MethodHandles.dropArguments(
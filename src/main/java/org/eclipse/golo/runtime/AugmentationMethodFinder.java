@@ -15,6 +15,7 @@ import java.lang.reflect.Method;
 import java.util.stream.Stream;
 import java.util.Comparator;
 import java.util.Objects;
+import java.util.Optional;
 import org.eclipse.golo.runtime.augmentation.DefiningModule;
 
 import static java.lang.invoke.MethodHandles.*;
@@ -81,13 +82,21 @@ class AugmentationMethodFinder extends MethodFinder {
         1, 0);
   }
 
-  @Override
-  public MethodHandle find() {
+  /**
+   * Gives the augmentation method selected for the invocation.
+   */
+  Optional<Method> findMethod() {
     return getDefiningModules()
         .flatMap(dm -> dm.augmentationsFor(loader, invocation.receiverClass()))
         .flatMap(aug -> aug.methodsMaching(invocation))
         .min(Comparator.naturalOrder())
-        .flatMap(am -> toMethodHandle(am.method()))
+        .map(am -> am.method());
+  }
+
+  @Override
+  public MethodHandle find() {
+    return findMethod()
+        .flatMap(this::toMethodHandle)
         .orElse(null);
   }
 }
@@ -0,0 +1,195 @@
+/*
+ * Copyright (c) 2012-2021 Institut National des Sciences Appliquées de Lyon (INSA Lyon) and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.golo.runtime;
+
+import gololang.FunctionReference;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Arrays;
+
+import static java.lang.invoke.MethodHandles.filterArguments;
+import static java.lang.invoke.MethodHandles.permuteArguments;
+import static java.lang.invoke.MethodType.genericMethodType;
+import static java.lang.invoke.MethodType.methodType;
+
+/**
+ * A reference to a closure capturing values.
+ * <p>
+ * The captured values are kept in an array instead of being bound to the closure function handle, such that creating
+ * a closure only allocates the array and the reference. The bound method handle is created only when the reference
+ * is used as a method handle, while {@link ClosureCallSupport} and the {@code invokeN} methods invoke all the closures
+ * created by the same closure reference through the same {@link Site#invoker()} handle.
+ */
+final class CapturingFunctionReference extends FunctionReference {
+
+  /**
+   * The closure function shared by all the closures created by a closure reference.
+   */
+  static final class Site {
+
+    private static final MethodHandle CONSTRUCTOR;
+    private static final MethodHandle CAPTURED;
+
+    static {
+      try {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        CONSTRUCTOR = lookup.findConstructor(CapturingFunctionReference.class,
+            methodType(void.class, Site.class, Object[].class));
+        CAPTURED = lookup.findVirtual(CapturingFunctionReference.class, "captured", methodType(Object[].class))
+          .asType(methodType(Object[].class, FunctionReference.class));
+      } catch (NoSuchMethodException | IllegalAccessException e) {
+        throw new Error("Could not bootstrap the required method handles", e);
+      }
+    }
+
+    private final MethodHandle target;
+    private final int capturedCount;
+    private final MethodType type;
+    private final String[] parameterNames;
+    private MethodHandle invoker;
+    private MethodHandle exactInvoker;
+
+    Site(MethodHandle target, String[] parameterNames, int capturedCount) {
+      this.target = target;
+      this.capturedCount = capturedCount;
+      this.type = target.type().dropParameterTypes(0, capturedCount);
+      this.parameterNames = Arrays.copyOfRange(parameterNames, capturedCount, parameterNames.length);
+    }
+
+    /**
+     * Gives the handle creating the closures from their captured values.
+     */
+    MethodHandle factory() {
+      return CONSTRUCTOR.bindTo(this)
+        .asCollector(Object[].class, capturedCount)
+        .asType(methodType(FunctionReference.class, target.type().dropParameterTypes(capturedCount, target.type().parameterCount())));
+    }
+
+    MethodHandle target() {
+      return target;
+    }
+
+    boolean isVarargs() {
+      return target.isVarargsCollector();
+    }
+
+    MethodType type() {
+      return type;
+    }
+
+    /**
+     * Gives the handle invoking a closure of this site.
+     * <p>
+     * The handle takes the closure reference followed by the arguments, and calls the closure function with the
+     * values captured by the reference followed by the arguments.
+     */
+    synchronized MethodHandle invoker() {
+      if (invoker == null) {
+        int arity = type.parameterCount();
+        int[] capturedLast = new int[capturedCount + arity];
+        for (int i = 0; i < capturedCount + arity; i++) {
+          capturedLast[i] = i < capturedCount ? arity + i : i - capturedCount;
+        }
+        MethodHandle spread = permuteArguments(target.asFixedArity(),
+            type.appendParameterTypes(target.type().parameterList().subList(0, capturedCount)),
+            capturedLast)
+          .asSpreader(Object[].class, capturedCount);
+        int[] referenceFirst = new int[arity + 1];
+        for (int i = 0; i < arity; i++) {
+          referenceFirst[i] = i + 1;
+        }
+        invoker = permuteArguments(filterArguments(spread, arity, CAPTURED),
+            type.insertParameterTypes(0, FunctionReference.class),
+            referenceFirst);
+      }
+      return invoker;
+    }
+
+    /**
+     * Gives the generic {@code (FunctionReference, Object, ...)Object} version of {@link #invoker()}.
+     */
+    MethodHandle exactInvoker() {
+      MethodHandle exact = exactInvoker;
+      if (exact == null) {
+        exact = invoker().asType(genericMethodType(type.parameterCount() + 1)
+            .changeParameterType(0, FunctionReference.class));
+        exactInvoker = exact;
+      }
+      return exact;
+    }
+
+    MethodHandle bind(Object[] captured) {
+      MethodHandle handle = MethodHandles.insertArguments(target, 0, captured);
+      if (target.isVarargsCollector()) {
+        handle = handle.asVarargsCollector(Object[].class);
+      }
+      return handle;
+    }
+  }
+
+  private final Site site;
+  private final Object[] captured;
+  private MethodHandle handle;
+
+  CapturingFunctionReference(Site site, Object[] captured) {
+    super(site.target, site.parameterNames);
+    this.site = site;
+    this.captured = captured;
+  }
+
+  Site site() {
+    return site;
+  }
+
+  Object[] captured() {
+    return captured;
+  }
+
+  @Override
+  public MethodHandle handle() {
+    MethodHandle bound = handle;
+    if (bound == null) {
+      bound = site.bind(captured);
+      handle = bound;
+    }
+    return bound;
+  }
+
+  @Override
+  protected MethodHandle invoker(int count) {
+    if (site.isVarargs() || count != site.type().parameterCount()) {
+      return super.invoker(count);
+    }
+    return site.exactInvoker();
+  }
+
+  @Override
+  public MethodType type() {
+    return site.type();
+  }
+
+  @Override
+  public boolean isVarargsCollector() {
+    return site.isVarargs();
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    return this == obj;
+  }
+
+  @Override
+  public int hashCode() {
+    return System.identityHashCode(this);
+  }
+}
@@ -26,21 +26,29 @@ public final class ClassReferenceSupport {
   }
 
   public static CallSite bootstrap(Lookup caller, String name, MethodType type) throws ClassNotFoundException {
+    return createCallSite(resolve(caller, name));
+  }
+
+  /**
+   * Resolves a class reference from the caller, as its name, its fully qualified name from the caller imports, or a
+   * primitive type.
+   */
+  static Class<?> resolve(Lookup caller, String name) throws ClassNotFoundException {
     String className = name.replaceAll("#", "\\.");
     Class<?> callerClass = caller.lookupClass();
     ClassLoader classLoader = callerClass.getClassLoader();
 
     Class<?> classRef = tryLoadingFromPrimitiveType(className);
     if (classRef != null) {
-      return createCallSite(classRef);
+      return classRef;
     }
     classRef = tryLoadingFromName(className, classLoader, callerClass.getName());
     if (classRef != null) {
-      return createCallSite(classRef);
+      return classRef;
     }
     classRef = tryLoadingFromImports(className, callerClass, classLoader);
     if (classRef != null) {
-      return createCallSite(classRef);
+      return classRef;
     }
     throw new ClassNotFoundException(message("class_not_resolved", className));
   }
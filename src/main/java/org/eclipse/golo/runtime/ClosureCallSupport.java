@@ -15,6 +15,8 @@ import gololang.FunctionReference;
 import java.lang.invoke.*;
 import java.lang.invoke.MethodHandles.Lookup;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import static java.lang.invoke.MethodHandles.guardWithTest;
 import static java.lang.invoke.MethodType.methodType;
@@ -27,18 +29,42 @@ public final class ClosureCallSupport {
 
   static class InlineCache extends MutableCallSite {
 
+    private static final int REORDERED_CACHE_SIZE = 8;
+
     MethodHandle fallback;
     final boolean constant;
     final String[] argumentNames;
+    private Map<MethodHandle, MethodHandle> reordered;
 
     InlineCache(MethodType type, boolean constant, String[] argumentNames) {
       super(type);
       this.constant = constant;
       this.argumentNames = argumentNames;
     }
+
+    /**
+     * Gives the invoker of the closure target with the arguments in the order of the named arguments.
+     * <p>
+     * The call site is relinked for each closure function, so the reordered invokers are kept by target to not
+     * recompute them when the same closures are invoked in turn. Since an invoker refers to its target, only the
+     * most recently used ones are kept.
+     */
+    synchronized MethodHandle reorderedInvoker(MethodHandle target, String[] parameterNames, MethodHandle invoker) {
+      if (reordered == null) {
+        reordered = new LinkedHashMap<MethodHandle, MethodHandle>(16, 0.75f, true) {
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<MethodHandle, MethodHandle> eldest) {
+            return size() > REORDERED_CACHE_SIZE;
+          }
+        };
+      }
+      return reordered.computeIfAbsent(target,
+          key -> reorderArguments(parameterNames, invoker, argumentNames));
+    }
   }
 
   private static final MethodHandle GUARD;
+  private static final MethodHandle SITE_GUARD;
   private static final MethodHandle FALLBACK;
 
   static {
@@ -50,6 +76,11 @@ public final class ClosureCallSupport {
           "guard",
           methodType(boolean.class, FunctionReference.class, FunctionReference.class));
 
+      SITE_GUARD = lookup.findStatic(
+          ClosureCallSupport.class,
+          "siteGuard",
+          methodType(boolean.class, CapturingFunctionReference.Site.class, FunctionReference.class));
+
       FALLBACK = lookup.findStatic(
           ClosureCallSupport.class,
           "fallback",
@@ -79,24 +110,36 @@ public final class ClosureCallSupport {
     return expected == actual;
   }
 
+  public static boolean siteGuard(CapturingFunctionReference.Site expected, FunctionReference actual) {
+    return actual instanceof CapturingFunctionReference && ((CapturingFunctionReference) actual).site() == expected;
+  }
+
   public static Object fallback(InlineCache callSite, Object[] args) throws Throwable {
     FunctionReference targetFunctionReference = (FunctionReference) args[0];
-    MethodHandle target = targetFunctionReference.handle();
-    MethodHandle invoker = MethodHandles.dropArguments(target, 0, FunctionReference.class);
+    MethodHandle target;
+    MethodHandle invoker;
+    MethodHandle guard;
+    if (targetFunctionReference instanceof CapturingFunctionReference) {
+      CapturingFunctionReference.Site site = ((CapturingFunctionReference) targetFunctionReference).site();
+      target = site.invoker();
+      invoker = target;
+      guard = SITE_GUARD.bindTo(site);
+    } else {
+      target = targetFunctionReference.handle();
+      invoker = MethodHandles.dropArguments(target, 0, FunctionReference.class);
+      guard = GUARD.bindTo(targetFunctionReference);
+    }
     MethodType type = invoker.type();
     if (callSite.argumentNames.length > 0) {
-      invoker = reorderArguments(
-          targetFunctionReference.parameterNames(),
-          invoker,
-          callSite.argumentNames);
+      invoker = callSite.reorderedInvoker(target, targetFunctionReference.parameterNames(), invoker);
     }
-    if (target.isVarargsCollector()) {
+    if (targetFunctionReference.isVarargsCollector()) {
       if (TypeMatching.isLastArgumentAnArray(type.parameterCount(), args)) {
         invoker = invoker.asFixedArity().asType(callSite.type());
       } else {
         invoker = invoker.asCollector(
             Object[].class,
-            callSite.type().parameterCount() - target.type().parameterCount())
+            callSite.type().parameterCount() - targetFunctionReference.arity())
           .asType(callSite.type());
       }
     } else {
@@ -114,7 +157,6 @@ public final class ClosureCallSupport {
       callSite.setTarget(constant.asType(type));
       return constantValue;
     } else {
-      MethodHandle guard = GUARD.bindTo(targetFunctionReference);
       MethodHandle root = guardWithTest(guard, invoker, callSite.fallback);
       callSite.setTarget(root);
       return invoker.invokeWithArguments(args);
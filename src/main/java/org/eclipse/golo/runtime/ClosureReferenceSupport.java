@@ -26,10 +26,20 @@ public final class ClosureReferenceSupport {
     throw new UnsupportedOperationException("Don't instantiate invokedynamic bootstrap class");
   }
 
+  /**
+   * Bootstraps a closure reference.
+   * <p>
+   * The call site gives the reference to the closure function, or creates a reference to a closure capturing the call
+   * site arguments, if any.
+   */
   public static CallSite bootstrap(Lookup caller, String name, MethodType type, String moduleClass, int arity, int varargs) throws Throwable {
     Class<?> module = caller.lookupClass().getClassLoader().loadClass(moduleClass);
     Method function = module.getDeclaredMethod(name, genericMethodType(arity, varargs == 1).parameterArray());
     function.setAccessible(true);
+    if (type.parameterCount() > 0) {
+      return new ConstantCallSite(new CapturingFunctionReference.Site(
+            caller.unreflect(function), parameterNames(function), type.parameterCount()).factory());
+    }
     return new ConstantCallSite(constant(
           FunctionReference.class,
           new FunctionReference(caller.unreflect(function), parameterNames(function))));
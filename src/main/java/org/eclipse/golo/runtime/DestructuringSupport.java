@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2012-2021 Institut National des Sciences Appliquées de Lyon (INSA Lyon) and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.golo.runtime;
+
+import gololang.GoloStruct;
+import gololang.Tuple;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.ConstantCallSite;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodHandles.Lookup;
+import java.lang.invoke.MethodType;
+import java.util.Map;
+
+import static java.lang.invoke.MethodHandles.guardWithTest;
+import static java.lang.invoke.MethodHandles.identity;
+import static java.lang.invoke.MethodHandles.insertArguments;
+import static java.lang.invoke.MethodType.genericMethodType;
+import static java.lang.invoke.MethodType.methodType;
+
+/**
+ * Bootstrap of the destructuring assignments.
+ * <p>
+ * A destructuring assignment {@code let a, b = expr} is compiled to a {@code destruct} invocation on the value of
+ * {@code expr}, followed by an {@code element} invocation for each assigned reference. In the general case, the
+ * {@code destruct} invocation calls the {@code __$$_destruct} method of the value, giving an array of the values to
+ * assign. When the value is a tuple, an array or a structure with exactly as many values as references, or a map
+ * entry destructured to two references, the {@code destruct} invocation gives the value itself, and the
+ * {@code element} invocations read the values directly from it, such that no array is allocated.
+ */
+public final class DestructuringSupport {
+
+  private static final MethodHandle IS_DIRECT;
+  private static final MethodHandle IS_KNOWN;
+  private static final MethodHandle ELEMENT;
+
+  private static final ClassValue<int[]> STRUCT_SIZES = new ClassValue<int[]>() {
+    @Override
+    protected int[] computeValue(Class<?> type) {
+      return new int[]{-1};
+    }
+  };
+
+  private static final ClassValue<Boolean> OWN_DESTRUCT = new ClassValue<Boolean>() {
+    @Override
+    protected Boolean computeValue(Class<?> type) {
+      try {
+        type.getMethod("__$$_destruct", int.class, boolean.class, Object[].class);
+        return true;
+      } catch (NoSuchMethodException e) {
+        return false;
+      }
+    }
+  };
+
+  static {
+    try {
+      Lookup lookup = MethodHandles.lookup();
+      IS_DIRECT = lookup.findStatic(DestructuringSupport.class, "isDirect",
+          methodType(boolean.class, int.class, Object.class));
+      IS_KNOWN = lookup.findStatic(DestructuringSupport.class, "isKnown",
+          methodType(boolean.class, Object.class));
+      ELEMENT = lookup.findStatic(DestructuringSupport.class, "element",
+          methodType(Object.class, int.class, Object.class));
+    } catch (NoSuchMethodException | IllegalAccessException e) {
+      throw new Error("Could not bootstrap the required method handles", e);
+    }
+  }
+
+  private DestructuringSupport() {
+    throw new UnsupportedOperationException("Don't instantiate invokedynamic bootstrap class");
+  }
+
+  /**
+   * Bootstraps a destructuring invocation.
+   *
+   * @param caller the caller lookup.
+   * @param name {@code destruct} for the values to destructure, or {@code element} for a value to assign.
+   * @param type the {@code (Object)Object} type.
+   * @param args for {@code destruct}, the number of references, {@code 1} if the last one takes the remaining values,
+   * and {@code 1} for each skipped reference, {@code 0} otherwise; for {@code element}, the index of the value.
+   * @return a constant call site.
+   */
+  public static CallSite bootstrap(Lookup caller, String name, MethodType type, Object... args) {
+    if ("element".equals(name)) {
+      int index = (Integer) args[0];
+      MethodHandle get = insertArguments(
+          MethodInvocationSupport.bootstrap(caller, "get", genericMethodType(2), 0).dynamicInvoker(), 1, index);
+      return new ConstantCallSite(
+          guardWithTest(IS_KNOWN, insertArguments(ELEMENT, 0, index), get).asType(type));
+    }
+    int number = (Integer) args[0];
+    boolean substruct = ((Integer) args[1]) == 1;
+    Object[] toSkip = new Object[args.length - 2];
+    for (int i = 0; i < toSkip.length; i++) {
+      toSkip[i] = ((Integer) args[i + 2]) == 1;
+    }
+    MethodHandle destruct = insertArguments(
+        MethodInvocationSupport.bootstrap(caller, "__$$_destruct", genericMethodType(4), 0).dynamicInvoker(),
+        1, number, substruct, toSkip);
+    if (substruct) {
+      return new ConstantCallSite(destruct.asType(type));
+    }
+    return new ConstantCallSite(
+        guardWithTest(insertArguments(IS_DIRECT, 0, number), identity(Object.class), destruct).asType(type));
+  }
+
+  /**
+   * Tells if the values can be read from the destructured value itself.
+   */
+  static boolean isDirect(int number, Object value) {
+    if (value instanceof Tuple) {
+      return ((Tuple) value).size() == number;
+    }
+    if (value instanceof Object[]) {
+      return ((Object[]) value).length == number;
+    }
+    if (value instanceof GoloStruct) {
+      // the members are the same for all the instances of a structure class
+      int[] size = STRUCT_SIZES.get(value.getClass());
+      if (size[0] < 0) {
+        size[0] = ((GoloStruct) value).members().size();
+      }
+      return size[0] == number;
+    }
+    if (value instanceof Map.Entry) {
+      return number == 2 && !OWN_DESTRUCT.get(value.getClass());
+    }
+    return false;
+  }
+
+  static boolean isKnown(Object value) {
+    return value instanceof Object[]
+      || value instanceof Tuple
+      || value instanceof GoloStruct
+      || value instanceof Map.Entry;
+  }
+
+  static Object element(int index, Object value) {
+    if (value instanceof Object[]) {
+      return ((Object[]) value)[index];
+    }
+    if (value instanceof Tuple) {
+      return ((Tuple) value).get(index);
+    }
+    if (value instanceof GoloStruct) {
+      return ((GoloStruct) value).get(index);
+    }
+    Map.Entry<?, ?> entry = (Map.Entry<?, ?>) value;
+    return index == 0 ? entry.getKey() : entry.getValue();
+  }
+}
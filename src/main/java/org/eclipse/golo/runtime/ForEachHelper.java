@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2012-2021 Institut National des Sciences Appliquées de Lyon (INSA Lyon) and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.golo.runtime;
+
+import gololang.Predefined;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Array;
+
+import static java.lang.invoke.MethodType.methodType;
+
+/**
+ * Helpers for the counted {@code foreach} loops generated by the compiler.
+ */
+public final class ForEachHelper {
+
+  private static final Class<?> INT_RANGE = Predefined.range(0, 0).getClass();
+  private static final Class<?> LONG_RANGE = Predefined.range(0L, 0L).getClass();
+
+  private static final ClassValue<MethodHandle> ELEMENT_GETTERS = new ClassValue<MethodHandle>() {
+    @Override
+    protected MethodHandle computeValue(Class<?> type) {
+      return MethodHandles.arrayElementGetter(type).asType(methodType(Object.class, Object.class, int.class));
+    }
+  };
+
+  private ForEachHelper() {
+    throw new UnsupportedOperationException("Don't instantiate utility classes");
+  }
+
+  /**
+   * Checks if a value is an integer range, as created by {@code range} with integer bounds, that can be iterated over
+   * with a primitive counter.
+   *
+   * @param value the iterated value.
+   * @return {@code true} if the value is a {@code gololang.Range} of integers.
+   */
+  public static boolean isIntRange(Object value) {
+    return value != null && value.getClass() == INT_RANGE;
+  }
+
+  /**
+   * Checks if a value is a long range, as created by {@code range} with a long bound, that can be iterated over with
+   * a primitive counter.
+   *
+   * @param value the iterated value.
+   * @return {@code true} if the value is a {@code gololang.Range} of longs.
+   */
+  public static boolean isLongRange(Object value) {
+    return value != null && value.getClass() == LONG_RANGE;
+  }
+
+  /**
+   * Gives the length of an array, that can be iterated over with a primitive counter.
+   *
+   * @param value the iterated value.
+   * @return the length of the array, or {@code -1} if the value is not an array.
+   */
+  public static int arrayLength(Object value) {
+    if (value instanceof Object[]) {
+      return ((Object[]) value).length;
+    }
+    if (value != null && value.getClass().isArray()) {
+      return Array.getLength(value);
+    }
+    return -1;
+  }
+
+  /**
+   * Prepares an array to be iterated over with a primitive counter.
+   * <p>
+   * The elements of the object arrays are directly loaded by the generated code, so they are returned as is. The
+   * primitive arrays are wrapped in accessors specialized for their component type, such that the type is checked once
+   * per loop and not for each element.
+   *
+   * @param array the iterated array.
+   * @return the array itself, or its {@link PrimitiveElements}.
+   */
+  public static Object counted(Object array) {
+    if (array instanceof Object[]) {
+      return array;
+    }
+    return primitiveElements(array);
+  }
+
+  /**
+   * Gives the accessor to the elements of a primitive array.
+   *
+   * @param array the primitive array.
+   * @return the accessor specialized for the array component type.
+   */
+  public static PrimitiveElements primitiveElements(Object array) {
+    if (array == null || !array.getClass().isArray() || !array.getClass().getComponentType().isPrimitive()) {
+      throw new IllegalArgumentException("Not a primitive array: " + array);
+    }
+    return new PrimitiveElements(array, ELEMENT_GETTERS.get(array.getClass()));
+  }
+
+  /**
+   * Reads the elements of a primitive array, boxing only the element being read.
+   * <p>
+   * The elements are read with the {@link MethodHandles#arrayElementGetter(Class)} of the array class.
+   */
+  public static final class PrimitiveElements {
+
+    private final Object array;
+    private final MethodHandle getter;
+    private final int length;
+
+    PrimitiveElements(Object array, MethodHandle getter) {
+      this.array = array;
+      this.getter = getter;
+      this.length = Array.getLength(array);
+    }
+
+    /**
+     * @return the array length.
+     */
+    public int length() {
+      return length;
+    }
+
+    /**
+     * Gives a boxed element.
+     *
+     * @param index the element index.
+     * @return the element.
+     */
+    public Object get(int index) {
+      try {
+        return (Object) getter.invokeExact(array, index);
+      } catch (RuntimeException | Error e) {
+        throw e;
+      } catch (Throwable t) {
+        throw new IllegalStateException(t);
+      }
+    }
+  }
+}
@@ -58,8 +58,6 @@ public final class FunctionCallSupport {
   }
 
   private static final MethodHandle FALLBACK;
-  private static final MethodHandle SAM_FILTER;
-  private static final MethodHandle FUNCTIONAL_INTERFACE_FILTER;
 
   static {
     try {
@@ -68,14 +66,6 @@ public final class FunctionCallSupport {
           FunctionCallSupport.class,
           "fallback",
           methodType(Object.class, FunctionCallSite.class, Object[].class));
-      SAM_FILTER = lookup.findStatic(
-          FunctionCallSupport.class,
-          "samFilter",
-          methodType(Object.class, Class.class, Object.class));
-      FUNCTIONAL_INTERFACE_FILTER = lookup.findStatic(
-          FunctionCallSupport.class,
-          "functionalInterfaceFilter",
-          methodType(Object.class, Lookup.class, Class.class, Object.class));
     } catch (NoSuchMethodException | IllegalAccessException e) {
       throw new Error("Could not bootstrap the required method handles", e);
     }
@@ -90,26 +80,13 @@ public final class FunctionCallSupport {
 
   public static Object functionalInterfaceFilter(Lookup caller, Class<?> type, Object value) throws Throwable {
     if (value instanceof FunctionReference) {
-      return asFunctionalInterface(caller, type, ((FunctionReference) value).handle());
+      return InterfaceConversion.convert(caller, type, (FunctionReference) value);
     }
     return value;
   }
 
   public static Object asFunctionalInterface(Lookup caller, Class<?> type, MethodHandle handle) throws Throwable {
-    for (Method method : type.getMethods()) {
-      if (!method.isDefault() && !isStatic(method.getModifiers())) {
-        MethodType lambdaType = methodType(method.getReturnType(), method.getParameterTypes());
-        CallSite callSite = LambdaMetafactory.metafactory(
-            caller,
-            method.getName(),
-            methodType(type),
-            lambdaType,
-            handle,
-            lambdaType);
-        return callSite.dynamicInvoker().invoke();
-      }
-    }
-    throw new RuntimeException(message("handle_conversion_failed", handle, type));
+    return InterfaceConversion.convert(caller, type, new FunctionReference(handle));
   }
 
   public static CallSite bootstrap(Lookup caller, String name, MethodType type, Object... bsmArgs) throws IllegalAccessException, ClassNotFoundException {
@@ -229,13 +206,8 @@ public final class FunctionCallSupport {
   public static MethodHandle insertSAMFilter(MethodHandle handle, Lookup caller, Class<?>[] types, int startIndex) {
     if (types != null) {
       for (int i = 0; i < types.length; i++) {
-        if (TypeMatching.isSAM(types[i])) {
-          handle = MethodHandles.filterArguments(handle, startIndex + i, SAM_FILTER.bindTo(types[i]));
-        } else if (TypeMatching.isFunctionalInterface(types[i])) {
-          handle = MethodHandles.filterArguments(
-              handle,
-              startIndex + i,
-              FUNCTIONAL_INTERFACE_FILTER.bindTo(caller).bindTo(types[i]));
+        if (TypeMatching.isSAM(types[i]) || TypeMatching.isFunctionalInterface(types[i])) {
+          handle = MethodHandles.filterArguments(handle, startIndex + i, InterfaceConversion.filter(caller, types[i]));
         }
       }
     }
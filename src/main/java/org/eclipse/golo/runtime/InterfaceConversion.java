@@ -0,0 +1,236 @@
+/*
+ * Copyright (c) 2012-2021 Institut National des Sciences Appliquées de Lyon (INSA Lyon) and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.golo.runtime;
+
+import gololang.FunctionReference;
+
+import java.lang.invoke.LambdaConversionException;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandleProxies;
+import java.lang.invoke.MethodHandles.Lookup;
+import java.lang.invoke.MethodType;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import static java.lang.invoke.MethodHandles.constant;
+import static java.lang.invoke.MethodHandles.dropArguments;
+import static java.lang.invoke.MethodHandles.filterArguments;
+import static java.lang.invoke.MethodHandles.lookup;
+import static java.lang.invoke.MethodType.methodType;
+import static java.lang.reflect.Modifier.isAbstract;
+
+/**
+ * Conversion of function references into instances of an interface with a single abstract method.
+ * <p>
+ * The function references given to Java methods taking such an interface are converted on each call. A conversion
+ * uses {@link LambdaMetafactory} as the Java lambdas do. The call sites keep the resulting factory of the functions
+ * they converted, such that the reference to such a function is always converted into the same instance, and a
+ * closure capturing values is converted by only instantiating the lambda class with the captured values. Since this
+ * cache belongs to the call site, it is collected with the calling class, and the lambda classes are defined for the
+ * right caller. The functions that can't be converted this way, such as the partially applied ones, are converted
+ * with {@link MethodHandleProxies#asInterfaceInstance(Class, MethodHandle)}.
+ * <p>
+ * A call site first looks up the factories of its first {@value #MAX_ENTRIES} functions in an array, and then in a
+ * map. Both only weakly reference the functions, so that the short-lived ones are not retained by the call site.
+ */
+final class InterfaceConversion {
+
+  private static final ClassValue<Method[]> FUNCTIONAL_METHODS = new ClassValue<Method[]>() {
+    @Override
+    protected Method[] computeValue(Class<?> type) {
+      Method method = functionalMethod(type);
+      return method == null ? new Method[0] : new Method[]{method};
+    }
+  };
+
+  private static final int MAX_ENTRIES = 8;
+
+  private static final MethodHandle FILTER;
+  private static final MethodHandle CAPTURED;
+  private static final MethodHandle HANDLE;
+  private static final MethodHandle PROXY;
+
+  static {
+    try {
+      Lookup lookup = lookup();
+      FILTER = lookup.findVirtual(InterfaceConversion.class, "filter",
+          methodType(Object.class, Object.class));
+      CAPTURED = lookup.findVirtual(CapturingFunctionReference.class, "captured", methodType(Object[].class))
+          .asType(methodType(Object[].class, FunctionReference.class));
+      HANDLE = lookup.findVirtual(FunctionReference.class, "handle", methodType(MethodHandle.class));
+      PROXY = lookup.findStatic(MethodHandleProxies.class, "asInterfaceInstance",
+          methodType(Object.class, Class.class, MethodHandle.class));
+    } catch (NoSuchMethodException | IllegalAccessException e) {
+      throw new Error("Could not bootstrap the required method handles", e);
+    }
+  }
+
+  private static final class Entry extends WeakReference<Object> {
+    private final MethodHandle factory;
+
+    Entry(Object key, MethodHandle factory) {
+      super(key);
+      this.factory = factory;
+    }
+  }
+
+  private final Lookup caller;
+  private final Class<?> type;
+  private final Method method;
+  private volatile Entry[] entries = new Entry[0];
+  private Map<Object, MethodHandle> megamorphic;
+
+  private InterfaceConversion(Lookup caller, Class<?> type) {
+    this.caller = caller;
+    this.type = type;
+    Method[] methods = FUNCTIONAL_METHODS.get(type);
+    this.method = methods.length == 0 ? null : methods[0];
+  }
+
+  /**
+   * Gives the filter converting the function references into instances of the interface, to be used by a call site.
+   *
+   * @param caller the lookup of the class where the conversion occurs.
+   * @param type the interface.
+   * @return a {@code (Object)Object} method handle.
+   */
+  static MethodHandle filter(Lookup caller, Class<?> type) {
+    return FILTER.bindTo(new InterfaceConversion(caller, type));
+  }
+
+  /**
+   * Converts a function reference into an instance of the interface, without caching the conversion.
+   */
+  static Object convert(Lookup caller, Class<?> type, FunctionReference function) throws Throwable {
+    return new InterfaceConversion(caller, type).convert(function);
+  }
+
+  private static Method functionalMethod(Class<?> type) {
+    for (Method method : type.getMethods()) {
+      if (isAbstract(method.getModifiers()) && !isObjectMethod(method)) {
+        return method;
+      }
+    }
+    return null;
+  }
+
+  private static boolean isObjectMethod(Method method) {
+    try {
+      Object.class.getMethod(method.getName(), method.getParameterTypes());
+      return true;
+    } catch (NoSuchMethodException e) {
+      return false;
+    }
+  }
+
+  Object filter(Object value) throws Throwable {
+    if (value instanceof FunctionReference) {
+      return convert((FunctionReference) value);
+    }
+    return value;
+  }
+
+  private Object convert(FunctionReference function) throws Throwable {
+    Object key;
+    MethodHandle implementation;
+    int capturedCount;
+    if (function instanceof CapturingFunctionReference) {
+      CapturingFunctionReference.Site site = ((CapturingFunctionReference) function).site();
+      key = site;
+      implementation = site.target();
+      capturedCount = ((CapturingFunctionReference) function).captured().length;
+    } else {
+      key = function.handle();
+      implementation = function.handle();
+      capturedCount = 0;
+    }
+    MethodHandle factory = cached(key);
+    if (factory == null) {
+      factory = factory(implementation, capturedCount);
+      cache(key, factory);
+    }
+    return factory.invokeExact(function);
+  }
+
+  private MethodHandle cached(Object key) {
+    for (Entry entry : entries) {
+      if (entry.get() == key) {
+        return entry.factory;
+      }
+    }
+    synchronized (this) {
+      return megamorphic == null ? null : megamorphic.get(key);
+    }
+  }
+
+  private synchronized void cache(Object key, MethodHandle factory) {
+    Entry[] current = entries;
+    for (int i = 0; i < current.length; i++) {
+      if (current[i].get() == null) {
+        Entry[] updated = current.clone();
+        updated[i] = new Entry(key, factory);
+        entries = updated;
+        return;
+      }
+    }
+    if (current.length < MAX_ENTRIES) {
+      Entry[] updated = Arrays.copyOf(current, current.length + 1);
+      updated[current.length] = new Entry(key, factory);
+      entries = updated;
+      return;
+    }
+    if (megamorphic == null) {
+      megamorphic = new WeakHashMap<>();
+    }
+    megamorphic.put(key, factory);
+  }
+
+  /**
+   * Gives a {@code (FunctionReference)Object} handle creating the interface instance from the function.
+   * <p>
+   * The handle does not reference the function, so that the function can be collected while its factory is cached.
+   */
+  private MethodHandle factory(MethodHandle implementation, int capturedCount) throws Throwable {
+    MethodHandle lambdaFactory = lambdaFactory(implementation, capturedCount);
+    if (lambdaFactory == null) {
+      return filterArguments(PROXY.bindTo(type), 0, HANDLE);
+    }
+    if (capturedCount == 0) {
+      return dropArguments(constant(Object.class, lambdaFactory.invoke()), 0, FunctionReference.class);
+    }
+    return filterArguments(
+        lambdaFactory.asSpreader(Object[].class, capturedCount).asType(methodType(Object.class, Object[].class)),
+        0, CAPTURED);
+  }
+
+  /**
+   * Gives the handle creating the lambda from the captured values, or {@code null} if the function can't be
+   * converted into a lambda.
+   */
+  private MethodHandle lambdaFactory(MethodHandle implementation, int capturedCount) {
+    if (method == null) {
+      return null;
+    }
+    MethodType lambdaType = methodType(method.getReturnType(), method.getParameterTypes());
+    MethodType factoryType = methodType(type, implementation.type().parameterList().subList(0, capturedCount));
+    try {
+      return LambdaMetafactory.metafactory(
+          caller, method.getName(), factoryType, lambdaType, implementation, lambdaType).getTarget();
+    } catch (LambdaConversionException | IllegalArgumentException e) {
+      // not a direct method handle accessible from the caller, or incompatible types
+      return null;
+    }
+  }
+}
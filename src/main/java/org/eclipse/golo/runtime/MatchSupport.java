@@ -0,0 +1,252 @@
+/*
+ * Copyright (c) 2012-2021 Institut National des Sciences Appliquées de Lyon (INSA Lyon) and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.golo.runtime;
+
+import gololang.Union;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.ConstantCallSite;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodHandles.Lookup;
+import java.lang.invoke.MethodType;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static java.lang.invoke.MethodHandles.constant;
+import static java.lang.invoke.MethodHandles.dropArguments;
+import static java.lang.invoke.MethodType.methodType;
+
+/**
+ * Bootstrap of the switches on the conditions of a {@code case} or {@code match}.
+ * <p>
+ * When all the conditions of an {@code if}/{@code else if} chain compare the same reference with {@code ==} to
+ * constants, or check its type with {@code oftype}, the compiler selects the branch with a single invocation giving
+ * the index of the first condition that holds. The index is {@link #NO_MATCH} if none holds, and
+ * {@link #UNKNOWN} if the conditions have to be evaluated as usual, as when the equality of the value with the
+ * constants can't be decided from the hash codes.
+ * <p>
+ * The conditions testing a union value with its {@code is<Value>()} methods are decided from the class of the value,
+ * since each value of a union is an instance of its own class. The index of each class is then cached by its
+ * {@link Union#unionOrdinal()}.
+ */
+public final class MatchSupport {
+
+  /**
+   * The index when no condition holds.
+   */
+  public static final int NO_MATCH = -1;
+
+  /**
+   * The index when the conditions must be evaluated.
+   */
+  public static final int UNKNOWN = -2;
+
+  private static final MethodHandle EQUALS_INDEX;
+  private static final MethodHandle TYPE_INDEX;
+  private static final MethodHandle UNION_INDEX;
+
+  static {
+    try {
+      Lookup lookup = MethodHandles.lookup();
+      EQUALS_INDEX = lookup.findVirtual(EqualsSwitch.class, "index", methodType(int.class, Object.class));
+      TYPE_INDEX = lookup.findVirtual(TypeSwitch.class, "index", methodType(int.class, Object.class));
+      UNION_INDEX = lookup.findVirtual(UnionSwitch.class, "index", methodType(int.class, Object.class));
+    } catch (NoSuchMethodException | IllegalAccessException e) {
+      throw new Error("Could not bootstrap the required method handles", e);
+    }
+  }
+
+  private MatchSupport() {
+    throw new UnsupportedOperationException("Don't instantiate invokedynamic bootstrap class");
+  }
+
+  /**
+   * Bootstraps a switch.
+   *
+   * @param caller the caller lookup.
+   * @param name {@code equals} for a switch on constants, {@code oftype} for a switch on class names, or
+   * {@code union} for a switch on union value names.
+   * @param type the {@code (Object)int} type.
+   * @param keys the constants, the class names or the value names, in the order of the conditions.
+   * @return a constant call site giving the index of the first matching condition.
+   */
+  public static CallSite bootstrap(Lookup caller, String name, MethodType type, Object... keys) {
+    MethodHandle index;
+    if ("oftype".equals(name)) {
+      Class<?>[] types = new Class<?>[keys.length];
+      for (int i = 0; i < keys.length; i++) {
+        try {
+          types[i] = ClassReferenceSupport.resolve(caller, (String) keys[i]);
+        } catch (ClassNotFoundException e) {
+          // the failure is raised when evaluating the condition, as without the switch
+          return new ConstantCallSite(dropArguments(constant(int.class, UNKNOWN), 0, Object.class).asType(type));
+        }
+      }
+      index = TYPE_INDEX.bindTo(new TypeSwitch(types));
+    } else if ("union".equals(name)) {
+      index = UNION_INDEX.bindTo(new UnionSwitch(keys));
+    } else {
+      index = EQUALS_INDEX.bindTo(new EqualsSwitch(keys));
+    }
+    return new ConstantCallSite(index.asType(type));
+  }
+
+  static final class EqualsSwitch {
+
+    private final Map<Object, Integer> indexes = new HashMap<>();
+    private final Class<?>[] exactTypes;
+
+    EqualsSwitch(Object[] keys) {
+      Set<Class<?>> types = new LinkedHashSet<>();
+      for (int i = 0; i < keys.length; i++) {
+        indexes.putIfAbsent(keys[i], i);
+        types.add(keys[i].getClass());
+      }
+      if (types.contains(Integer.class) && types.contains(Long.class)) {
+        // the numeric equality holds between different types
+        types.remove(Integer.class);
+        types.remove(Long.class);
+      }
+      exactTypes = types.toArray(new Class<?>[types.size()]);
+    }
+
+    int index(Object value) {
+      if (value == null) {
+        return NO_MATCH;
+      }
+      Class<?> type = value.getClass();
+      for (Class<?> exactType : exactTypes) {
+        if (type == exactType) {
+          Integer index = indexes.get(value);
+          return index == null ? NO_MATCH : index;
+        }
+      }
+      return UNKNOWN;
+    }
+  }
+
+  static final class TypeSwitch extends ClassValue<Integer> {
+
+    private final Class<?>[] types;
+
+    TypeSwitch(Class<?>[] types) {
+      this.types = types;
+    }
+
+    @Override
+    protected Integer computeValue(Class<?> type) {
+      for (int i = 0; i < types.length; i++) {
+        if (types[i].isAssignableFrom(type)) {
+          return i;
+        }
+      }
+      return NO_MATCH;
+    }
+
+    int index(Object value) {
+      if (value == null) {
+        return NO_MATCH;
+      }
+      return get(value.getClass());
+    }
+  }
+
+  static final class UnionSwitch extends ClassValue<Integer> {
+
+    private static final int NOT_COMPUTED = Integer.MIN_VALUE;
+
+    /**
+     * The clause indexes of the values of a union, by value ordinal.
+     */
+    private static final class Table {
+      private final Class<?> union;
+      private final int[] indexes;
+
+      Table(Class<?> union, int[] indexes) {
+        this.union = union;
+        this.indexes = indexes;
+      }
+    }
+
+    private final String[] names;
+    private volatile Table table = new Table(null, new int[0]);
+
+    UnionSwitch(Object[] names) {
+      this.names = new String[names.length];
+      for (int i = 0; i < names.length; i++) {
+        this.names[i] = (String) names[i];
+      }
+    }
+
+    @Override
+    protected Integer computeValue(Class<?> type) {
+      Class<?> union = type.getSuperclass();
+      if (union == null || union == Union.class || !Union.class.isAssignableFrom(union)
+          || type.getDeclaringClass() != union) {
+        return UNKNOWN;
+      }
+      for (int i = 0; i < names.length; i++) {
+        if (!isValueTest(union, names[i])) {
+          // not a generated test method, that must be invoked
+          return UNKNOWN;
+        }
+        if (type.getSimpleName().equals(names[i])) {
+          return i;
+        }
+      }
+      return NO_MATCH;
+    }
+
+    private static boolean isValueTest(Class<?> union, String name) {
+      try {
+        return union.getDeclaredMethod("is" + name).getReturnType() == boolean.class;
+      } catch (NoSuchMethodException e) {
+        return false;
+      }
+    }
+
+    int index(Object value) {
+      if (!(value instanceof Union)) {
+        return UNKNOWN;
+      }
+      int ordinal = ((Union) value).unionOrdinal();
+      Class<?> union = value.getClass().getSuperclass();
+      Table current = table;
+      if (current.union == union && ordinal >= 0 && ordinal < current.indexes.length
+          && current.indexes[ordinal] != NOT_COMPUTED) {
+        return current.indexes[ordinal];
+      }
+      int index = get(value.getClass());
+      if (ordinal >= 0) {
+        remember(union, ordinal, index);
+      }
+      return index;
+    }
+
+    private synchronized void remember(Class<?> union, int ordinal, int index) {
+      Table current = table;
+      int[] indexes;
+      if (current.union == union) {
+        indexes = Arrays.copyOf(current.indexes, Math.max(current.indexes.length, ordinal + 1));
+        Arrays.fill(indexes, current.indexes.length, indexes.length, NOT_COMPUTED);
+      } else {
+        indexes = new int[ordinal + 1];
+        Arrays.fill(indexes, NOT_COMPUTED);
+      }
+      indexes[ordinal] = index;
+      table = new Table(union, indexes);
+    }
+  }
+}
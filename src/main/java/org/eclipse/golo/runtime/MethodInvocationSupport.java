@@ -11,6 +11,7 @@
 package org.eclipse.golo.runtime;
 
 import gololang.DynamicObject;
+import gololang.FunctionReference;
 
 import java.lang.invoke.*;
 import java.lang.invoke.MethodHandles.Lookup;
@@ -19,6 +20,7 @@ import java.util.HashSet;
 import java.util.WeakHashMap;
 
 import static java.lang.invoke.MethodHandles.*;
+import static java.lang.invoke.MethodType.genericMethodType;
 import static java.lang.invoke.MethodType.methodType;
 
 
@@ -64,6 +66,7 @@ public final class MethodInvocationSupport {
   }
 
   private static final MethodHandle CLASS_GUARD;
+  private static final MethodHandle PROPERTY_GUARD;
   private static final MethodHandle FALLBACK;
   private static final MethodHandle RESET_FALLBACK;
   private static final MethodHandle VTABLE_LOOKUP;
@@ -102,6 +105,11 @@ public final class MethodInvocationSupport {
           "classGuard",
           methodType(boolean.class, Class.class, Object.class));
 
+      PROPERTY_GUARD = lookup.findStatic(
+          MethodInvocationSupport.class,
+          "propertyGuard",
+          methodType(boolean.class, String.class, Object.class, Object.class));
+
       FALLBACK = lookup.findStatic(
           MethodInvocationSupport.class,
           "fallback",
@@ -170,6 +178,10 @@ public final class MethodInvocationSupport {
     return receiver.getClass() == expected;
   }
 
+  public static boolean propertyGuard(String name, Object expected, Object receiver) {
+    return ((DynamicObject) receiver).get(name) == expected;
+  }
+
   public static boolean overloadedGuard_generic(Class<?>[] types, Object[] arguments) {
     if (arguments[0].getClass() != types[0]) {
       return false;
@@ -219,8 +231,7 @@ public final class MethodInvocationSupport {
       return new ArrayMethodFinder(invocation, inlineCache.callerLookup).find();
     }
     if (isCallOnDynamicObject(inlineCache, args[0])) {
-      DynamicObject dynamicObject = (DynamicObject) args[0];
-      return dynamicObject.invoker(inlineCache.name, inlineCache.type());
+      return dynamicObjectTarget((DynamicObject) args[0], inlineCache);
     } else {
       return findTarget(invocation, inlineCache);
     }
@@ -309,6 +320,27 @@ public final class MethodInvocationSupport {
     return vtableTarget.invokeWithArguments(args);
   }
 
+  /*
+   * The generic dispatch looks the property up and adapts the call to the function found at each invocation.
+   * When the property is a function taking exactly the receiver and the arguments, the call is instead linked to the
+   * function handle, guarded on the identity of the property value. Defining or undefining the property changes this
+   * value, and the objects sharing their methods, such as the copies of a prototype, take the direct path.
+   */
+  private static MethodHandle dynamicObjectTarget(DynamicObject receiver, InlineCache inlineCache) {
+    MethodType type = inlineCache.type();
+    MethodHandle dispatch = receiver.invoker(inlineCache.name, type);
+    Object value = receiver.get(inlineCache.name);
+    if (!(value instanceof FunctionReference)) {
+      return dispatch;
+    }
+    FunctionReference function = (FunctionReference) value;
+    if (function.isVarargsCollector() || function.arity() != type.parameterCount()) {
+      return dispatch;
+    }
+    MethodHandle guard = insertArguments(PROPERTY_GUARD, 0, inlineCache.name, function);
+    return guardWithTest(guard, function.handle().asType(genericMethodType(type.parameterCount())), dispatch);
+  }
+
   private static boolean isCallOnDynamicObject(InlineCache inlineCache, Object arg) {
     return (arg instanceof DynamicObject)
       && !DYNAMIC_OBJECT_RESERVED_METHOD_NAMES.contains(inlineCache.name)
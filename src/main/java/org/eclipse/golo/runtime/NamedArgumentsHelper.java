@@ -16,6 +16,9 @@ import java.lang.invoke.MethodHandle;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static java.util.stream.Collectors.toList;
 import static gololang.Messages.message;
@@ -23,6 +26,59 @@ import static java.lang.invoke.MethodHandles.permuteArguments;
 
 public final class NamedArgumentsHelper {
 
+  /**
+   * The parameter names of the methods, by declaring class, since they are read by reflection.
+   */
+  private static final ClassValue<Map<Method, List<String>>> PARAMETER_NAMES = new ClassValue<Map<Method, List<String>>>() {
+    @Override
+    protected Map<Method, List<String>> computeValue(Class<?> klass) {
+      return new ConcurrentHashMap<>();
+    }
+  };
+
+  /**
+   * The arguments orders of the named arguments invocations.
+   * <p>
+   * An order only depends on the parameter names and on the argument names, and is thus shared by all the call sites
+   * invoking functions with the same parameters with the same names, including the closures relinked for each
+   * closure instance.
+   */
+  private static final Map<OrderKey, int[]> ARGUMENTS_ORDERS = new ConcurrentHashMap<>();
+
+  private static final class OrderKey {
+    private final List<String> parameterNames;
+    private final List<String> argumentNames;
+    private final int nameOffset;
+    private final int orderOffset;
+
+    OrderKey(List<String> parameterNames, String[] argumentNames, int nameOffset, int orderOffset) {
+      this.parameterNames = parameterNames;
+      this.argumentNames = Arrays.asList(argumentNames);
+      this.nameOffset = nameOffset;
+      this.orderOffset = orderOffset;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      if (this == other) {
+        return true;
+      }
+      if (!(other instanceof OrderKey)) {
+        return false;
+      }
+      OrderKey that = (OrderKey) other;
+      return nameOffset == that.nameOffset
+        && orderOffset == that.orderOffset
+        && parameterNames.equals(that.parameterNames)
+        && argumentNames.equals(that.argumentNames);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(parameterNames, argumentNames, nameOffset, orderOffset);
+    }
+  }
+
   private NamedArgumentsHelper() {
     // utility class
   }
@@ -32,10 +88,14 @@ public final class NamedArgumentsHelper {
   }
 
   public static List<String> getParameterNames(Method method) {
+    return PARAMETER_NAMES.get(method.getDeclaringClass()).computeIfAbsent(method, NamedArgumentsHelper::readParameterNames);
+  }
+
+  private static List<String> readParameterNames(Method method) {
     if (hasNamedParameters(method)) {
-      return Arrays.stream(method.getParameters())
+      return Collections.unmodifiableList(Arrays.stream(method.getParameters())
           .map(Parameter::getName)
-          .collect(toList());
+          .collect(toList()));
     }
     return Collections.emptyList();
   }
@@ -65,7 +125,17 @@ public final class NamedArgumentsHelper {
       Warnings.noParameterNames(methodName, argumentNames);
       return handle;
     }
-    return permuteArguments(handle, handle.type(), getArgumentsOrder(methodName, parameterNames, argumentNames, nameOffset, orderOffset));
+    return permuteArguments(handle, handle.type(), argumentsOrder(methodName, parameterNames, argumentNames, nameOffset, orderOffset));
+  }
+
+  private static int[] argumentsOrder(String methodName, List<String> parameterNames, String[] argumentNames, int nameOffset, int orderOffset) {
+    OrderKey key = new OrderKey(parameterNames, argumentNames, nameOffset, orderOffset);
+    int[] order = ARGUMENTS_ORDERS.get(key);
+    if (order == null) {
+      order = getArgumentsOrder(methodName, parameterNames, argumentNames, nameOffset, orderOffset);
+      ARGUMENTS_ORDERS.putIfAbsent(key, order);
+    }
+    return order;
   }
 
 }
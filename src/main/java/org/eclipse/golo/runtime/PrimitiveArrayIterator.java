@@ -15,6 +15,8 @@ import java.util.Iterator;
 public class PrimitiveArrayIterator implements Iterator<Object> {
 
   private final Object[] array;
+  private final ForEachHelper.PrimitiveElements elements;
+  private final int length;
   private int position = 0;
 
   public PrimitiveArrayIterator(Object[] array) {
@@ -23,17 +25,25 @@ public class PrimitiveArrayIterator implements Iterator<Object> {
     } else {
       this.array = java.util.Arrays.copyOf(array, array.length);
     }
+    this.elements = null;
+    this.length = this.array.length;
+  }
+
+  public PrimitiveArrayIterator(Object array) {
+    this.array = null;
+    this.elements = ForEachHelper.primitiveElements(array);
+    this.length = elements.length();
   }
 
   @Override
   public boolean hasNext() {
-    return position < array.length;
+    return position < length;
   }
 
   @Override
   public Object next() {
     if (hasNext()) {
-      return array[position++];
+      return elements == null ? array[position++] : elements.get(position++);
     } else {
       throw new ArrayIndexOutOfBoundsException(position);
     }
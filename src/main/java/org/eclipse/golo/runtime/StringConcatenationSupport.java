@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2012-2021 Institut National des Sciences Appliquées de Lyon (INSA Lyon) and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.golo.runtime;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.ConstantCallSite;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles.Lookup;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.lang.invoke.MethodHandles.insertArguments;
+import static java.lang.invoke.MethodHandles.lookup;
+import static java.lang.invoke.MethodHandles.publicLookup;
+import static java.lang.invoke.MethodType.methodType;
+
+/**
+ * Bootstrap for the string concatenations.
+ * <p>
+ * The compiler turns a chain of {@code +} operations starting with a string literal, such as
+ * {@code "a" + x + "b" + y}, into a single invocation taking the non-literal operands. The recipe of the
+ * concatenation is given as a bootstrap argument, where each {@code \u0001} character stands for an operand and
+ * any other character is literal, as for {@code java.lang.invoke.StringConcatFactory}.
+ * <p>
+ * On Java 9 and later, the call site is linked by {@code StringConcatFactory}. On Java 8, it builds the string with a
+ * {@code StringBuilder} presized from the recipe. In both cases, the operands are converted as by
+ * {@code String.valueOf}, which is the semantic of the {@code +} operator when one of its operands is a string.
+ */
+public final class StringConcatenationSupport {
+
+  /**
+   * The character standing for an operand in a recipe.
+   */
+  public static final char ARGUMENT = '\u0001';
+
+  /**
+   * The character standing for a constant in a {@code StringConcatFactory} recipe, that is never used by Golo.
+   */
+  public static final char CONSTANT = '\u0002';
+
+  private static final int MAX_FACTORY_ARGUMENTS = 200;
+  private static final int ARGUMENT_SIZE_HINT = 16;
+
+  private static final MethodHandle FACTORY;
+  private static final MethodHandle CONCAT;
+
+  static {
+    MethodHandle factory;
+    try {
+      Class<?> factoryClass = Class.forName("java.lang.invoke.StringConcatFactory");
+      factory = publicLookup().findStatic(factoryClass, "makeConcatWithConstants",
+          methodType(CallSite.class, Lookup.class, String.class, MethodType.class, String.class, Object[].class));
+    } catch (ClassNotFoundException | NoSuchMethodException | IllegalAccessException e) {
+      factory = null;
+    }
+    FACTORY = factory == null ? null : factory.asFixedArity();
+    try {
+      CONCAT = lookup().findStatic(StringConcatenationSupport.class, "concat",
+          methodType(String.class, String[].class, int.class, Object[].class));
+    } catch (NoSuchMethodException | IllegalAccessException e) {
+      throw new Error("Could not bootstrap the required method handles", e);
+    }
+  }
+
+  private StringConcatenationSupport() {
+    throw new UnsupportedOperationException("Don't instantiate invokedynamic bootstrap class");
+  }
+
+  public static CallSite bootstrap(Lookup caller, String name, MethodType type, String recipe) throws Throwable {
+    if (FACTORY != null && type.parameterCount() <= MAX_FACTORY_ARGUMENTS) {
+      return (CallSite) FACTORY.invokeWithArguments(caller, name, type, recipe, new Object[0]);
+    }
+    List<String> fragments = new ArrayList<>();
+    int start = 0;
+    int size = 0;
+    for (int i = 0; i < recipe.length(); i++) {
+      if (recipe.charAt(i) == ARGUMENT) {
+        fragments.add(recipe.substring(start, i));
+        size += i - start + ARGUMENT_SIZE_HINT;
+        start = i + 1;
+      }
+    }
+    fragments.add(recipe.substring(start));
+    size += recipe.length() - start;
+    MethodHandle target = insertArguments(CONCAT, 0, fragments.toArray(new String[fragments.size()]), size)
+        .asCollector(Object[].class, type.parameterCount())
+        .asType(type);
+    return new ConstantCallSite(target);
+  }
+
+  private static String concat(String[] fragments, int size, Object[] args) {
+    StringBuilder builder = new StringBuilder(size);
+    builder.append(fragments[0]);
+    for (int i = 0; i < args.length; i++) {
+      builder.append(args[i]).append(fragments[i + 1]);
+    }
+    return builder.toString();
+  }
+}
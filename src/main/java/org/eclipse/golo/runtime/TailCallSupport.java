@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2012-2021 Institut National des Sciences Appliquées de Lyon (INSA Lyon) and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.golo.runtime;
+
+import gololang.DynamicObject;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.ConstantCallSite;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles.Lookup;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.MutableCallSite;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import static java.lang.invoke.MethodHandles.*;
+import static java.lang.invoke.MethodType.genericMethodType;
+import static java.lang.invoke.MethodType.methodType;
+
+/**
+ * Bootstrap for the guards of the tail method invocations in augmentations.
+ * <p>
+ * In an augmentation function such as
+ * <pre class="listing"><code class="lang-golo" data-lang="golo">
+ * function foldl = |this, func, zero| -> match {
+ *   when this: isEmpty() then zero
+ *   otherwise this: tail(): foldl(func, func(zero, this: head()))
+ * }
+ * </code></pre>
+ * the tail invocation can be compiled into a jump to the beginning of the function, provided that the method
+ * resolved on the receiver is the function itself. The call site takes the receiver and the arguments of the
+ * invocation, and tells if this is the case. The result is cached by receiver class, as for method invocations.
+ */
+public final class TailCallSupport {
+
+  static final class InlineCache extends MutableCallSite {
+
+    private static final int MEGAMORPHIC_THRESHOLD = 5;
+
+    private final Lookup callerLookup;
+    private final String name;
+    private final Method self;
+    private int depth = 0;
+    private Map<Class<?>, Boolean> vtable;
+
+    InlineCache(Lookup caller, String name, MethodType type, Method self) {
+      super(type);
+      this.callerLookup = caller;
+      this.name = name;
+      this.self = self;
+    }
+  }
+
+  private static final MethodHandle CLASS_GUARD;
+  private static final MethodHandle FALLBACK;
+
+  static {
+    try {
+      Lookup lookup = lookup();
+      CLASS_GUARD = lookup.findStatic(MethodInvocationSupport.class, "classGuard",
+          methodType(boolean.class, Class.class, Object.class));
+      FALLBACK = lookup.findStatic(TailCallSupport.class, "fallback",
+          methodType(boolean.class, InlineCache.class, Object[].class));
+    } catch (NoSuchMethodException | IllegalAccessException e) {
+      throw new Error("Could not bootstrap the required method handles", e);
+    }
+  }
+
+  private TailCallSupport() {
+    throw new UnsupportedOperationException("Don't instantiate invokedynamic bootstrap class");
+  }
+
+  public static CallSite bootstrap(Lookup caller, String name, MethodType type) {
+    Class<?>[] parameters = new Class<?>[type.parameterCount()];
+    Arrays.fill(parameters, Object.class);
+    Method self;
+    try {
+      self = caller.lookupClass().getDeclaredMethod(name, parameters);
+    } catch (NoSuchMethodException e) {
+      return new ConstantCallSite(dropArguments(constant(boolean.class, false), 0, type.parameterArray()));
+    }
+    InlineCache callSite = new InlineCache(caller, name, type, self);
+    callSite.setTarget(FALLBACK
+        .bindTo(callSite)
+        .asCollector(Object[].class, type.parameterCount())
+        .asType(type));
+    return callSite;
+  }
+
+  public static boolean fallback(InlineCache inlineCache, Object[] args) {
+    if (args[0] == null) {
+      return false;
+    }
+    Class<?> receiverClass = args[0].getClass();
+    if (inlineCache.depth >= InlineCache.MEGAMORPHIC_THRESHOLD) {
+      if (inlineCache.vtable == null) {
+        inlineCache.vtable = Collections.synchronizedMap(new WeakHashMap<>());
+      }
+      return inlineCache.vtable.computeIfAbsent(receiverClass, k -> resolvesToSelf(inlineCache, args));
+    }
+    boolean result = resolvesToSelf(inlineCache, args);
+    MethodType type = inlineCache.type();
+    MethodHandle guard = dropArguments(CLASS_GUARD.bindTo(receiverClass), 1, type.dropParameterTypes(0, 1).parameterList());
+    MethodHandle target = dropArguments(constant(boolean.class, result), 0, type.parameterList());
+    inlineCache.setTarget(guardWithTest(guard, target, inlineCache.getTarget()));
+    inlineCache.depth += 1;
+    return result;
+  }
+
+  private static boolean resolvesToSelf(InlineCache inlineCache, Object[] args) {
+    if (args[0].getClass().isArray() || args[0] instanceof DynamicObject) {
+      return false;
+    }
+    MethodInvocation invocation = new MethodInvocation(
+        inlineCache.name, genericMethodType(args.length), args, new String[0]);
+    if (new RegularMethodFinder(invocation, inlineCache.callerLookup).find() != null) {
+      return false;
+    }
+    if (new PropertyMethodFinder(invocation, inlineCache.callerLookup).find() != null) {
+      return false;
+    }
+    return new AugmentationMethodFinder(invocation, inlineCache.callerLookup).findMethod()
+      .map(inlineCache.self::equals)
+      .orElse(false);
+  }
+}
@@ -12,8 +12,10 @@ package org.eclipse.golo.runtime.adapters;
 
 import gololang.FunctionReference;
 
+import java.lang.invoke.MethodHandle;
 import java.lang.reflect.Method;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static java.lang.invoke.MethodType.genericMethodType;
 import static java.lang.reflect.Modifier.*;
@@ -28,6 +30,7 @@ public final class AdapterDefinition {
   private final TreeSet<String> interfaces = new TreeSet<>();
   private final LinkedHashMap<String, FunctionReference> implementations = new LinkedHashMap<>();
   private final LinkedHashMap<String, FunctionReference> overrides = new LinkedHashMap<>();
+  private final Map<Object, MethodHandle> targets = new ConcurrentHashMap<>();
 
   public AdapterDefinition(ClassLoader classLoader, String name, String parent) {
     this.classLoader = classLoader;
@@ -59,6 +62,13 @@ public final class AdapterDefinition {
     return unmodifiableMap(overrides);
   }
 
+  /*
+   * The targets resolved for this definition by the adapter call sites, keyed by call site.
+   */
+  Map<Object, MethodHandle> targets() {
+    return targets;
+  }
+
   public AdapterDefinition implementsInterface(String iface) {
     interfaces.add(iface);
     return this;
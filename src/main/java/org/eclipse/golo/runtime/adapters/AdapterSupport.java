@@ -18,6 +18,14 @@ import java.util.Map;
 
 import static java.lang.invoke.MethodType.genericMethodType;
 
+/**
+ * Bootstrap of the method invocations of the adapters.
+ * <p>
+ * An adapter class is shared by the adapter definitions with the same parent class and interfaces, so the target of
+ * an invocation depends on the definition of the receiver. The call sites bind the implementations of the definitions
+ * as constants, guarded by the receiver definition. Beyond a few definitions, they invoke the target kept by the
+ * receiver definition for the call site.
+ */
 public final class AdapterSupport {
 
   private AdapterSupport() {
@@ -26,13 +34,21 @@ public final class AdapterSupport {
 
   public static final String DEFINITION_FIELD = "_$_$adapter_$definition";
 
+  private static final int MEGAMORPHIC_THRESHOLD = 5;
+
   private static final MethodHandle FALLBACK;
+  private static final MethodHandle DEFINITION_GUARD;
+  private static final MethodHandle MEGAMORPHIC;
 
   static {
     Lookup lookup = MethodHandles.lookup();
     try {
       FALLBACK = lookup.findStatic(AdapterSupport.class, "fallback",
           MethodType.methodType(Object.class, AdapterCallSite.class, Object[].class));
+      DEFINITION_GUARD = lookup.findStatic(AdapterSupport.class, "definitionGuard",
+          MethodType.methodType(boolean.class, AdapterDefinition.class, AdapterDefinition.class));
+      MEGAMORPHIC = lookup.findStatic(AdapterSupport.class, "megamorphic",
+          MethodType.methodType(MethodHandle.class, AdapterCallSite.class, AdapterDefinition.class, Object.class));
     } catch (NoSuchMethodException | IllegalAccessException e) {
       throw new Error("Could not bootstrap the required method handles", e);
     }
@@ -42,15 +58,28 @@ public final class AdapterSupport {
 
     final Lookup callerLookup;
     final String name;
+    final MethodHandle definition;
+    int depth = 0;
 
-    AdapterCallSite(MethodType type, Lookup callerLookup, String name) {
+    AdapterCallSite(MethodType type, Lookup callerLookup, String name) throws ReflectiveOperationException {
       super(type);
       this.callerLookup = callerLookup;
       this.name = name;
+      this.definition = callerLookup.findGetter(callerLookup.lookupClass(), DEFINITION_FIELD, AdapterDefinition.class)
+        .asType(MethodType.methodType(AdapterDefinition.class, type.parameterType(0)));
+    }
+
+    MethodHandle target(AdapterDefinition adapterDefinition, Class<?> receiverClass) throws ReflectiveOperationException {
+      MethodHandle target = adapterDefinition.targets().get(this);
+      if (target == null) {
+        target = resolve(this, adapterDefinition, receiverClass).asType(type());
+        adapterDefinition.targets().put(this, target);
+      }
+      return target;
     }
   }
 
-  public static CallSite bootstrap(Lookup caller, String name, MethodType type) {
+  public static CallSite bootstrap(Lookup caller, String name, MethodType type) throws ReflectiveOperationException {
     AdapterCallSite callSite = new AdapterCallSite(type, caller, name);
     MethodHandle fallbackHandle = FALLBACK
         .bindTo(callSite)
@@ -60,10 +89,34 @@ public final class AdapterSupport {
     return callSite;
   }
 
+  public static boolean definitionGuard(AdapterDefinition expected, AdapterDefinition actual) {
+    return expected == actual;
+  }
+
   public static Object fallback(AdapterCallSite callSite, Object[] args) throws Throwable {
-    Class<?> receiverClass = args[0].getClass();
+    AdapterDefinition definition = (AdapterDefinition) callSite.definition.invoke(args[0]);
+    MethodHandle target = callSite.target(definition, args[0].getClass());
+    if (callSite.depth < MEGAMORPHIC_THRESHOLD) {
+      MethodHandle guard = MethodHandles.filterArguments(DEFINITION_GUARD.bindTo(definition), 0, callSite.definition);
+      guard = MethodHandles.dropArguments(guard, 1, callSite.type().dropParameterTypes(0, 1).parameterList());
+      callSite.setTarget(MethodHandles.guardWithTest(guard, target, callSite.getTarget()));
+      callSite.depth += 1;
+    } else {
+      Class<?> receiverType = callSite.type().parameterType(0);
+      MethodHandle lookupTarget = MethodHandles.foldArguments(
+          MEGAMORPHIC.bindTo(callSite).asType(MethodType.methodType(MethodHandle.class, AdapterDefinition.class, receiverType)),
+          callSite.definition);
+      callSite.setTarget(MethodHandles.foldArguments(MethodHandles.exactInvoker(callSite.type()), lookupTarget));
+    }
+    return target.invokeWithArguments(args);
+  }
+
+  public static MethodHandle megamorphic(AdapterCallSite callSite, AdapterDefinition definition, Object receiver) throws Throwable {
+    return callSite.target(definition, receiver.getClass());
+  }
+
+  private static MethodHandle resolve(AdapterCallSite callSite, AdapterDefinition definition, Class<?> receiverClass) throws ReflectiveOperationException {
     Class<?> receiverParentClass = receiverClass.getSuperclass();
-    AdapterDefinition definition = (AdapterDefinition) receiverClass.getField(DEFINITION_FIELD).get(args[0]);
     Map<String, FunctionReference> implementations = definition.getImplementations();
     MethodHandle target = null;
     if (implementations.containsKey(callSite.name)) {
@@ -72,7 +125,7 @@ public final class AdapterSupport {
     if (target == null) {
       if (implementations.containsKey("*")) {
         target = implementations.get("*").handle();
-        target = target.bindTo(callSite.name).asCollector(Object[].class, args.length);
+        target = target.bindTo(callSite.name).asCollector(Object[].class, callSite.type().parameterCount());
       }
     }
     if (target == null) {
@@ -101,11 +154,10 @@ public final class AdapterSupport {
         target = target.bindTo(new FunctionReference(superTarget));
         if (star) {
           target = target.bindTo(callSite.name);
-          target = target.asCollector(Object[].class, args.length);
+          target = target.asCollector(Object[].class, callSite.type().parameterCount());
         }
       }
     }
-    callSite.setTarget(target.asType(callSite.type()));
-    return target.invokeWithArguments(args);
+    return target;
   }
 }
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2012-2021 Institut National des Sciences Appliquées de Lyon (INSA Lyon) and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package gololang;
+
+import org.testng.annotations.Test;
+
+import java.lang.invoke.MethodHandle;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+import static java.lang.invoke.MethodHandles.lookup;
+import static java.lang.invoke.MethodType.genericMethodType;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class AdapterFabricTest {
+
+  public static Object value(Object value, Object receiver) {
+    return value;
+  }
+
+  private static Map<String, Object> callable(Object value) throws Throwable {
+    MethodHandle handle = lookup().findStatic(AdapterFabricTest.class, "value", genericMethodType(2));
+    Map<String, FunctionReference> implementations = new HashMap<>();
+    implementations.put("call", new FunctionReference(handle.bindTo(value)));
+    Map<String, Object> configuration = new HashMap<>();
+    configuration.put("interfaces", new Tuple(Callable.class.getName()));
+    configuration.put("implements", implementations);
+    return configuration;
+  }
+
+  @Test
+  public void shared_adapter_class() throws Throwable {
+    AdapterFabric fabric = new AdapterFabric();
+    List<Callable<?>> callables = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      callables.add((Callable<?>) fabric.maker(callable(i)).newInstance());
+    }
+    callables.add((Callable<?>) new AdapterFabric().maker(callable("other")).newInstance());
+    for (Callable<?> callable : callables) {
+      assertThat(callable.getClass(), is(sameInstance(callables.get(0).getClass())));
+    }
+    for (int round = 0; round < 2; round++) {
+      for (int i = 0; i < 10; i++) {
+        assertThat(callables.get(i).call(), is((Object) i));
+      }
+      assertThat(callables.get(10).call(), is((Object) "other"));
+    }
+  }
+
+  @Test
+  public void megamorphic_call_site() throws Throwable {
+    AdapterFabric fabric = new AdapterFabric();
+    int count = 50;
+    List<Callable<?>> callables = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      callables.add((Callable<?>) fabric.maker(callable(i)).newInstance());
+    }
+    // Interleave the definitions, so that the shared call site goes past its inline cache
+    for (int round = 0; round < 3; round++) {
+      for (int i = 0; i < count; i++) {
+        int index = (i * 7 + round) % count;
+        assertThat(callables.get(index).call(), is((Object) index));
+      }
+    }
+    Callable<?> late = (Callable<?>) fabric.maker(callable("late")).newInstance();
+    assertThat(late.call(), is((Object) "late"));
+    assertThat(callables.get(0).call(), is((Object) 0));
+  }
+
+  @Test
+  public void distinct_adapter_classes() throws Throwable {
+    AdapterFabric fabric = new AdapterFabric();
+    Map<String, Object> configuration = callable(1);
+    configuration.put("extends", "java.util.ArrayList");
+    Object list = fabric.maker(configuration).newInstance();
+    Object callable = fabric.maker(callable(2)).newInstance();
+    assertThat(list.getClass(), is(not(sameInstance(callable.getClass()))));
+    assertThat(list, is(instanceOf(ArrayList.class)));
+    assertThat(((Callable<?>) list).call(), is((Object) 1));
+  }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2012-2021 Institut National des Sciences Appliquées de Lyon (INSA Lyon) and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package gololang;
+
+import org.testng.annotations.Test;
+
+import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static gololang.DynamicObjectConverter.fromDynamicObjects;
+import static gololang.DynamicObjectConverter.toDynamicObjects;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class DynamicObjectConverterTest {
+
+  @Test
+  public void maps_to_dynamic_objects() {
+    Map<String, Object> address = new HashMap<>();
+    address.put("city", "Villeurbanne");
+    Map<String, Object> data = new HashMap<>();
+    data.put("age", 42);
+    data.put("address", address);
+    data.put("tags", new Tuple("a", new int[]{1, 2}, Arrays.asList(address)));
+
+    DynamicObject obj = (DynamicObject) toDynamicObjects(data);
+    assertThat(obj.get("age"), is((Object) 42));
+    DynamicObject city = (DynamicObject) obj.get("address");
+    assertThat(city.get("city"), is((Object) "Villeurbanne"));
+    List<?> tags = (List<?>) obj.get("tags");
+    assertThat(tags.get(0), is((Object) "a"));
+    assertThat((List<?>) tags.get(1), contains(1, 2));
+    assertThat(((List<?>) tags.get(2)).get(0), sameInstance((Object) city));
+  }
+
+  @Test
+  public void cyclic_graph() {
+    Map<String, Object> data = new HashMap<>();
+    List<Object> children = new ArrayList<>();
+    children.add(data);
+    data.put("children", children);
+
+    DynamicObject obj = (DynamicObject) toDynamicObjects(data);
+    assertThat(((List<?>) obj.get("children")).get(0), sameInstance((Object) obj));
+  }
+
+  @Test
+  public void deep_nesting() {
+    Map<String, Object> data = new HashMap<>();
+    Map<String, Object> current = data;
+    for (int i = 0; i < 100_000; i++) {
+      Map<String, Object> next = new HashMap<>();
+      current.put("next", next);
+      current = next;
+    }
+    assertThat(toDynamicObjects(data), instanceOf(DynamicObject.class));
+  }
+
+  @Test
+  public void dynamic_objects_to_maps() {
+    DynamicObject obj = new DynamicObject()
+      .define("name", "bob")
+      .define("friends", Arrays.asList(new DynamicObject().define("name", "sam")))
+      .define("hello", new FunctionReference(MethodHandles.identity(Object.class)));
+
+    Map<?, ?> map = (Map<?, ?>) fromDynamicObjects(obj);
+    assertThat(map.get("name"), is((Object) "bob"));
+    assertThat(map.containsKey("hello"), is(false));
+    Map<?, ?> sam = (Map<?, ?>) ((List<?>) map.get("friends")).get(0);
+    assertThat(sam.get("name"), is((Object) "sam"));
+  }
+}
@@ -14,13 +14,16 @@ import org.testng.annotations.Test;
 
 import java.lang.invoke.MethodHandle;
 import java.lang.invoke.MethodHandles;
+import java.lang.invoke.WrongMethodTypeException;
 import java.util.Arrays;
 import java.util.stream.Collectors;
 
 import static java.lang.invoke.MethodType.genericMethodType;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
 
 import gololang.Predefined;
 
@@ -86,6 +89,24 @@ public class FunctionReferenceTest {
     assertThat(noParam.invoke(), is(42));
   }
 
+  @Test
+  public void specialized_invoke() throws Throwable {
+    assertThat(noParam.invoke0(), is(42));
+    assertThat(ping.invoke1("Plop"), is("Plop"));
+    assertThat(collect.invoke3(1, 2, 3), is("123"));
+    assertThat(collect.invoke3("a", "b", "c"), is("abc"));
+    assertThat(collectN.invoke1("a"), is("a"));
+    assertThat(collectN.invoke4("a", "b", "c", "d"), is("abcd"));
+    assertThat(collectAny.invoke0(), is(""));
+    assertThat(collectAny.invoke5("a", "b", "c", "d", "e"), is("abcde"));
+    assertThat(collectAny.invoke("a", "b", "c", "d", "e", "f"), is("abcdef"));
+  }
+
+  @Test(expectedExceptions = WrongMethodTypeException.class)
+  public void specialized_invoke_bad_arity() throws Throwable {
+    collect.invoke2(1, 2);
+  }
+
   @Test(expectedExceptions = IllegalArgumentException.class)
   public void refuse_null_handles() {
     new FunctionReference(null);
@@ -100,7 +121,20 @@ public class FunctionReferenceTest {
   @Test
   public void spread_varargs() throws Throwable {
     assertThat(collectN.handle().invoke("1", "2", "3"), is("123"));
-    assertThat(collectN.spread("1", new Object[]{"2", "3"}), is("123"));
+    // Alternate the fixed and collecting forms for the same argument count, each one having its own cached spreader
+    for (int round = 0; round < 2; round++) {
+      assertThat(collectN.spread("1", new Object[]{"2", "3"}), is("123"));
+      assertThat(collect.spread("1", "2", "3"), is("123"));
+      assertThat(collectN.spread("1", "2"), is("12"));
+      assertThat(collectN.spread("1", new Object[0]), is("1"));
+    }
+  }
+
+  @Test
+  public void cached_invokers() {
+    assertThat(collectN.invoker(3), is(sameInstance(collectN.invoker(3))));
+    assertThat(collectN.invoker(2), is(not(sameInstance(collectN.invoker(3)))));
+    assertThat(collectN.invoker(6), is(not(sameInstance(collectN.invoker(6)))));
   }
 
   @Test
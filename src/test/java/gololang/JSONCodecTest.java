@@ -0,0 +1,185 @@
+/*
+ * Copyright (c) 2012-2021 Institut National des Sciences Appliquées de Lyon (INSA Lyon) and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package gololang;
+
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+import org.json.simple.parser.ParseException;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.StringReader;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static gololang.JSONParser.Event.*;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class JSONCodecTest {
+
+  @Test
+  public void write_values() {
+    Map<String, Object> map = new LinkedHashMap<>();
+    map.put("list", Arrays.asList(1, 2.5, null));
+    map.put("tuple", new Tuple("a", true));
+    map.put("ints", new int[]{1, 2});
+    map.put("nan", Double.NaN);
+    map.put("dyn", new DynamicObject().define("a", 1));
+    assertThat(JSONWriter.stringify(map),
+        is("{\"list\":[1,2.5,null],\"tuple\":[\"a\",true],\"ints\":[1,2],\"nan\":null,\"dyn\":{\"a\":1}}"));
+  }
+
+  @Test
+  public void write_escapes() {
+    assertThat(JSONWriter.stringify("a\"b\\c\nd\u0001e\u2028"), is("\"a\\\"b\\\\c\\nd\\u0001e\\u2028\""));
+    assertThat(JSONWriter.stringify("</script>"), is("\"<\\/script>\""));
+  }
+
+  @Test
+  public void write_deep_nesting() {
+    List<Object> root = new ArrayList<>();
+    List<Object> current = root;
+    for (int i = 1; i < JSONWriter.MAX_DEPTH; i++) {
+      List<Object> next = new ArrayList<>();
+      current.add(next);
+      current = next;
+    }
+    assertThat(JSONWriter.stringify(root).length(), is(2 * JSONWriter.MAX_DEPTH));
+    current.add(new ArrayList<>());
+    try {
+      JSONWriter.stringify(root);
+      throw new AssertionError("An IllegalArgumentException was expected");
+    } catch (IllegalArgumentException expected) {
+      assertThat(expected.getMessage(), containsString("nested"));
+    }
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void write_cycle() {
+    List<Object> list = new ArrayList<>();
+    list.add(list);
+    JSONWriter.stringify(list);
+  }
+
+  @Test
+  public void write_to_stream() {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    JSONWriter.write(Arrays.asList("é", 1), out);
+    assertThat(new String(out.toByteArray(), UTF_8), is("[\"é\",1]"));
+  }
+
+  @Test
+  public void parse_values() {
+    Object value = JSONParser.parse("{\"a\": [1, -2.5e1, \"x\\u0041\\n\", true, false, null], \"b\": {}}");
+    assertThat(value, instanceOf(Map.class));
+    Map<?, ?> map = (Map<?, ?>) value;
+    assertThat((List<?>) map.get("a"), contains(1L, -25.0, "xA\n", true, false, null));
+    assertThat(map.get("b"), is(new LinkedHashMap<>()));
+  }
+
+  @Test
+  public void parse_numbers() {
+    assertThat(JSONParser.parse("9223372036854775807"), is(Long.MAX_VALUE));
+    assertThat(JSONParser.parse("92233720368547758070"), is(new BigInteger("92233720368547758070")));
+    assertThat(JSONParser.parse("[0, -0, 0.5, -1.5e-3, 10E+2]"), is(Arrays.asList(0L, 0L, 0.5, -1.5e-3, 1000.0)));
+  }
+
+  @DataProvider(name = "invalid-numbers")
+  public Object[][] invalidNumbers() {
+    return new Object[][]{{"01"}, {"-01"}, {"1."}, {"1.e5"}, {".5"}, {"-"}, {"1e"}, {"1e+"}, {"1-2"}, {"[1.]"}};
+  }
+
+  @Test(dataProvider = "invalid-numbers", expectedExceptions = IllegalArgumentException.class)
+  public void parse_invalid_numbers(String text) {
+    JSONParser.parse(text);
+  }
+
+  @Test
+  public void parse_trailing_commas() {
+    assertThat((List<?>) JSONParser.parse("[1, 2, ]"), contains(1L, 2L));
+    assertThat(((Map<?, ?>) JSONParser.parse("{\"a\": 1,}")).get("a"), is(1L));
+  }
+
+  @Test
+  public void parse_deep_nesting() {
+    int depth = 100_000;
+    StringBuilder text = new StringBuilder();
+    for (int i = 0; i < depth; i++) {
+      text.append('[');
+    }
+    for (int i = 0; i < depth; i++) {
+      text.append(']');
+    }
+    assertThat(JSONParser.parse(text.toString()), instanceOf(List.class));
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void parse_invalid() {
+    JSONParser.parse("{\"a\" 1}");
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void parse_trailing_content() {
+    JSONParser.parse("[1] 2");
+  }
+
+  @Test
+  public void parse_json_simple() throws ParseException {
+    Object value = JSONParser.parseJsonSimple("{\"a\": [1, \"x/y\"]}");
+    assertThat(value, instanceOf(JSONObject.class));
+    assertThat(((Map<?, ?>) value).get("a"), instanceOf(JSONArray.class));
+    assertThat(value.toString(), is("{\"a\":[1,\"x\\/y\"]}"));
+    assertThat(JSONParser.parseJsonSimple(new StringReader("[]")), instanceOf(JSONArray.class));
+  }
+
+  @Test
+  public void parse_json_simple_invalid() {
+    try {
+      JSONParser.parseJsonSimple("[1, 01]");
+      throw new AssertionError("A ParseException was expected");
+    } catch (ParseException expected) {
+      assertThat(expected.getErrorType(), is(ParseException.ERROR_UNEXPECTED_EXCEPTION));
+      assertThat(expected.getPosition(), is(5));
+      assertThat(expected.getUnexpectedObject(), instanceOf(IllegalArgumentException.class));
+    }
+  }
+
+  @Test
+  public void pull_events() {
+    JSONParser parser = new JSONParser(new StringReader("{\"skip\": {\"x\": [1, 2]}, \"keep\": [\"a\"]}"));
+    assertThat(parser.next(), is(START_OBJECT));
+    assertThat(parser.next(), is(KEY));
+    assertThat(parser.string(), is("skip"));
+    assertThat(parser.next(), is(START_OBJECT));
+    parser.skipValue();
+    assertThat(parser.event(), is(END_OBJECT));
+    assertThat(parser.next(), is(KEY));
+    assertThat(parser.string(), is("keep"));
+    parser.next();
+    assertThat((List<?>) parser.readValue(), contains("a"));
+    assertThat(parser.next(), is(END_OBJECT));
+    assertThat(parser.next(), is(END_DOCUMENT));
+    assertThat(parser.hasNext(), is(false));
+  }
+
+  @Test
+  public void roundtrip() {
+    String text = "{\"name\":\"Somebody\",\"age\":69,\"friends\":[\"Mr Bean\",\"John B\",\"Larry\"],\"pi\":3.14}";
+    assertThat(JSONWriter.stringify(JSONParser.parse(text)), is(text));
+  }
+}
@@ -11,6 +11,8 @@
 package gololang;
 
 import org.hamcrest.Matchers;
+import org.json.simple.JSONObject;
+import org.json.simple.parser.ParseException;
 import org.skyscreamer.jsonassert.JSONAssert;
 import org.testng.SkipException;
 import org.testng.annotations.BeforeMethod;
@@ -61,6 +63,15 @@ public class JSONTest {
     assertThat(friends, contains((Object) "Mr Bean", "John B", "Larry"));
   }
 
+  @Test
+  public void parse_contract() throws Throwable {
+    Method parse_contract = moduleClass.getMethod("parse_contract");
+    Tuple result = (Tuple) parse_contract.invoke(null);
+    assertThat(result.get(0), instanceOf(JSONObject.class));
+    assertThat(result.get(0).toString(), is("{\"url\":\"http:\\/\\/golo-lang.org\\/\"}"));
+    assertThat(result.get(1), instanceOf(ParseException.class));
+  }
+
   @Test
   public void dyobj_stringify() throws Throwable {
     Method dyobj_stringify = moduleClass.getMethod("dyobj_stringify");
@@ -155,4 +166,55 @@ public class JSONTest {
     assertThat(bob.get("firstName"), is((Object) "Bob"));
     assertThat(bob.get("lastName"), is((Object) "Morane"));
   }
+
+  @Test
+  public void streaming_write() throws Throwable {
+    Method streaming_write = moduleClass.getMethod("streaming_write");
+    String json = (String) streaming_write.invoke(null);
+    assertThat(json, is("[{\"name\":\"Mr Bean\",\"email\":\"mrbean@outlook.com\",\"age\":64},[1,2]]"));
+  }
+
+  @Test
+  public void pull_parser() throws Throwable {
+    Method pull_parser = moduleClass.getMethod("pull_parser");
+    List<?> items = (List<?>) pull_parser.invoke(null);
+    assertThat(items.size(), is(2));
+    assertThat(((Map<?, ?>) items.get(1)).get("a"), is((Object) 2L));
+  }
+
+  @Test
+  public void dyobj_to_map() throws Throwable {
+    Method dyobj_to_map = moduleClass.getMethod("dyobj_to_map");
+    Map<?, ?> map = (Map<?, ?>) dyobj_to_map.invoke(null);
+    assertThat(map.get("name"), is((Object) "Bob"));
+    assertThat(map.get("age"), is((Object) 42));
+    Map<?, ?> bill = (Map<?, ?>) ((List<?>) map.get("friends")).get(0);
+    assertThat(bill.get("name"), is((Object) "Bill"));
+  }
+
+  @Test
+  public void struct_parse_typed() throws Throwable {
+    Method struct_parse_typed = moduleClass.getMethod("struct_parse_typed");
+    GoloStruct struct = (GoloStruct) struct_parse_typed.invoke(null);
+    assertThat(struct.get("name"), is((Object) "Foo"));
+    assertThat(struct.get("email"), nullValue());
+    assertThat(struct.get("age"), is((Object) 99L));
+  }
+
+  @Test
+  public void union_stringify() throws Throwable {
+    Method union_stringify = moduleClass.getMethod("union_stringify");
+    String json = (String) union_stringify.invoke(null);
+    assertThat(json, is("[{\"Circle\":{\"radius\":2}},{\"Rectangle\":{\"width\":1,\"height\":3}},{\"Empty\":{}}]"));
+  }
+
+  @Test
+  public void union_parse_typed() throws Throwable {
+    Method union_parse_typed = moduleClass.getMethod("union_parse_typed");
+    Tuple values = (Tuple) union_parse_typed.invoke(null);
+    Union rectangle = (Union) values.get(0);
+    assertThat(rectangle.toArray(), is(new Object[]{1L, 3L}));
+    assertThat(rectangle.toString(), is("union Shape.Rectangle{width=1, height=3}"));
+    assertThat(values.get(1).getClass().getSimpleName(), is("Empty"));
+  }
 }
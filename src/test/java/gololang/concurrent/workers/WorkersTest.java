@@ -10,13 +10,33 @@
 
 package gololang.concurrent.workers;
 
+import gololang.FunctionReference;
+import gololang.Tuple;
+import gololang.concurrent.async.AssignedFuture;
+import gololang.concurrent.async.Future;
+import gololang.concurrent.async.Promise;
+import gololang.error.Result;
 import org.testng.annotations.Test;
 
+import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.hamcrest.MatcherAssert.assertThat;
-import static org.hamcrest.Matchers.is;
+import static java.lang.invoke.MethodType.genericMethodType;
+import static org.hamcrest.Matchers.*;
+import static org.testng.Assert.fail;
 
 public class WorkersTest {
 
@@ -53,4 +73,300 @@ public class WorkersTest {
     assertThat(counter.get() >= MAX, is(true));
     environment.shutdown();
   }
+
+  @Test(timeOut = 10000)
+  public void batched_mailbox() throws InterruptedException {
+    WorkerEnvironment environment = WorkerEnvironment.builder().withFixedThreadPool(2);
+    final int MAX = 10_000;
+    final CountDownLatch latch = new CountDownLatch(MAX);
+    final CountDownLatch release = new CountDownLatch(1);
+    final List<Object> received = new ArrayList<>();
+    Port port = environment.spawnWorker(message -> {
+      try {
+        release.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      received.add(message);
+      latch.countDown();
+    }, MailboxPolicy.unbounded().withBatchSize(100));
+    for (int i = 0; i < MAX; i++) {
+      port.send(i);
+    }
+    // All the messages are queued while the first one is blocked
+    release.countDown();
+    latch.await();
+    assertThat(received.size(), is(MAX));
+    for (int i = 0; i < MAX; i++) {
+      assertThat(received.get(i), is((Object) i));
+    }
+    // Metrics are updated at the end of each batch
+    environment.shutdown();
+    assertThat(environment.awaitTermination(5, TimeUnit.SECONDS), is(true));
+    assertThat(port.processedCount(), is((long) MAX));
+    assertThat(port.batchCount(), lessThan(port.processedCount()));
+    assertThat(port.queueDepth(), is(0));
+  }
+
+  @Test(timeOut = 10000)
+  public void blocking_mailbox() throws InterruptedException {
+    WorkerEnvironment environment = WorkerEnvironment.builder().withFixedThreadPool(2);
+    final int MAX = 10_000;
+    final CountDownLatch latch = new CountDownLatch(MAX);
+    final AtomicInteger counter = new AtomicInteger(0);
+    final AtomicInteger maxDepth = new AtomicInteger(0);
+    final Port[] port = new Port[1];
+    port[0] = environment.spawnWorker(message -> {
+      counter.addAndGet((Integer) message);
+      maxDepth.accumulateAndGet(port[0].queueDepth(), Math::max);
+      latch.countDown();
+    }, MailboxPolicy.blocking(16).withBatchSize(8));
+    for (int i = 0; i < MAX; i++) {
+      port[0].send(1);
+    }
+    latch.await();
+    assertThat(counter.get(), is(MAX));
+    assertThat(maxDepth.get(), lessThanOrEqualTo(16));
+    assertThat(port[0].droppedCount(), is(0L));
+    environment.shutdown();
+  }
+
+  @Test(timeOut = 10000)
+  public void dropping_and_failing_mailboxes() throws InterruptedException {
+    WorkerEnvironment environment = new WorkerEnvironment(Executors.newFixedThreadPool(1));
+    final CountDownLatch started = new CountDownLatch(1);
+    final CountDownLatch release = new CountDownLatch(1);
+    Port blocker = environment.spawnWorker(message -> {
+      started.countDown();
+      try {
+        release.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    });
+    blocker.send("block");
+    started.await();
+
+    final CountDownLatch processed = new CountDownLatch(6);
+    Port dropping = environment.spawnWorker(message -> processed.countDown(), MailboxPolicy.dropping(4));
+    for (int i = 0; i < 10; i++) {
+      dropping.send(i);
+    }
+    assertThat(dropping.queueDepth(), is(4));
+    assertThat(dropping.droppedCount(), is(6L));
+
+    Port failing = environment.spawnWorker(message -> processed.countDown(), MailboxPolicy.failing(2));
+    failing.send(1).send(2);
+    try {
+      failing.send(3);
+      fail("A RejectedExecutionException should have been raised");
+    } catch (RejectedExecutionException expected) {
+      assertThat(failing.queueDepth(), is(2));
+    }
+
+    release.countDown();
+    processed.await();
+    environment.shutdown();
+    assertThat(environment.awaitTermination(5, TimeUnit.SECONDS), is(true));
+    assertThat(dropping.processedCount(), is(4L));
+    assertThat(failing.processedCount(), is(2L));
+  }
+
+  @Test
+  public void mpsc_queue() {
+    MpscArrayQueue<Object> queue = new MpscArrayQueue<>(3);
+    assertThat(queue.isEmpty(), is(true));
+    assertThat(queue.poll(), nullValue());
+    assertThat(queue.offer(1), is(true));
+    assertThat(queue.offer(2), is(true));
+    assertThat(queue.offer(3), is(true));
+    assertThat(queue.offer(4), is(false));
+    assertThat(queue.size(), is(3));
+    assertThat(queue.peek(), is((Object) 1));
+    assertThat(queue.poll(), is((Object) 1));
+    assertThat(queue.offer(4), is(true));
+    assertThat(queue.poll(), is((Object) 2));
+    assertThat(queue.poll(), is((Object) 3));
+    assertThat(queue.poll(), is((Object) 4));
+    assertThat(queue.poll(), nullValue());
+    assertThat(queue.isEmpty(), is(true));
+  }
+
+  @Test
+  public void mpsc_queue_iterator() {
+    MpscArrayQueue<Object> queue = new MpscArrayQueue<>(3);
+    assertThat(queue.toString(), is("[]"));
+    queue.offer(1);
+    queue.offer(2);
+    queue.offer(3);
+    queue.poll();
+    queue.offer(4);
+    assertThat(queue.toString(), is("[2, 3, 4]"));
+    assertThat(queue.contains(3), is(true));
+    assertThat(queue.contains(1), is(false));
+    assertThat(queue.containsAll(Arrays.asList(2, 4)), is(true));
+    assertThat(queue.remove(5), is(false));
+    queue.poll();
+    queue.poll();
+    queue.offer(5);
+    assertThat(queue.toString(), is("[4, 5]"));
+    queue.poll();
+    queue.poll();
+    assertThat(queue.iterator().hasNext(), is(false));
+  }
+
+  @Test(timeOut = 10000)
+  public void work_stealing_pool() throws InterruptedException {
+    WorkerEnvironment environment = WorkerEnvironment.builder().withWorkStealingPool(4);
+    final int MAX = 1000;
+    final CountDownLatch latch = new CountDownLatch(MAX);
+    final AtomicInteger counter = new AtomicInteger(0);
+    List<Port> ports = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      ports.add(environment.spawnWorker(message -> {
+        counter.addAndGet((Integer) message);
+        latch.countDown();
+      }));
+    }
+    for (int i = 0; i < MAX; i++) {
+      ports.get(i % ports.size()).send(1);
+    }
+    latch.await();
+    assertThat(counter.get(), is(MAX));
+    environment.shutdown();
+    assertThat(environment.awaitTermination(5, TimeUnit.SECONDS), is(true));
+  }
+
+  @Test(timeOut = 10000)
+  public void virtual_threads() throws InterruptedException {
+    WorkerEnvironment.Builder builder = WorkerEnvironment.builder();
+    if (!builder.supportsVirtualThreads()) {
+      try {
+        builder.withVirtualThreads();
+        fail("An UnsupportedOperationException should have been raised");
+      } catch (UnsupportedOperationException expected) {
+        // Java version without virtual threads
+      }
+    }
+    WorkerEnvironment environment = builder.withVirtualThreadsOrCachedThreadPool();
+    final CountDownLatch latch = new CountDownLatch(1);
+    environment.spawnWorker(message -> latch.countDown()).send("ping");
+    latch.await();
+    environment.shutdown();
+  }
+
+  @Test(timeOut = 10000)
+  public void ask_and_reply() throws Throwable {
+    WorkerEnvironment environment = WorkerEnvironment.newWorkerEnvironment();
+    Port port = environment.spawnWorker(message -> {
+      Request request = (Request) message;
+      if ("boom".equals(request.message())) {
+        throw new IllegalArgumentException("boom");
+      }
+      request.reply(request.message() + "!");
+    });
+    assertThat(port.ask("Hello").blockingGet(), is((Object) "Hello!"));
+    assertThat(port.ask("boom").blockingGet(), instanceOf(IllegalArgumentException.class));
+
+    Port replying = environment.spawnReplying(new FunctionReference(
+          MethodHandles.lookup().findStatic(WorkersTest.class, "twice", genericMethodType(1))));
+    assertThat(replying.ask(21).blockingGet(), is((Object) 42));
+    assertThat(replying.ask("plop").blockingGet(), instanceOf(ClassCastException.class));
+    environment.shutdown();
+  }
+
+  static Object twice(Object value) {
+    return (Integer) value * 2;
+  }
+
+  static Object firstLetter(Object value) {
+    return ((String) value).charAt(0);
+  }
+
+  @Test(timeOut = 10000)
+  public void hashed_port_group() throws Throwable {
+    WorkerEnvironment environment = WorkerEnvironment.builder().withFixedThreadPool(4);
+    final List<Map<Object, Integer>> shards = new ArrayList<>();
+    List<Port> ports = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      final Map<Object, Integer> shard = new HashMap<>();
+      shards.add(shard);
+      ports.add(environment.spawnWorker(message -> {
+        if (message instanceof Request) {
+          Request request = (Request) message;
+          request.reply(shard.get(firstLetter(request.message())));
+        } else {
+          shard.merge(firstLetter(message), 1, Integer::sum);
+        }
+      }));
+    }
+    PortGroup group = PortGroup.hashed(ports, new FunctionReference(
+          MethodHandles.lookup().findStatic(WorkersTest.class, "firstLetter", genericMethodType(1))));
+    List<String> words = Arrays.asList("apple", "avocado", "banana", "blueberry", "cherry", "apricot");
+    for (int i = 0; i < 100; i++) {
+      for (String word : words) {
+        group.send(word);
+      }
+    }
+    assertThat(group.ask("a").blockingGet(), is((Object) 300));
+    assertThat(group.ask("b").blockingGet(), is((Object) 200));
+    assertThat(group.ask("c").blockingGet(), is((Object) 100));
+    Set<Object> keys = new HashSet<>();
+    for (Map<Object, Integer> shard : shards) {
+      for (Object key : shard.keySet()) {
+        assertThat(keys.add(key), is(true));
+      }
+    }
+    assertThat(group.route("a"), sameInstance(group.route("abc")));
+    environment.shutdown();
+  }
+
+  @Test(timeOut = 10000)
+  public void round_robin_port_group() throws InterruptedException {
+    WorkerEnvironment environment = WorkerEnvironment.newWorkerEnvironment();
+    List<Port> ports = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      ports.add(environment.spawnWorker(message -> {
+        Request request = (Request) message;
+        request.reply(request.message());
+      }));
+    }
+    PortGroup group = PortGroup.roundRobin(ports);
+    assertThat(group.size(), is(3));
+    assertThat(group.route("a"), sameInstance(ports.get(0)));
+    assertThat(group.route("a"), sameInstance(ports.get(1)));
+    assertThat(group.route("a"), sameInstance(ports.get(2)));
+    assertThat(group.route("a"), sameInstance(ports.get(0)));
+    List<Future> replies = group.askAll("ping");
+    assertThat(replies.size(), is(3));
+    for (Future reply : replies) {
+      assertThat(reply.blockingGet(), is((Object) "ping"));
+    }
+    environment.shutdown();
+  }
+
+  @Test(timeOut = 10000)
+  public void fan_in() throws InterruptedException {
+    WorkerEnvironment environment = WorkerEnvironment.newWorkerEnvironment();
+    final CountDownLatch latch = new CountDownLatch(3);
+    final Map<Object, Result<?, ?>> received = new HashMap<>();
+    Port port = environment.spawnWorker(message -> {
+      Tuple outcome = (Tuple) message;
+      received.put(outcome.get(0), (Result<?, ?>) outcome.get(1));
+      latch.countDown();
+    });
+    Promise promise = new Promise();
+    Future late = promise.future();
+    RuntimeException failure = new RuntimeException("Plop");
+    Future first = AssignedFuture.setFuture("first");
+    Future failed = AssignedFuture.failedFuture(failure);
+    port.fanIn(Arrays.asList(late, first, failed));
+    promise.set("last");
+    latch.await();
+    assertThat(received.get(first).isValue("first"), is(true));
+    assertThat(received.get(late).isValue("last"), is(true));
+    assertThat(received.get(failed).isError(RuntimeException.class), is(true));
+    assertThat(received.get(failed).isValue(), is(false));
+    environment.shutdown();
+  }
 }
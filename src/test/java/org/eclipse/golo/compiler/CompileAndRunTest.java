@@ -23,11 +23,13 @@ import org.eclipse.golo.internal.testing.GoloTest;
 
 import java.io.IOException;
 import java.io.Serializable;
+import java.io.StringReader;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.net.URL;
 import java.util.*;
 import java.util.concurrent.Callable;
+import java.util.concurrent.RejectedExecutionException;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 
@@ -252,6 +254,48 @@ public final class CompileAndRunTest extends GoloTest {
     }
   }
 
+  @Test(expectedExceptions = GoloCompilationException.class)
+  public void test_reserved_union_member() throws Throwable {
+    try {
+      compileAndLoadGoloModule(SRC, "failure-reserved-union-member.golo");
+      fail("A GoloCompilationException was expected");
+    } catch (GoloCompilationException expected) {
+      List<GoloCompilationException.Problem> problems = expected.getProblems();
+      assertThat(problems.size(), is(1));
+      GoloCompilationException.Problem problem = problems.get(0);
+      assertThat(problem.getType(), is(GoloCompilationException.Problem.Type.AMBIGUOUS_DECLARATION));
+      assertThat(problem.getDescription(), containsString("`unionOrdinal`"));
+      throw expected;
+    }
+  }
+
+  @Test(expectedExceptions = GoloCompilationException.class)
+  public void test_invalid_member_type() throws Throwable {
+    try {
+      compileAndLoadGoloModule(SRC, "failure-invalid-member-type.golo");
+      fail("A GoloCompilationException was expected");
+    } catch (GoloCompilationException expected) {
+      List<GoloCompilationException.Problem> problems = expected.getProblems();
+      assertThat(problems.size(), is(1));
+      GoloCompilationException.Problem problem = problems.get(0);
+      assertThat(problem.getType(), is(GoloCompilationException.Problem.Type.INVALID_MEMBER_TYPE));
+      assertThat(problem.getDescription(), containsString("`Double`"));
+      throw expected;
+    }
+  }
+
+  @Test
+  public void test_null_safe_member_type() throws Throwable {
+    try {
+      compileAndLoadGoloModule(SRC, "failure-null-safe-member-type.golo");
+      fail("A GoloCompilationException was expected");
+    } catch (GoloCompilationException expected) {
+      List<GoloCompilationException.Problem> problems = expected.getProblems();
+      assertThat(problems.size(), is(1));
+      assertThat(problems.get(0).getType(), is(GoloCompilationException.Problem.Type.PARSING));
+    }
+  }
+
   @Test(expectedExceptions = GoloCompilationException.class)
   public void test_assign_constant() throws Throwable {
     try {
@@ -332,6 +376,30 @@ public final class CompileAndRunTest extends GoloTest {
     assertThat((String) what_match.invoke(null, true), is("alien"));
 
     this.run("conditionals", "match_email");
+
+    Method match_constants = moduleClass.getMethod("match_constants", Object.class);
+    assertThat((String) match_constants.invoke(null, "one"), is("string one"));
+    assertThat((String) match_constants.invoke(null, 1), is("int one"));
+    assertThat((String) match_constants.invoke(null, 1L), is("int one"));
+    assertThat((String) match_constants.invoke(null, 2L), is("long two"));
+    assertThat((String) match_constants.invoke(null, 2), is("long two"));
+    assertThat((String) match_constants.invoke(null, "two"), is("other"));
+    assertThat((String) match_constants.invoke(null, 3), is("other"));
+    assertThat((String) match_constants.invoke(null, (Object) null), is("other"));
+
+    Method match_types = moduleClass.getMethod("match_types", Object.class);
+    assertThat((String) match_types.invoke(null, "foo"), is("String"));
+    assertThat((String) match_types.invoke(null, new ArrayList<>()), is("List"));
+    assertThat((String) match_types.invoke(null, new HashSet<>()), is("Collection"));
+    assertThat((String) match_types.invoke(null, 1.5), is("Number"));
+    assertThat((String) match_types.invoke(null, true), is("alien"));
+    assertThat((String) match_types.invoke(null, (Object) null), is("alien"));
+
+    Method case_without_otherwise = moduleClass.getMethod("case_without_otherwise", Object.class);
+    assertThat((String) case_without_otherwise.invoke(null, 20), is("twenty"));
+    assertThat((String) case_without_otherwise.invoke(null, 30L), is("thirty"));
+    assertThat((String) case_without_otherwise.invoke(null, 40), is("none"));
+    assertThat((String) case_without_otherwise.invoke(null, "ten"), is("none"));
   }
 
   @Test
@@ -462,6 +530,7 @@ public final class CompileAndRunTest extends GoloTest {
 
     Method special_concat = moduleClass.getMethod("special_concat", Object.class, Object.class, Object.class, Object.class);
     assertThat((String) special_concat.invoke(null, 1, "a", 2, "b"), is("[1:a:2:b]"));
+    assertThat((String) special_concat.invoke(null, null, 'c', 1.5, "\u0001"), is("[null:c:1.5:\u0001]"));
 
     Method oftype_string = moduleClass.getMethod("oftype_string", Object.class);
     assertThat((Boolean) oftype_string.invoke(null, "Hello"), is(true));
@@ -681,6 +750,9 @@ public final class CompileAndRunTest extends GoloTest {
 
     assertThat((Object[]) moduleClass.getMethod("contains_index").invoke(null), arrayContaining(true, false, 2, -1));
 
+    assertThat((Object[]) moduleClass.getMethod("primitive_arrays").invoke(null),
+        arrayContaining(6, 6, 3, 3, "[1, 2, 3]", true, 2.5, "ab"));
+
   }
 
   @Test
@@ -1123,6 +1195,43 @@ public final class CompileAndRunTest extends GoloTest {
     assertThat((String) bang_plop.invoke(null), is("Plop!"));
   }
 
+  @Test
+  public void macro_index() throws Throwable {
+    GoloClassLoader goloClassLoader = new GoloClassLoader(CompileAndRunTest.class.getClassLoader());
+    compileAndLoadGoloModule(SRC, "macro-index-macros.golo", goloClassLoader);
+    Class<?> moduleClass = compileAndLoadGoloModule(SRC, "macro-index.golo", goloClassLoader);
+    assertThat(moduleClass.getMethod("macro_version").invoke(null), is((Object) 1));
+    assertThat(moduleClass.getMethod("arities").invoke(null), is((Object) new Tuple("none", "one", "two", "one")));
+    assertThat(moduleClass.getMethod("caller").invoke(null), is((Object) "caller"));
+
+    // The index of the macro class is reused by the next module
+    Class<?> otherClass = compileAndLoadGoloModule(SRC, "macro-index-other.golo", goloClassLoader);
+    assertThat(otherClass.getMethod("arities").invoke(null), is((Object) new Tuple("two", "one", "none")));
+
+    // A recompiled macro module is a new class, with its own index
+    goloClassLoader = new GoloClassLoader(CompileAndRunTest.class.getClassLoader());
+    compileAndLoadGoloModule(SRC, "macro-index-macros-v2.golo", goloClassLoader);
+    moduleClass = compileAndLoadGoloModule(SRC, "macro-index.golo", goloClassLoader);
+    assertThat(moduleClass.getMethod("macro_version").invoke(null), is((Object) 2));
+    assertThat(moduleClass.getMethod("arities").invoke(null), is((Object) new Tuple("none", "one", "two", "one")));
+  }
+
+  @Test
+  public void long_string_concatenation() throws Throwable {
+    StringBuilder source = new StringBuilder("module golotest.execution.LongConcatenation\n\nfunction concat = |x| -> \"a\"");
+    StringBuilder expected = new StringBuilder("a");
+    for (int i = 0; i < 450; i++) {
+      source.append(" + x");
+      expected.append(7);
+    }
+    source.append(" + \"b\" + x\n");
+    expected.append("b7");
+    GoloClassLoader goloClassLoader = new GoloClassLoader(CompileAndRunTest.class.getClassLoader());
+    Class<?> moduleClass = goloClassLoader.load("long-concatenation.golo", new StringReader(source.toString()));
+    Method concat = moduleClass.getMethod("concat", Object.class);
+    assertThat(concat.invoke(null, 7), is((Object) expected.toString()));
+  }
+
   @Test
   public void augmentations_with_fallback() throws Throwable {
     GoloClassLoader goloClassLoader = new GoloClassLoader(CompileAndRunTest.class.getClassLoader());
@@ -1182,6 +1291,42 @@ public final class CompileAndRunTest extends GoloTest {
     }
   }
 
+  @Test
+  public void failure_not_tail_call() throws Throwable {
+    try {
+      compileAndLoadGoloModule(SRC, "failure-not-tail-call.golo");
+      fail("A GoloCompilationException was expected");
+    } catch (GoloCompilationException e) {
+      assertThat(e.getProblems().size(), is(1));
+      GoloCompilationException.Problem problem = e.getProblems().get(0);
+      assertThat(problem.getType(), is(GoloCompilationException.Problem.Type.INVALID_TAIL_CALL));
+    }
+  }
+
+  @Test
+  public void failure_not_tail_mutual_call() throws Throwable {
+    try {
+      compileAndLoadGoloModule(SRC, "failure-not-tail-mutual-call.golo");
+      fail("A GoloCompilationException was expected");
+    } catch (GoloCompilationException e) {
+      assertThat(e.getProblems().size(), is(1));
+      GoloCompilationException.Problem problem = e.getProblems().get(0);
+      assertThat(problem.getType(), is(GoloCompilationException.Problem.Type.INVALID_TAIL_CALL));
+    }
+  }
+
+  @Test
+  public void failure_not_tail_method_call() throws Throwable {
+    try {
+      compileAndLoadGoloModule(SRC, "failure-not-tail-method-call.golo");
+      fail("A GoloCompilationException was expected");
+    } catch (GoloCompilationException e) {
+      assertThat(e.getProblems().size(), is(1));
+      GoloCompilationException.Problem problem = e.getProblems().get(0);
+      assertThat(problem.getType(), is(GoloCompilationException.Problem.Type.INVALID_TAIL_CALL));
+    }
+  }
+
   @Test
   public void dynamic_evaluation() throws Throwable {
     Class<?> moduleClass = compileAndLoadGoloModule(SRC, "dynamic-evaluation.golo");
@@ -1325,6 +1470,20 @@ public final class CompileAndRunTest extends GoloTest {
     assertThat(map.size(), is(2));
     assertThat((Character) map.get(1), is('a'));
     assertThat((Character) map.get(2), is('b'));
+
+    Method constant_tuple = moduleClass.getMethod("constant_tuple");
+    result = constant_tuple.invoke(null);
+    assertThat(result, is((Object) new Tuple(1, "a", new Tuple(10, 20))));
+    assertThat(constant_tuple.invoke(null), is(sameInstance(result)));
+
+    Method computed_tuple = moduleClass.getMethod("computed_tuple", Object.class);
+    assertThat(computed_tuple.invoke(null, 2), is((Object) new Tuple(1, 2)));
+    assertThat(computed_tuple.invoke(null, 3), is((Object) new Tuple(1, 3)));
+
+    Method fresh_map = moduleClass.getMethod("fresh_map");
+    result = fresh_map.invoke(null);
+    assertThat(fresh_map.invoke(null), is(not(sameInstance(result))));
+    assertThat(fresh_map.invoke(null), is(result));
   }
 
   @Test
@@ -1558,6 +1717,45 @@ public final class CompileAndRunTest extends GoloTest {
     assertThat(tuple.get(1), instanceOf(RuntimeException.class));
   }
 
+  @Test
+  @SuppressWarnings("unchecked")
+  public void async_features_mapAsync() throws Throwable {
+    if (bootstraping()) {
+      return;
+    }
+    Class<?> moduleClass = compileAndLoadGoloModule(SRC, "async-features.golo");
+
+    Method check_mapAsync = moduleClass.getMethod("check_mapAsync");
+    Object result = check_mapAsync.invoke(null);
+    assertThat(result, instanceOf(Tuple.class));
+    Tuple tuple = (Tuple) result;
+    assertThat(tuple.size(), is(3));
+    assertThat(tuple.get(0), is((Object) new Tuple("Ok!", false)));
+    assertThat(tuple.get(1), instanceOf(RuntimeException.class));
+    assertThat(tuple.get(2), instanceOf(NoSuchElementException.class));
+
+    Method check_rejected_callbacks = moduleClass.getMethod("check_rejected_callbacks");
+    tuple = (Tuple) check_rejected_callbacks.invoke(null);
+    assertThat(tuple.get(0), is((Object) "Ok"));
+    assertThat(tuple.get(1), instanceOf(RejectedExecutionException.class));
+    assertThat(tuple.get(2), is((Object) true));
+    assertThat((List<Object>) tuple.get(3), contains((Object) new Tuple("Ok", true), new Tuple("Plop", true)));
+
+    Method check_mapAsync_environment = moduleClass.getMethod("check_mapAsync_environment");
+    assertThat(check_mapAsync_environment.invoke(null), is((Object) true));
+  }
+
+  @Test
+  public void async_features_flatMapAsync_trampoline() throws Throwable {
+    if (bootstraping()) {
+      return;
+    }
+    Class<?> moduleClass = compileAndLoadGoloModule(SRC, "async-features.golo");
+
+    Method check_flatMapAsync_trampoline = moduleClass.getMethod("check_flatMapAsync_trampoline");
+    assertThat(check_flatMapAsync_trampoline.invoke(null), is((Object) 100_000));
+  }
+
   @Test
   public void module_state() throws Throwable {
     Class<?> moduleClass = compileAndLoadGoloModule(SRC, "module-state.golo");
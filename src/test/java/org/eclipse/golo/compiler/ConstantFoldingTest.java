@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2012-2021 Institut National des Sciences Appliquées de Lyon (INSA Lyon) and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.golo.compiler;
+
+import gololang.ir.*;
+import org.eclipse.golo.internal.testing.GoloTest;
+import org.testng.annotations.Test;
+
+import java.io.File;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class ConstantFoldingTest extends GoloTest {
+
+  @Override
+  public String srcDir() {
+    return "for-execution/";
+  }
+
+  private static GoloStatement<?> foldedReturn(int level) throws Throwable {
+    GoloCompiler compiler = new GoloCompiler();
+    compiler.setOptimizationLevel(level);
+    GoloModule module = compiler.check(compiler.parse(new File("src/test/resources/for-execution/constant-folding.golo")));
+    for (GoloFunction function : module.getFunctions()) {
+      if (function.getName().equals("folded")) {
+        return ((ReturnStatement) function.getBlock().getStatements().get(0)).expression();
+      }
+    }
+    throw new AssertionError("function not found");
+  }
+
+  @Test
+  public void constant_folding() throws Throwable {
+    run("constant-folding");
+  }
+
+  @Test
+  public void folded_ir() throws Throwable {
+    GoloStatement<?> expression = foldedReturn(1);
+    assertThat(expression, instanceOf(ConstantStatement.class));
+    assertThat(((ConstantStatement) expression).value(), is((Object) 7));
+    assertThat(foldedReturn(0), instanceOf(BinaryOperation.class));
+  }
+}
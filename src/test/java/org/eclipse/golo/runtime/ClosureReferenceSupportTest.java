@@ -23,6 +23,7 @@ import static java.lang.invoke.MethodType.methodType;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
 
 
 public class ClosureReferenceSupportTest {
@@ -33,6 +34,10 @@ public class ClosureReferenceSupportTest {
     return Arrays.asList(foo, bar);
   }
 
+  static Object prefixed(Object prefix, Object... args) {
+    return prefix + ":" + concat(args);
+  }
+
   static Object concat(Object... args) {
     StringBuilder result = new StringBuilder();
     for (Object arg : args) {
@@ -74,4 +79,38 @@ public class ClosureReferenceSupportTest {
     assertThat(result, instanceOf(String.class));
     assertThat((String) result, is("foobar"));
   }
+
+  @Test
+  public void check_bootstrap_capturing() throws Throwable {
+    CallSite callSite = ClosureReferenceSupport.bootstrap(lookup(), "to_list", methodType(FunctionReference.class, Object.class), KLASS, 2, 0);
+    assertThat(callSite.type(), is(methodType(FunctionReference.class, Object.class)));
+
+    FunctionReference first = (FunctionReference) callSite.dynamicInvoker().invoke("foo");
+    FunctionReference second = (FunctionReference) callSite.dynamicInvoker().invoke("baz");
+    assertThat(first.arity(), is(1));
+    assertThat(first.type(), is(methodType(Object.class, Object.class)));
+    assertThat(first, is(not(second)));
+    assertThat(first.handle().invoke("bar"), is(Arrays.asList("foo", "bar")));
+    assertThat(second.invoke("bar"), is(Arrays.asList("baz", "bar")));
+
+    CallSite call = ClosureCallSupport.bootstrap(lookup(), "closure", methodType(Object.class, FunctionReference.class, Object.class), 0);
+    MethodHandle invoker = call.dynamicInvoker();
+    assertThat(invoker.invoke(first, "bar"), is(Arrays.asList("foo", "bar")));
+    assertThat(invoker.invoke(second, "bar"), is(Arrays.asList("baz", "bar")));
+    assertThat(invoker.invoke(first, "bar"), is(Arrays.asList("foo", "bar")));
+  }
+
+  @Test
+  public void check_bootstrap_capturing_varargs() throws Throwable {
+    CallSite callSite = ClosureReferenceSupport.bootstrap(lookup(), "prefixed", methodType(FunctionReference.class, Object.class), KLASS, 1, 1);
+    FunctionReference funRef = (FunctionReference) callSite.dynamicInvoker().invoke("p");
+    assertThat(funRef.isVarargsCollector(), is(true));
+    assertThat(funRef.type(), is(methodType(Object.class, Object[].class)));
+    assertThat(funRef.handle().invoke("foo", "bar"), is("p:foobar"));
+
+    CallSite call = ClosureCallSupport.bootstrap(lookup(), "closure", methodType(Object.class, FunctionReference.class, Object.class, Object.class), 0);
+    assertThat(call.dynamicInvoker().invoke(funRef, "foo", "bar"), is("p:foobar"));
+    call = ClosureCallSupport.bootstrap(lookup(), "closure", methodType(Object.class, FunctionReference.class, Object.class), 0);
+    assertThat(call.dynamicInvoker().invoke(funRef, new Object[]{"foo", "bar"}), is("p:foobar"));
+  }
 }
@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2012-2021 Institut National des Sciences Appliquées de Lyon (INSA Lyon) and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.golo.runtime;
+
+import gololang.Tuple;
+import org.testng.annotations.Test;
+
+import java.lang.invoke.MethodHandle;
+import java.util.AbstractMap;
+import java.util.Arrays;
+import java.util.Map;
+
+import static java.lang.invoke.MethodHandles.lookup;
+import static java.lang.invoke.MethodType.genericMethodType;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class DestructuringSupportTest {
+
+  private static MethodHandle site(String name, Object... args) {
+    return DestructuringSupport.bootstrap(lookup(), name, genericMethodType(1), args).dynamicInvoker();
+  }
+
+  @Test
+  public void direct_values() throws Throwable {
+    MethodHandle destruct = site("destruct", 2, 0, 0, 1);
+    MethodHandle first = site("element", 0);
+    Tuple tuple = new Tuple(1, 2);
+    Map.Entry<String, Integer> entry = new AbstractMap.SimpleEntry<>("k", 3);
+    Object[] array = new Object[]{4, 5};
+    assertThat(destruct.invoke(tuple), is(sameInstance((Object) tuple)));
+    assertThat(destruct.invoke(entry), is(sameInstance((Object) entry)));
+    assertThat(destruct.invoke(array), is(sameInstance((Object) array)));
+    assertThat(first.invoke(tuple), is((Object) 1));
+    assertThat(first.invoke(entry), is((Object) "k"));
+    assertThat(first.invoke(array), is((Object) 4));
+    assertThat(site("element", 1).invoke(entry), is((Object) 3));
+  }
+
+  @Test
+  public void generic_values() throws Throwable {
+    Object values = site("destruct", 2, 1, 0, 0).invoke(new Tuple(1, 2, 3));
+    assertThat(values, is(instanceOf(Object[].class)));
+    assertThat(site("element", 1).invoke(values), is((Object) new Tuple(2, 3)));
+    assertThat(site("element", 1).invoke(Arrays.asList(1, 2)), is((Object) 2));
+  }
+
+  @Test(expectedExceptions = InvalidDestructuringException.class)
+  public void not_enough_values() throws Throwable {
+    site("destruct", 2, 0, 0, 0).invoke(new Tuple(1, 2, 3));
+  }
+}
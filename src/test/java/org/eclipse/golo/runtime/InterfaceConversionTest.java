@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2012-2021 Institut National des Sciences Appliquées de Lyon (INSA Lyon) and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.golo.runtime;
+
+import gololang.FunctionReference;
+import org.eclipse.golo.compiler.GoloClassLoader;
+import org.testng.annotations.Test;
+
+import java.io.StringReader;
+import java.lang.invoke.MethodHandle;
+import java.lang.ref.WeakReference;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import static java.lang.invoke.MethodHandles.insertArguments;
+import static java.lang.invoke.MethodHandles.lookup;
+import static java.lang.invoke.MethodType.genericMethodType;
+import static java.lang.invoke.MethodType.methodType;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class InterfaceConversionTest {
+
+  private final String KLASS = "org.eclipse.golo.runtime.InterfaceConversionTest";
+
+  private static Object suffixed(Object suffix, Object value) {
+    return value + ":" + suffix;
+  }
+
+  private static Object difference(Object a, Object b) {
+    return (Integer) a - (Integer) b;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Function<Object, Object> asFunction(Object function) throws Throwable {
+    return (Function<Object, Object>) InterfaceConversion.filter(lookup(), Function.class).invoke(function);
+  }
+
+  @Test
+  public void function_reference() throws Throwable {
+    MethodHandle handle = lookup().findStatic(InterfaceConversionTest.class, "suffixed", genericMethodType(2));
+    FunctionReference reference = new FunctionReference(insertArguments(handle, 0, "a"));
+    assertThat(asFunction(reference).apply("b"), is("b:a"));
+    assertThat(InterfaceConversion.filter(lookup(), Function.class).invoke("plop"), is((Object) "plop"));
+  }
+
+  @Test
+  public void same_instance_for_same_function() throws Throwable {
+    MethodHandle handle = lookup().findStatic(InterfaceConversionTest.class, "suffixed", genericMethodType(2));
+    FunctionReference reference = new FunctionReference(handle);
+    MethodHandle filter = InterfaceConversion.filter(lookup(), BiFunction.class);
+    Object converted = filter.invoke(reference);
+    assertThat(filter.invoke(reference), is(sameInstance(converted)));
+    assertThat(InterfaceConversion.filter(lookup(), BiFunction.class).invoke(reference), is(not(sameInstance(converted))));
+  }
+
+  @Test
+  public void capturing_closure() throws Throwable {
+    MethodHandle factory = ClosureReferenceSupport.bootstrap(
+        lookup(), "suffixed", methodType(FunctionReference.class, Object.class), KLASS, 2, 0).dynamicInvoker();
+    Function<Object, Object> first = asFunction(factory.invoke("a"));
+    Function<Object, Object> second = asFunction(factory.invoke("b"));
+    assertThat(first.apply("x"), is("x:a"));
+    assertThat(second.apply("x"), is("x:b"));
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void primitive_return() throws Throwable {
+    MethodHandle handle = lookup().findStatic(InterfaceConversionTest.class, "difference", genericMethodType(2));
+    Comparator<Object> comparator = (Comparator<Object>) InterfaceConversion.convert(
+        lookup(), Comparator.class, new FunctionReference(handle));
+    assertThat(comparator.compare(3, 1), is(2));
+  }
+
+  @Test
+  public void partial_functions_beyond_max_entries() throws Throwable {
+    MethodHandle handle = lookup().findStatic(InterfaceConversionTest.class, "suffixed", genericMethodType(2));
+    MethodHandle filter = InterfaceConversion.filter(lookup(), Function.class);
+    for (int i = 0; i < 20; i++) {
+      FunctionReference reference = new FunctionReference(insertArguments(handle, 0, i));
+      Function<?, ?> converted = (Function<?, ?>) filter.invoke(reference);
+      assertThat(converted.apply(null), is((Object) ("null:" + i)));
+    }
+  }
+
+  @Test
+  public void lambda_classes_reused_beyond_max_entries() throws Throwable {
+    MethodHandle filter = InterfaceConversion.filter(lookup(), Function.class);
+    FunctionReference[] references = new FunctionReference[10];
+    for (int i = 0; i < references.length; i++) {
+      MethodHandle factory = ClosureReferenceSupport.bootstrap(
+          lookup(), "suffixed", methodType(FunctionReference.class, Object.class), KLASS, 2, 0).dynamicInvoker();
+      references[i] = (FunctionReference) factory.invoke(i);
+    }
+    Set<Class<?>> classes = new HashSet<>();
+    for (int round = 0; round < 20; round++) {
+      for (int i = 0; i < references.length; i++) {
+        Function<?, ?> converted = (Function<?, ?>) filter.invoke(references[i]);
+        assertThat(converted.apply(null), is((Object) ("null:" + i)));
+        classes.add(converted.getClass());
+      }
+    }
+    assertThat(classes.size(), is(references.length));
+  }
+
+  @Test
+  public void converted_functions_can_be_collected() throws Throwable {
+    MethodHandle filter = InterfaceConversion.filter(lookup(), Function.class);
+    WeakReference<MethodHandle> handle = convertPartial(filter);
+    for (int i = 0; i < 20 && handle.get() != null; i++) {
+      System.gc();
+      Thread.sleep(50);
+    }
+    assertThat(handle.get(), is(nullValue()));
+  }
+
+  private WeakReference<MethodHandle> convertPartial(MethodHandle filter) throws Throwable {
+    MethodHandle handle = lookup().findStatic(InterfaceConversionTest.class, "suffixed", genericMethodType(2));
+    FunctionReference reference = new FunctionReference(insertArguments(handle, 0, "a"));
+    Function<?, ?> converted = (Function<?, ?>) filter.invoke(reference);
+    assertThat(converted.apply(null), is((Object) "null:a"));
+    return new WeakReference<>(reference.handle());
+  }
+
+  @Test
+  public void module_loader_can_be_collected() throws Throwable {
+    WeakReference<ClassLoader> loader = convertInModule();
+    for (int i = 0; i < 20 && loader.get() != null; i++) {
+      System.gc();
+      Thread.sleep(50);
+    }
+    assertThat(loader.get(), is(nullValue()));
+  }
+
+  private WeakReference<ClassLoader> convertInModule() throws Throwable {
+    GoloClassLoader loader = new GoloClassLoader(InterfaceConversionTest.class.getClassLoader());
+    Class<?> module = loader.load("collectable.golo", new StringReader(
+        "module golotest.Collectable\n\n"
+        + "function shout = |x| -> x + \"!\"\n\n"
+        + "function convert = -> java.util.Optional.of(\"hey\"): map(^shout): get()\n"));
+    assertThat(module.getMethod("convert").invoke(null), is("hey!"));
+    return new WeakReference<>(loader);
+  }
+}
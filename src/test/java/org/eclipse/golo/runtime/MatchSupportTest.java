@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2012-2021 Institut National des Sciences Appliquées de Lyon (INSA Lyon) and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.golo.runtime;
+
+import org.testng.annotations.Test;
+
+import java.lang.invoke.MethodHandle;
+import java.util.ArrayList;
+
+import static java.lang.invoke.MethodHandles.lookup;
+import static java.lang.invoke.MethodType.methodType;
+import static org.eclipse.golo.runtime.MatchSupport.NO_MATCH;
+import static org.eclipse.golo.runtime.MatchSupport.UNKNOWN;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+public class MatchSupportTest {
+
+  private static MethodHandle index(String kind, Object... keys) {
+    return MatchSupport.bootstrap(lookup(), kind, methodType(int.class, Object.class), keys).dynamicInvoker();
+  }
+
+  @Test
+  public void equals_switch() throws Throwable {
+    MethodHandle index = index("equals", "a", 1, "b", "a");
+    assertThat((int) index.invokeExact((Object) "a"), is(0));
+    assertThat((int) index.invokeExact((Object) 1), is(1));
+    assertThat((int) index.invokeExact((Object) "b"), is(2));
+    assertThat((int) index.invokeExact((Object) "c"), is(NO_MATCH));
+    assertThat((int) index.invokeExact((Object) null), is(NO_MATCH));
+    assertThat((int) index.invokeExact((Object) 1L), is(UNKNOWN));
+    assertThat((int) index.invokeExact((Object) 1.0), is(UNKNOWN));
+  }
+
+  @Test
+  public void mixed_integers() throws Throwable {
+    MethodHandle index = index("equals", 1, 2L);
+    assertThat((int) index.invokeExact((Object) 1), is(UNKNOWN));
+    assertThat((int) index.invokeExact((Object) 2L), is(UNKNOWN));
+  }
+
+  @Test
+  public void type_switch() throws Throwable {
+    MethodHandle index = index("oftype", "java.lang.String", "java.util.List", "java.util.Collection");
+    assertThat((int) index.invokeExact((Object) "a"), is(0));
+    assertThat((int) index.invokeExact((Object) new ArrayList<>()), is(1));
+    assertThat((int) index.invokeExact((Object) 1), is(NO_MATCH));
+    assertThat((int) index.invokeExact((Object) null), is(NO_MATCH));
+  }
+
+  @Test
+  public void unknown_type() throws Throwable {
+    MethodHandle index = index("oftype", "java.lang.String", "plop.Missing");
+    assertThat((int) index.invokeExact((Object) "a"), is(UNKNOWN));
+  }
+}
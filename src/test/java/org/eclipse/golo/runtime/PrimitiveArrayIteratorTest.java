@@ -35,6 +35,49 @@ public class PrimitiveArrayIteratorTest {
     assertThat(iterator.hasNext(), is(false));
   }
 
+  @Test
+  public void primitive_array() {
+    long[] array = {1L, 2L};
+    PrimitiveArrayIterator iterator = new PrimitiveArrayIterator((Object) array);
+
+    assertThat(iterator.hasNext(), is(true));
+    assertThat((Long) iterator.next(), is(1L));
+
+    assertThat(iterator.hasNext(), is(true));
+    assertThat((Long) iterator.next(), is(2L));
+
+    assertThat(iterator.hasNext(), is(false));
+  }
+
+  @Test
+  public void primitive_array_read_lazily() {
+    int[] array = {1, 2};
+    PrimitiveArrayIterator iterator = new PrimitiveArrayIterator((Object) array);
+    array[1] = 42;
+
+    assertThat((Integer) iterator.next(), is(1));
+    assertThat((Integer) iterator.next(), is(42));
+    assertThat(iterator.hasNext(), is(false));
+  }
+
+  @Test
+  public void primitive_elements() {
+    assertThat(ForEachHelper.primitiveElements(new boolean[]{true}).get(0), is((Object) true));
+    assertThat(ForEachHelper.primitiveElements(new byte[]{1}).get(0), is((Object) (byte) 1));
+    assertThat(ForEachHelper.primitiveElements(new short[]{2}).get(0), is((Object) (short) 2));
+    assertThat(ForEachHelper.primitiveElements(new char[]{'c'}).get(0), is((Object) 'c'));
+    assertThat(ForEachHelper.primitiveElements(new int[]{3}).get(0), is((Object) 3));
+    assertThat(ForEachHelper.primitiveElements(new long[]{4L}).get(0), is((Object) 4L));
+    assertThat(ForEachHelper.primitiveElements(new float[]{5.0f}).get(0), is((Object) 5.0f));
+    assertThat(ForEachHelper.primitiveElements(new double[]{6.0}).get(0), is((Object) 6.0));
+    assertThat(ForEachHelper.primitiveElements(new double[]{6.0, 7.0}).length(), is(2));
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void primitive_elements_of_object_array() {
+    ForEachHelper.primitiveElements(new Object[]{1});
+  }
+
   @Test(expectedExceptions = UnsupportedOperationException.class)
   public void no_remove() {
     Object[] array = {1, 2, 3};
@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2012-2021 Institut National des Sciences Appliquées de Lyon (INSA Lyon) and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.golo.runtime;
+
+import org.testng.annotations.Test;
+
+import java.lang.invoke.CallSite;
+import java.util.Arrays;
+
+import static java.lang.invoke.MethodHandles.lookup;
+import static java.lang.invoke.MethodType.genericMethodType;
+import static java.lang.invoke.MethodType.methodType;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+public class StringConcatenationSupportTest {
+
+  @Test
+  public void concatenation() throws Throwable {
+    CallSite callSite = StringConcatenationSupport.bootstrap(lookup(), "concat",
+        methodType(String.class, Object.class, Object.class), "[\u0001:\u0001]");
+    assertThat(callSite.type(), is(methodType(String.class, Object.class, Object.class)));
+    assertThat((String) callSite.dynamicInvoker().invoke((Object) 1, (Object) null), is("[1:null]"));
+  }
+
+  @Test
+  public void many_operands() throws Throwable {
+    int arity = 250;
+    char[] recipe = new char[arity];
+    Arrays.fill(recipe, StringConcatenationSupport.ARGUMENT);
+    Object[] args = new Object[arity];
+    Arrays.fill(args, 'a');
+    args[arity - 1] = 1;
+    CallSite callSite = StringConcatenationSupport.bootstrap(lookup(), "concat",
+        genericMethodType(arity).changeReturnType(String.class), "<" + new String(recipe) + ">");
+    char[] expected = new char[arity - 1];
+    Arrays.fill(expected, 'a');
+    assertThat((String) callSite.dynamicInvoker().invokeWithArguments(args), is("<" + new String(expected) + "1>"));
+  }
+}